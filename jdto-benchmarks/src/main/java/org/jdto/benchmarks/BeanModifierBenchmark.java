@@ -0,0 +1,97 @@
+/*
+ *    Copyright 2012 Juan Alberto López Cavallotti
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jdto.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.annotations.Param;
+import org.jdto.BeanModifier;
+import org.jdto.DTOBinderFactory;
+import org.jdto.benchmarks.model.Address;
+import org.jdto.benchmarks.model.Customer;
+import org.jdto.benchmarks.model.CustomerDTO;
+import org.jdto.impl.CoreBeanModifier;
+import org.jdto.impl.DTOBinderBean;
+import org.jdto.spring.BeanWrapperBeanModifier;
+
+/**
+ * Property access and binding with each of the bean modifiers.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BeanModifierBenchmark {
+
+    @Param({"core", "beanWrapper"})
+    private String modifierName;
+    private BeanModifier modifier;
+    private DTOBinderBean binder;
+    private Customer customer;
+    private Address address;
+
+    @Setup
+    public void setUp() {
+        if ("core".equals(modifierName)) {
+            modifier = new CoreBeanModifier();
+        } else {
+            modifier = new BeanWrapperBeanModifier();
+        }
+        
+        binder = (DTOBinderBean) DTOBinderFactory.buildBinder();
+        binder.setBeanModifier(modifier);
+        customer = Fixtures.customer(1);
+        address = customer.getAddress();
+    }
+
+    @Benchmark
+    public Object readNested() {
+        return modifier.readPropertyValue("address.city", customer);
+    }
+
+    @Benchmark
+    public String readNestedHandWritten() {
+        return customer.getAddress().getCity();
+    }
+
+    @Benchmark
+    public Address write() {
+        modifier.writePropertyValue("city", "Rosario", address);
+        return address;
+    }
+
+    @Benchmark
+    public Address writeHandWritten() {
+        address.setCity("Rosario");
+        return address;
+    }
+
+    @Benchmark
+    public CustomerDTO bind() {
+        return binder.bindFromBusinessObject(CustomerDTO.class, customer);
+    }
+}
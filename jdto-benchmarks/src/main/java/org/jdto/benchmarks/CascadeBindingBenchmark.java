@@ -0,0 +1,92 @@
+/*
+ *    Copyright 2012 Juan Alberto López Cavallotti
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jdto.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.jdto.DTOBinderFactory;
+import org.jdto.impl.DTOBinderBean;
+import org.jdto.benchmarks.model.Customer;
+import org.jdto.benchmarks.model.CustomerAddressDTO;
+import org.jdto.benchmarks.model.CustomerOrderArrayDTO;
+import org.jdto.benchmarks.model.CustomerOrdersDTO;
+
+/**
+ * Binding of DTOs with a single cascaded DTO, a cascaded list and a cascaded
+ * array, each customer has {@link Fixtures#ORDERS_PER_CUSTOMER} orders.
+ * The binder runs with and without binder classes generated at runtime,
+ * which are ready once the warm up is over.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CascadeBindingBenchmark {
+
+    @Param({"false", "true"})
+    private boolean generatedBinders;
+    private DTOBinderBean binder;
+    private Customer customer;
+
+    @Setup
+    public void setUp() {
+        binder = (DTOBinderBean) DTOBinderFactory.buildBinder();
+        binder.setGeneratedBindersEnabled(generatedBinders);
+        customer = Fixtures.customer(1);
+    }
+
+    @Benchmark
+    public CustomerAddressDTO singleBinder() {
+        return binder.bindFromBusinessObject(CustomerAddressDTO.class, customer);
+    }
+
+    @Benchmark
+    public CustomerAddressDTO singleHandWritten() {
+        return HandWrittenMapper.toCustomerAddressDTO(customer);
+    }
+
+    @Benchmark
+    public CustomerOrdersDTO listBinder() {
+        return binder.bindFromBusinessObject(CustomerOrdersDTO.class, customer);
+    }
+
+    @Benchmark
+    public CustomerOrdersDTO listHandWritten() {
+        return HandWrittenMapper.toCustomerOrdersDTO(customer);
+    }
+
+    @Benchmark
+    public CustomerOrderArrayDTO arrayBinder() {
+        return binder.bindFromBusinessObject(CustomerOrderArrayDTO.class, customer);
+    }
+
+    @Benchmark
+    public CustomerOrderArrayDTO arrayHandWritten() {
+        return HandWrittenMapper.toCustomerOrderArrayDTO(customer);
+    }
+}
@@ -0,0 +1,63 @@
+/*
+ *    Copyright 2012 Juan Alberto López Cavallotti
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jdto.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.jdto.DTOBinder;
+import org.jdto.DTOBinderFactory;
+import org.jdto.benchmarks.model.Customer;
+import org.jdto.benchmarks.model.CustomerDTO;
+
+/**
+ * Reverse binding, building a business object out of a DTO.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ExtractBenchmark {
+
+    private DTOBinder binder;
+    private CustomerDTO dto;
+
+    @Setup
+    public void setUp() {
+        binder = DTOBinderFactory.buildBinder();
+        dto = HandWrittenMapper.toCustomerDTO(Fixtures.customer(1));
+    }
+
+    @Benchmark
+    public Customer binder() {
+        return binder.extractFromDto(Customer.class, dto);
+    }
+
+    @Benchmark
+    public Customer handWritten() {
+        return HandWrittenMapper.fromCustomerDTO(dto);
+    }
+}
@@ -0,0 +1,73 @@
+/*
+ *    Copyright 2012 Juan Alberto López Cavallotti
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jdto.benchmarks;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.jdto.benchmarks.model.Address;
+import org.jdto.benchmarks.model.Customer;
+import org.jdto.benchmarks.model.Order;
+
+/**
+ * Builds the business objects bound by the benchmarks.
+ */
+final class Fixtures {
+
+    /**
+     * The amount of orders of each customer.
+     */
+    static final int ORDERS_PER_CUSTOMER = 5;
+
+    private Fixtures() {
+    }
+
+    static Customer customer(int index) {
+        Address address = new Address();
+        address.setStreet("Street " + index);
+        address.setCity("City " + (index % 100));
+        address.setZipCode(String.valueOf(10000 + index));
+
+        List<Order> orders = new ArrayList<Order>(ORDERS_PER_CUSTOMER);
+        for (int i = 0; i < ORDERS_PER_CUSTOMER; i++) {
+            orders.add(order(index * ORDERS_PER_CUSTOMER + i));
+        }
+
+        Customer ret = new Customer();
+        ret.setName("Customer " + index);
+        ret.setEmail("customer" + index + "@jdto.org");
+        ret.setAge(20 + index % 50);
+        ret.setActive(index % 2 == 0);
+        ret.setAddress(address);
+        ret.setOrders(orders);
+        return ret;
+    }
+
+    static Order order(long id) {
+        Order ret = new Order();
+        ret.setId(id);
+        ret.setTotal(id * 1.5);
+        ret.setStatus((id % 3 == 0) ? "SHIPPED" : "OPEN");
+        return ret;
+    }
+
+    static List<Customer> customers(int size) {
+        List<Customer> ret = new ArrayList<Customer>(size);
+        for (int i = 0; i < size; i++) {
+            ret.add(customer(i));
+        }
+        return ret;
+    }
+}
@@ -0,0 +1,130 @@
+/*
+ *    Copyright 2012 Juan Alberto López Cavallotti
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jdto.benchmarks;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.jdto.benchmarks.model.Address;
+import org.jdto.benchmarks.model.AddressDTO;
+import org.jdto.benchmarks.model.Customer;
+import org.jdto.benchmarks.model.CustomerAddressDTO;
+import org.jdto.benchmarks.model.CustomerDTO;
+import org.jdto.benchmarks.model.CustomerOrderArrayDTO;
+import org.jdto.benchmarks.model.CustomerOrderDTO;
+import org.jdto.benchmarks.model.CustomerOrdersDTO;
+import org.jdto.benchmarks.model.ImmutableCustomerDTO;
+import org.jdto.benchmarks.model.Order;
+import org.jdto.benchmarks.model.OrderDTO;
+
+/**
+ * The baseline of the benchmarks, the same mappings the binder does written
+ * by hand with plain getters and setters.
+ */
+final class HandWrittenMapper {
+
+    private HandWrittenMapper() {
+    }
+
+    static CustomerDTO toCustomerDTO(Customer customer) {
+        CustomerDTO ret = new CustomerDTO();
+        ret.setName(customer.getName());
+        ret.setEmail(customer.getEmail());
+        ret.setAge(customer.getAge());
+        ret.setActive(customer.isActive());
+        return ret;
+    }
+
+    static List<CustomerDTO> toCustomerDTOs(List<Customer> customers) {
+        List<CustomerDTO> ret = new ArrayList<CustomerDTO>(customers.size());
+        for (Customer customer : customers) {
+            ret.add(toCustomerDTO(customer));
+        }
+        return ret;
+    }
+
+    static Customer fromCustomerDTO(CustomerDTO dto) {
+        Customer ret = new Customer();
+        ret.setName(dto.getName());
+        ret.setEmail(dto.getEmail());
+        ret.setAge(dto.getAge());
+        ret.setActive(dto.isActive());
+        return ret;
+    }
+
+    static CustomerOrderDTO toCustomerOrderDTO(Customer customer, Order order) {
+        CustomerOrderDTO ret = new CustomerOrderDTO();
+        ret.setCustomerName(customer.getName());
+        ret.setOrderId(order.getId());
+        ret.setTotal(order.getTotal());
+        return ret;
+    }
+
+    static ImmutableCustomerDTO toImmutableCustomerDTO(Customer customer) {
+        return new ImmutableCustomerDTO(customer.getName(), customer.getEmail(), customer.getAge());
+    }
+
+    static CustomerAddressDTO toCustomerAddressDTO(Customer customer) {
+        CustomerAddressDTO ret = new CustomerAddressDTO();
+        ret.setName(customer.getName());
+        ret.setAddress(toAddressDTO(customer.getAddress()));
+        return ret;
+    }
+
+    static CustomerOrdersDTO toCustomerOrdersDTO(Customer customer) {
+        List<OrderDTO> orders = new ArrayList<OrderDTO>(customer.getOrders().size());
+        for (Order order : customer.getOrders()) {
+            orders.add(toOrderDTO(order));
+        }
+
+        CustomerOrdersDTO ret = new CustomerOrdersDTO();
+        ret.setName(customer.getName());
+        ret.setOrders(orders);
+        return ret;
+    }
+
+    static CustomerOrderArrayDTO toCustomerOrderArrayDTO(Customer customer) {
+        OrderDTO[] orders = new OrderDTO[customer.getOrders().size()];
+        int i = 0;
+        for (Order order : customer.getOrders()) {
+            orders[i++] = toOrderDTO(order);
+        }
+
+        CustomerOrderArrayDTO ret = new CustomerOrderArrayDTO();
+        ret.setName(customer.getName());
+        ret.setOrders(orders);
+        return ret;
+    }
+
+    private static AddressDTO toAddressDTO(Address address) {
+        if (address == null) {
+            return null;
+        }
+        
+        AddressDTO ret = new AddressDTO();
+        ret.setStreet(address.getStreet());
+        ret.setCity(address.getCity());
+        ret.setZipCode(address.getZipCode());
+        return ret;
+    }
+
+    private static OrderDTO toOrderDTO(Order order) {
+        OrderDTO ret = new OrderDTO();
+        ret.setId(order.getId());
+        ret.setTotal(order.getTotal());
+        ret.setStatus(order.getStatus());
+        return ret;
+    }
+}
@@ -0,0 +1,134 @@
+/*
+ *    Copyright 2012 Juan Alberto López Cavallotti
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jdto.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+import org.jdto.PropertyPath;
+import org.jdto.impl.CoreBeanModifier;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Property access through a single shared CoreBeanModifier on beans of
+ * several classes, from several threads, as happens when one binder serves
+ * a whole application. Each operation goes through every bean once.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Threads(4)
+@Fork(1)
+public class ManyClassesBenchmark {
+
+    @Param({"2", "8", "16"})
+    private int classes;
+    private CoreBeanModifier modifier;
+    private Bean[] beans;
+    private PropertyPath path;
+
+    @Setup
+    public void setUp() {
+        modifier = new CoreBeanModifier();
+        path = PropertyPath.compile("value");
+        
+        Bean[] all = new Bean[] {
+            new Bean0(), new Bean1(), new Bean2(), new Bean3(),
+            new Bean4(), new Bean5(), new Bean6(), new Bean7(),
+            new Bean8(), new Bean9(), new Bean10(), new Bean11(),
+            new Bean12(), new Bean13(), new Bean14(), new Bean15()
+        };
+        
+        beans = new Bean[classes];
+        System.arraycopy(all, 0, beans, 0, classes);
+    }
+
+    @Benchmark
+    public int readString() {
+        int ret = 0;
+        for (Bean bean : beans) {
+            ret += ((String) modifier.readPropertyValue("value", bean)).length();
+        }
+        return ret;
+    }
+
+    @Benchmark
+    public int readPath() {
+        int ret = 0;
+        for (Bean bean : beans) {
+            ret += ((String) modifier.readPropertyValue(path, bean)).length();
+        }
+        return ret;
+    }
+
+    @Benchmark
+    public Bean[] writeString() {
+        for (Bean bean : beans) {
+            modifier.writePropertyValue("value", "written", bean);
+        }
+        return beans;
+    }
+
+    @Benchmark
+    public int readHandWritten() {
+        int ret = 0;
+        for (Bean bean : beans) {
+            ret += bean.getValue().length();
+        }
+        return ret;
+    }
+
+    public static class Bean {
+
+        private String value = "value";
+
+        public String getValue() {
+            return value;
+        }
+
+        public void setValue(String value) {
+            this.value = value;
+        }
+    }
+
+    public static class Bean0 extends Bean {}
+    public static class Bean1 extends Bean {}
+    public static class Bean2 extends Bean {}
+    public static class Bean3 extends Bean {}
+    public static class Bean4 extends Bean {}
+    public static class Bean5 extends Bean {}
+    public static class Bean6 extends Bean {}
+    public static class Bean7 extends Bean {}
+    public static class Bean8 extends Bean {}
+    public static class Bean9 extends Bean {}
+    public static class Bean10 extends Bean {}
+    public static class Bean11 extends Bean {}
+    public static class Bean12 extends Bean {}
+    public static class Bean13 extends Bean {}
+    public static class Bean14 extends Bean {}
+    public static class Bean15 extends Bean {}
+}
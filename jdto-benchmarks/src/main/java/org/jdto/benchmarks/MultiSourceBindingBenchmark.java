@@ -0,0 +1,66 @@
+/*
+ *    Copyright 2012 Juan Alberto López Cavallotti
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jdto.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.jdto.DTOBinder;
+import org.jdto.DTOBinderFactory;
+import org.jdto.benchmarks.model.Customer;
+import org.jdto.benchmarks.model.CustomerOrderDTO;
+import org.jdto.benchmarks.model.Order;
+
+/**
+ * Binding of a DTO out of two business objects.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MultiSourceBindingBenchmark {
+
+    private DTOBinder binder;
+    private Customer customer;
+    private Order order;
+
+    @Setup
+    public void setUp() {
+        binder = DTOBinderFactory.buildBinder();
+        customer = Fixtures.customer(1);
+        order = customer.getOrders().get(0);
+    }
+
+    @Benchmark
+    public CustomerOrderDTO binder() {
+        return binder.bindFromBusinessObject(CustomerOrderDTO.class, customer, order);
+    }
+
+    @Benchmark
+    public CustomerOrderDTO handWritten() {
+        return HandWrittenMapper.toCustomerOrderDTO(customer, order);
+    }
+}
@@ -0,0 +1,44 @@
+/*
+ *    Copyright 2012 Juan Alberto López Cavallotti
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jdto.benchmarks.model;
+
+import org.jdto.annotation.DTOCascade;
+
+/**
+ * DTO with a cascaded array of DTOs.
+ */
+public class CustomerOrderArrayDTO {
+
+    private String name;
+    @DTOCascade
+    private OrderDTO[] orders;
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public OrderDTO[] getOrders() {
+        return orders;
+    }
+
+    public void setOrders(OrderDTO[] orders) {
+        this.orders = orders;
+    }
+}
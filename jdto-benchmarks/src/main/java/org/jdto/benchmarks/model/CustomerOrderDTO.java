@@ -0,0 +1,57 @@
+/*
+ *    Copyright 2012 Juan Alberto López Cavallotti
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jdto.benchmarks.model;
+
+import org.jdto.annotation.Source;
+import org.jdto.annotation.SourceNames;
+
+/**
+ * DTO built out of a customer and one of its orders.
+ */
+@SourceNames({"customer", "order"})
+public class CustomerOrderDTO {
+
+    @Source(value = "name", sourceBean = "customer")
+    private String customerName;
+    @Source(value = "id", sourceBean = "order")
+    private long orderId;
+    @Source(value = "total", sourceBean = "order")
+    private double total;
+
+    public String getCustomerName() {
+        return customerName;
+    }
+
+    public void setCustomerName(String customerName) {
+        this.customerName = customerName;
+    }
+
+    public long getOrderId() {
+        return orderId;
+    }
+
+    public void setOrderId(long orderId) {
+        this.orderId = orderId;
+    }
+
+    public double getTotal() {
+        return total;
+    }
+
+    public void setTotal(double total) {
+        this.total = total;
+    }
+}
@@ -0,0 +1,48 @@
+/*
+ *    Copyright 2012 Juan Alberto López Cavallotti
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jdto.benchmarks.model;
+
+import org.jdto.annotation.DTOConstructor;
+import org.jdto.annotation.Source;
+
+/**
+ * Immutable DTO populated through its constructor.
+ */
+public final class ImmutableCustomerDTO {
+
+    private final String name;
+    private final String email;
+    private final int age;
+
+    @DTOConstructor
+    public ImmutableCustomerDTO(@Source("name") String name, @Source("email") String email, @Source("age") int age) {
+        this.name = name;
+        this.email = email;
+        this.age = age;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getEmail() {
+        return email;
+    }
+
+    public int getAge() {
+        return age;
+    }
+}
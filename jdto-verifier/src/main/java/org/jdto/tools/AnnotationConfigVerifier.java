@@ -22,6 +22,13 @@ import javax.annotation.processing.*;
 import javax.lang.model.SourceVersion;
 import javax.lang.model.element.*;
 import javax.tools.Diagnostic;
+import javax.tools.FileObject;
+import javax.tools.StandardLocation;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -30,13 +37,28 @@ import java.util.Set;
  * Annotation processor that verifies the sanity of the DTO Mapping.
  *
  * This annotation processor will work with source code starting from version 6.
+ * 
+ * When the jdto.generateBinders option is set to true (-Ajdto.generateBinders=true)
+ * the processor also generates precompiled binders for the verified DTOs and
+ * registers them on META-INF/services, so they are used instead of reflection
+ * at runtime.
  *
  * @author Juan Alberto López Cavallotti
  */
 @SupportedAnnotationTypes("org.jdto.annotation.DTOVerify")
 @SupportedSourceVersion(SourceVersion.RELEASE_6)
+@SupportedOptions(AnnotationConfigVerifier.GENERATE_BINDERS_OPTION)
 public class AnnotationConfigVerifier extends AbstractProcessor {
 
+    /**
+     * Processor option to generate precompiled binders for the verified DTOs.
+     */
+    public static final String GENERATE_BINDERS_OPTION = "jdto.generateBinders";
+    
+    private static final String BINDER_SERVICES = "META-INF/services/org.jdto.impl.PrecompiledBinder";
+    
+    private final List<String> generatedBinders = new ArrayList<String>();
+
     @Override
     public synchronized void init(ProcessingEnvironment processingEnv) {
         super.init(processingEnv);
@@ -49,6 +71,10 @@ public class AnnotationConfigVerifier extends AbstractProcessor {
 
         Messager messager = processingEnv.getMessager();
 
+        if (roundEnv.processingOver()) {
+            writeBinderServices(messager);
+        }
+        
         if (annotations.isEmpty()) {
             return false;
         }
@@ -64,6 +90,13 @@ public class AnnotationConfigVerifier extends AbstractProcessor {
             TypeElement targetType = extractTargetType(element, annotationElement, messager);
 
             validateDTO((TypeElement) element, targetType, messager);
+            
+            if (isGenerateBinders()) {
+                String binder = new BinderSourceGenerator(processingEnv).generate((TypeElement) element, targetType);
+                if (binder != null) {
+                    generatedBinders.add(binder);
+                }
+            }
         }
 
 
@@ -71,6 +104,71 @@ public class AnnotationConfigVerifier extends AbstractProcessor {
         return true;
     }
 
+    private boolean isGenerateBinders() {
+        return Boolean.parseBoolean(processingEnv.getOptions().get(GENERATE_BINDERS_OPTION));
+    }
+    
+    /**
+     * Register the generated binders so they can be found by the service loader.
+     * The binders registered by previous compilations are kept, an incremental
+     * build may only recompile some of the DTOs.
+     */
+    private void writeBinderServices(Messager messager) {
+        
+        if (generatedBinders.isEmpty()) {
+            return;
+        }
+        
+        Set<String> binders = new LinkedHashSet<String>(readBinderServices());
+        binders.addAll(generatedBinders);
+        
+        try {
+            FileObject file = processingEnv.getFiler().createResource(StandardLocation.CLASS_OUTPUT, "", BINDER_SERVICES);
+            Writer writer = file.openWriter();
+            try {
+                for (String binder : binders) {
+                    writer.write(binder);
+                    writer.write("\n");
+                }
+            } finally {
+                writer.close();
+            }
+        } catch (IOException ex) {
+            messager.printMessage(Diagnostic.Kind.WARNING, "Could not register the generated binders: " + ex.getMessage());
+        }
+    }
+    
+    /**
+     * Read the binders registered on the output by a previous compilation.
+     * @return the names of the registered binders, empty if there are none.
+     */
+    private List<String> readBinderServices() {
+        
+        List<String> ret = new ArrayList<String>();
+        
+        try {
+            FileObject file = processingEnv.getFiler().getResource(StandardLocation.CLASS_OUTPUT, "", BINDER_SERVICES);
+            BufferedReader reader = new BufferedReader(file.openReader(true));
+            try {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    line = line.trim();
+                    if (line.length() > 0 && !line.startsWith("#")) {
+                        ret.add(line);
+                    }
+                }
+            } finally {
+                reader.close();
+            }
+        } catch (IOException ex) {
+            //nothing registered yet.
+        } catch (IllegalArgumentException ex) {
+            //some compilers can't read from the class output.
+        }
+        
+        return ret;
+    }
+
     private void validateDTO(TypeElement element, TypeElement targetType, Messager msg) {
         //configuration ought to be on the getter, the setter or the field.
         //since we're copying from beans first inspect the getters/setters
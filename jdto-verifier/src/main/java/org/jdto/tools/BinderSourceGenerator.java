@@ -0,0 +1,393 @@
+/*
+ * Copyright 2013 Juan Alberto López Cavallotti.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jdto.tools;
+
+import org.apache.commons.lang3.StringUtils;
+import org.jdto.annotation.DTOCascade;
+import org.jdto.annotation.DTOConstructor;
+import org.jdto.annotation.DTOTransient;
+import org.jdto.annotation.Source;
+import org.jdto.annotation.SourceNames;
+import org.jdto.annotation.Sources;
+
+import javax.annotation.processing.ProcessingEnvironment;
+import javax.lang.model.element.*;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.Types;
+import javax.tools.Diagnostic;
+import javax.tools.JavaFileObject;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Generates the java source of precompiled binders for DTOs annotated with
+ * {@link org.jdto.annotation.DTOVerify}. The generated classes extend
+ * org.jdto.impl.PrecompiledBinder and call the getters, setters and
+ * constructors directly. <br />
+ *
+ * Binders are only generated for mutable DTOs whose properties are read from a
+ * single property path of the source bean, any other DTO is left to the
+ * runtime binding.
+ *
+ * @since 1.5
+ */
+final class BinderSourceGenerator {
+
+    /**
+     * Suffix of the generated binder class names.
+     */
+    static final String BINDER_SUFFIX = "$$JDTOPrecompiledBinder";
+
+    private final ProcessingEnvironment processingEnv;
+
+    BinderSourceGenerator(ProcessingEnvironment processingEnv) {
+        this.processingEnv = processingEnv;
+    }
+
+    /**
+     * Generate the binder of the given DTO.
+     * @param dto the DTO type.
+     * @param sourceType the type of the source bean.
+     * @return the qualified name of the generated binder or null if no binder
+     * was generated.
+     */
+    String generate(TypeElement dto, TypeElement sourceType) {
+
+        String packageName = processingEnv.getElementUtils().getPackageOf(dto).getQualifiedName().toString();
+        String simpleName = dto.getSimpleName() + BINDER_SUFFIX;
+        String className = StringUtils.isEmpty(packageName) ? simpleName : packageName + "." + simpleName;
+
+        String source;
+        try {
+            source = writeClass(dto, sourceType, packageName, simpleName);
+        } catch (GenerationException ex) {
+            processingEnv.getMessager().printMessage(Diagnostic.Kind.NOTE, "No binder generated for " + dto + ": " + ex.getMessage(), dto);
+            return null;
+        }
+
+        try {
+            JavaFileObject file = processingEnv.getFiler().createSourceFile(className, dto);
+            Writer writer = file.openWriter();
+            try {
+                writer.write(source);
+            } finally {
+                writer.close();
+            }
+        } catch (IOException ex) {
+            processingEnv.getMessager().printMessage(Diagnostic.Kind.WARNING, "Could not write binder for " + dto + ": " + ex.getMessage(), dto);
+            return null;
+        }
+
+        processingEnv.getMessager().printMessage(Diagnostic.Kind.NOTE, "Generated binder " + className);
+        return className;
+    }
+
+    private String writeClass(TypeElement dto, TypeElement sourceType, String packageName, String simpleName) {
+
+        checkDTO(dto);
+
+        if (sourceType == null || !sourceType.getModifiers().contains(Modifier.PUBLIC)) {
+            throw new GenerationException("the source bean is not public");
+        }
+        checkNotMap(sourceType.asType());
+
+        List<String> properties = new ArrayList<String>();
+        List<String> paths = new ArrayList<String>();
+        StringBuilder body = new StringBuilder();
+
+        for (Element member : dto.getEnclosedElements()) {
+            if (isGetter(member)) {
+                writeProperty(dto, sourceType, (ExecutableElement) member, properties, paths, body);
+            }
+        }
+
+        String dtoType = typeName(dto.asType());
+        String source = typeName(sourceType.asType());
+        StringBuilder out = new StringBuilder();
+
+        if (!StringUtils.isEmpty(packageName)) {
+            out.append("package ").append(packageName).append(";\n\n");
+        }
+
+        out.append("/**\n * Binder generated at compile time for {@link ").append(dtoType).append("}.\n */\n");
+        out.append("@SuppressWarnings(\"unchecked\")\n");
+        out.append("public final class ").append(simpleName).append(" extends org.jdto.impl.PrecompiledBinder {\n\n");
+
+        out.append("    public Class getDtoClass() {\n        return ").append(dtoType).append(".class;\n    }\n\n");
+        out.append("    protected String[] getTargetProperties() {\n        return ").append(stringArray(properties)).append(";\n    }\n\n");
+        out.append("    protected String[] getSourcePaths() {\n        return ").append(stringArray(paths)).append(";\n    }\n\n");
+        out.append("    public boolean accepts(Object[] bos) {\n        return bos.length == 1 && bos[0] instanceof ")
+                .append(source).append(";\n    }\n\n");
+        out.append("    public Object newInstance() {\n        return new ").append(dtoType).append("();\n    }\n\n");
+        out.append("    public Object construct(Object[] bos) {\n        throw new UnsupportedOperationException();\n    }\n\n");
+
+        out.append("    public void populate(Object target, Object[] bos) {\n");
+        out.append("        ").append(dtoType).append(" dto = (").append(dtoType).append(") target;\n");
+        out.append("        ").append(source).append(" s0 = (").append(source).append(") bos[0];\n");
+        out.append(body);
+        out.append("    }\n");
+        out.append("}\n");
+
+        return out.toString();
+    }
+
+    private void checkDTO(TypeElement dto) {
+
+        if (dto.getKind() != ElementKind.CLASS || dto.getNestingKind() != NestingKind.TOP_LEVEL) {
+            throw new GenerationException("only top level classes are supported");
+        }
+
+        if (!dto.getModifiers().contains(Modifier.PUBLIC) || dto.getModifiers().contains(Modifier.ABSTRACT)) {
+            throw new GenerationException("the DTO is not a public concrete class");
+        }
+
+        //properties of super classes are not resolved at compile time.
+        TypeElement superclass = (TypeElement) processingEnv.getTypeUtils().asElement(dto.getSuperclass());
+        if (superclass == null || !superclass.getQualifiedName().contentEquals("java.lang.Object")) {
+            throw new GenerationException("the DTO extends another class");
+        }
+
+        if (dto.getAnnotation(SourceNames.class) != null) {
+            throw new GenerationException("the DTO has more than one source bean");
+        }
+
+        boolean defaultConstructor = false;
+        for (Element member : dto.getEnclosedElements()) {
+            if (member.getKind() != ElementKind.CONSTRUCTOR) {
+                continue;
+            }
+            if (member.getAnnotation(DTOConstructor.class) != null) {
+                throw new GenerationException("immutable DTOs are not supported");
+            }
+            if (member.getModifiers().contains(Modifier.PUBLIC) && ((ExecutableElement) member).getParameters().isEmpty()) {
+                defaultConstructor = true;
+            }
+        }
+
+        if (!defaultConstructor) {
+            throw new GenerationException("the DTO has no public default constructor");
+        }
+    }
+
+    /**
+     * Same rules as the runtime inspection of the DTO properties.
+     */
+    private static boolean isGetter(Element member) {
+
+        if (member.getKind() != ElementKind.METHOD || !member.getModifiers().contains(Modifier.PUBLIC)) {
+            return false;
+        }
+
+        ExecutableElement method = (ExecutableElement) member;
+        String name = method.getSimpleName().toString();
+
+        return method.getReturnType().getKind() != TypeKind.VOID
+                && method.getParameters().isEmpty()
+                && (name.startsWith("get") || name.startsWith("is"));
+    }
+
+    private void writeProperty(TypeElement dto, TypeElement sourceType, ExecutableElement getter,
+            List<String> properties, List<String> paths, StringBuilder body) {
+
+        if (getter.getModifiers().contains(Modifier.STATIC)) {
+            throw new GenerationException("static getter " + getter.getSimpleName());
+        }
+
+        String name = getter.getSimpleName().toString();
+        String property = StringUtils.uncapitalize(name.startsWith("is") ? name.substring(2) : name.substring(3));
+        Element field = ModelUtils.findFieldOnType(dto, property);
+
+        if (isAnnotated(getter, field, DTOTransient.class)) {
+            return;
+        }
+
+        if (isAnnotated(getter, field, Sources.class) || isAnnotated(getter, field, DTOCascade.class)) {
+            throw new GenerationException("property " + property + " is not a plain copy");
+        }
+
+        Source source = getter.getAnnotation(Source.class);
+        if (source == null && field != null) {
+            source = field.getAnnotation(Source.class);
+        }
+
+        String path = property;
+        if (source != null) {
+            if (!StringUtils.isEmpty(source.sourceBean()) || Source.ROOT_OBJECT.equals(source.value())) {
+                throw new GenerationException("property " + property + " is not read from the source bean");
+            }
+            if (!StringUtils.isEmpty(source.value())) {
+                path = source.value();
+            }
+        }
+
+        int index = properties.size();
+        properties.add(property);
+        paths.add(path);
+
+        body.append("        //").append(property).append("\n");
+        body.append("        {\n");
+        body.append("            int f = fields[").append(index).append("];\n");
+        body.append("            Object r0 = null;\n");
+        writeRead(sourceType, path, body);
+        body.append("            Object v = sourceMergers[f][0].mergeObjects(r0, sourceMergerParams[f][0]);\n");
+
+        ExecutableElement setter = ModelUtils.findSetterOnType(dto, property);
+
+        //the runtime binding would fail too, there is nothing to write.
+        if (setter != null && setter.getModifiers().contains(Modifier.PUBLIC) && setter.getParameters().size() == 1) {
+            TypeMirror type = setter.getParameters().get(0).asType();
+            body.append("            try {\n");
+            body.append("                dto.").append(setter.getSimpleName()).append("(").append(unbox(type)).append(");\n");
+            body.append("            } catch (Exception ex) {\n");
+            body.append("                writeFailed(\"").append(property).append("\", ex);\n");
+            body.append("            }\n");
+        }
+
+        body.append("        }\n");
+    }
+
+    /**
+     * Write the code that leaves the value of the property path on a local
+     * named r0, null if there is a null on the path.
+     */
+    private void writeRead(TypeElement sourceType, String path, StringBuilder body) {
+
+        String[] segments = StringUtils.split(path, ".");
+        TypeElement currentType = sourceType;
+        String current = "s0";
+        String indent = "                ";
+        int opened = 0;
+
+        if (segments.length == 0) {
+            throw new GenerationException("empty property path");
+        }
+
+        body.append("            try {\n");
+
+        for (int k = 0; k < segments.length; k++) {
+            ExecutableElement getter = findGetter(currentType, segments[k]);
+
+            if (k == segments.length - 1) {
+                body.append(indent).append("r0 = ").append(current).append(".").append(getter.getSimpleName()).append("();\n");
+                break;
+            }
+
+            TypeMirror returnType = getter.getReturnType();
+            if (returnType.getKind() != TypeKind.DECLARED) {
+                throw new GenerationException("cannot navigate through " + segments[k]);
+            }
+            checkNotMap(returnType);
+
+            currentType = (TypeElement) ((DeclaredType) returnType).asElement();
+            if (!currentType.getModifiers().contains(Modifier.PUBLIC)) {
+                throw new GenerationException("type of " + segments[k] + " is not public");
+            }
+
+            String next = "t" + k;
+            body.append(indent).append(typeName(returnType)).append(" ").append(next).append(" = ")
+                    .append(current).append(".").append(getter.getSimpleName()).append("();\n");
+            body.append(indent).append("if (").append(next).append(" != null) {\n");
+            indent += "    ";
+            opened++;
+            current = next;
+        }
+
+        for (int k = opened; k > 0; k--) {
+            body.append(StringUtils.repeat("    ", 3 + k)).append("}\n");
+        }
+
+        body.append("            } catch (Exception ex) {\n");
+        body.append("                r0 = readFailed(\"").append(path).append("\", ex);\n");
+        body.append("            }\n");
+    }
+
+    /**
+     * Find a public getter on the type or its super classes.
+     */
+    private ExecutableElement findGetter(TypeElement type, String property) {
+
+        TypeElement current = type;
+
+        while (current != null) {
+            ExecutableElement ret = ModelUtils.findGetterOnType(current, property);
+
+            if (ret != null && ret.getParameters().isEmpty()) {
+                if (!ret.getModifiers().contains(Modifier.PUBLIC) || ret.getModifiers().contains(Modifier.STATIC)) {
+                    throw new GenerationException("getter of " + property + " is not accessible");
+                }
+                return ret;
+            }
+
+            current = (TypeElement) processingEnv.getTypeUtils().asElement(current.getSuperclass());
+        }
+
+        throw new GenerationException("no getter for " + property + " on " + type);
+    }
+
+    private String unbox(TypeMirror type) {
+
+        if (type.getKind().isPrimitive()) {
+            String name = type.toString();
+            return "org.jdto.impl.PrimitiveConversions.to" + StringUtils.capitalize(name) + "(convert(" + name + ".class, v))";
+        }
+
+        String name = typeName(type);
+        return "(" + name + ") convert(" + name + ".class, v)";
+    }
+
+    private String typeName(TypeMirror type) {
+        return processingEnv.getTypeUtils().erasure(type).toString();
+    }
+
+    private void checkNotMap(TypeMirror type) {
+        Types types = processingEnv.getTypeUtils();
+        TypeElement map = processingEnv.getElementUtils().getTypeElement("java.util.Map");
+
+        if (types.isAssignable(types.erasure(type), types.erasure(map.asType()))) {
+            throw new GenerationException("maps are read by the bean modifier");
+        }
+    }
+
+    private static boolean isAnnotated(Element getter, Element field, Class annotation) {
+        return getter.getAnnotation(annotation) != null || (field != null && field.getAnnotation(annotation) != null);
+    }
+
+    private static String stringArray(List<String> values) {
+        StringBuilder ret = new StringBuilder("new String[] {");
+        for (int i = 0; i < values.size(); i++) {
+            if (i > 0) {
+                ret.append(", ");
+            }
+            ret.append("\"").append(values.get(i)).append("\"");
+        }
+        return ret.append("}").toString();
+    }
+
+    /**
+     * Signals the binder cannot be generated.
+     */
+    private static class GenerationException extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+
+        GenerationException(String message) {
+            super(message);
+        }
+    }
+}
@@ -0,0 +1,138 @@
+/*
+ * Copyright 2013 Juan Alberto López Cavallotti.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jdto.tools;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileReader;
+import java.io.IOException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.Charset;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.ServiceLoader;
+import java.util.Set;
+import javax.tools.DiagnosticCollector;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.ToolProvider;
+import org.jdto.impl.PrecompiledBinder;
+import org.jdto.tools.testobjects.NestedDTO;
+import org.jdto.tools.testobjects.SimpleDTO;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Test the generation of precompiled binders by the verifier.
+ */
+public class TestBinderGeneration {
+
+    private static final String[] FILES = {
+        "src/test/java/org/jdto/tools/testobjects/SimpleDTO.java",
+        "src/test/java/org/jdto/tools/testobjects/SimpleEntity.java",
+        "src/test/java/org/jdto/tools/testobjects/NestedDTO.java",
+        "src/test/java/org/jdto/tools/testobjects/NestedEntity.java"
+    };
+    
+    private File outputDir;
+
+    @Before
+    public void init() throws IOException {
+        outputDir = File.createTempFile("jdto-binders", "");
+        outputDir.delete();
+        outputDir.mkdirs();
+    }
+
+    @After
+    public void cleanup() {
+        delete(outputDir);
+    }
+
+    @Test
+    public void testBindersAreGenerated() throws Exception {
+        
+        compile(FILES);
+        
+        assertTrue(new File(outputDir, "org/jdto/tools/testobjects/SimpleDTO" + BinderSourceGenerator.BINDER_SUFFIX + ".java").isFile());
+        assertTrue(new File(outputDir, "META-INF/services/org.jdto.impl.PrecompiledBinder").isFile());
+        
+        //the binders are registered as services.
+        assertEquals(new HashSet<Class>(Arrays.asList(SimpleDTO.class, NestedDTO.class)), findRegisteredDTOs());
+    }
+    
+    @Test
+    public void testIncrementalBuildKeepsBinders() throws Exception {
+        
+        compile(FILES[0], FILES[1]);
+        compile(FILES[2], FILES[3], FILES[1]);
+        //compiling a DTO again doesn't register it twice.
+        compile(FILES[0], FILES[1]);
+        
+        assertEquals(new HashSet<Class>(Arrays.asList(SimpleDTO.class, NestedDTO.class)), findRegisteredDTOs());
+        
+        BufferedReader reader = new BufferedReader(new FileReader(new File(outputDir, "META-INF/services/org.jdto.impl.PrecompiledBinder")));
+        int lines = 0;
+        try {
+            while (reader.readLine() != null) {
+                lines++;
+            }
+        } finally {
+            reader.close();
+        }
+        assertEquals(2, lines);
+    }
+    
+    private void compile(String... files) {
+        JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        DiagnosticCollector<JavaFileObject> collector = new DiagnosticCollector<JavaFileObject>();
+        StandardJavaFileManager fileManager = compiler.getStandardFileManager(collector, Locale.US, Charset.forName("UTF-8"));
+        
+        List<String> options = Arrays.asList("-d", outputDir.getPath(), "-s", outputDir.getPath(), 
+                "-A" + AnnotationConfigVerifier.GENERATE_BINDERS_OPTION + "=true");
+        
+        Boolean result = compiler.getTask(null, fileManager, collector, options, null, fileManager.getJavaFileObjects(files)).call();
+        
+        assertTrue("the generated binders should compile: " + collector.getDiagnostics(), result);
+    }
+    
+    private Set<Class> findRegisteredDTOs() throws IOException {
+        URLClassLoader loader = new URLClassLoader(new URL[] {outputDir.toURI().toURL()}, getClass().getClassLoader());
+        Set<Class> ret = new HashSet<Class>();
+        
+        for (PrecompiledBinder binder : ServiceLoader.load(PrecompiledBinder.class, loader)) {
+            ret.add(binder.getDtoClass());
+        }
+        
+        return ret;
+    }
+    
+    private static void delete(File file) {
+        File[] children = file.listFiles();
+        if (children != null) {
+            for (File child : children) {
+                delete(child);
+            }
+        }
+        file.delete();
+    }
+}
@@ -0,0 +1,66 @@
+/*
+ *    Copyright 2012 Juan Alberto López Cavallotti
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jdto;
+
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Future;
+
+/**
+ * A DTO binder which is able to bind on a given executor, so callers don't
+ * need to block while large amounts of business objects are bound. <br />
+ * 
+ * Each task binds on its own binding context, so DTOs are never shared 
+ * between different asynchronous bindings. Errors are reported by the returned
+ * future as an {@link java.util.concurrent.ExecutionException}. <br />
+ * 
+ * The binders built by {@link DTOBinderFactory} implement this interface.
+ * 
+ * @since 1.5
+ */
+public interface AsyncDTOBinder extends DTOBinder {
+    
+    /**
+     * Bind a DTO on the given executor as 
+     * {@link DTOBinder#bindFromBusinessObject(java.lang.Class, java.lang.Object[]) } 
+     * does.
+     * 
+     * @param <T> The type of the DTO.
+     * @param executor the executor where to run the binding.
+     * @param dtoClass The class of the resulting DTO.
+     * @param businessObjects the source business objects.
+     * @return a future of the bound DTO.
+     * @throws java.util.concurrent.RejectedExecutionException if the executor
+     * rejects the task.
+     */
+    public <T> Future<T> bindAsync(Executor executor, Class<T> dtoClass, Object... businessObjects);
+    
+    /**
+     * Bind a list of DTOs on the given executor as 
+     * {@link DTOBinder#bindFromBusinessObjectList(java.lang.Class, java.util.List[]) }
+     * does. The whole list is bound by the thread running the task.
+     * 
+     * @param <T> The type of the DTOs.
+     * @param executor the executor where to run the binding.
+     * @param dtoClass the class of the resulting DTOs.
+     * @param businessObjectsLists lists of business objects.
+     * @return a future of the list of bound DTOs.
+     * @throws java.util.concurrent.RejectedExecutionException if the executor
+     * rejects the task.
+     */
+    public <T> Future<List<T>> bindListAsync(Executor executor, Class<T> dtoClass, List... businessObjectsLists);
+}
@@ -0,0 +1,66 @@
+/*
+ *    Copyright 2012 Juan Alberto López Cavallotti
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jdto;
+
+/**
+ * Receives the timings of the binding process, for monitoring where the 
+ * binding time goes. A listener is registered on the binder with 
+ * {@link org.jdto.impl.DTOBinderBean#setBindingListener(BindingListener) },
+ * when there is none the binding process doesn't take any timings. <br />
+ * 
+ * Listeners are called on the binding threads, so they should be thread safe
+ * and return quickly. Times are measured with {@link System#nanoTime() }. 
+ * DTOs populated by generated binders report the whole binding but not their 
+ * individual fields.
+ * 
+ * @since 1.5
+ */
+public interface BindingListener {
+
+    /**
+     * A DTO has been bound.
+     * @param dtoClass the class of the DTO.
+     * @param nanos the time spent, including the cascaded DTOs.
+     */
+    public void dtoBound(Class<?> dtoClass, long nanos);
+
+    /**
+     * A source value of a field has been read from a business object.
+     * @param dtoClass the class of the DTO.
+     * @param property the target property of the DTO.
+     * @param nanos the time spent reading the value.
+     */
+    public void sourceRead(Class<?> dtoClass, String property, long nanos);
+
+    /**
+     * A property value merger has been called for a field, either a
+     * {@link SinglePropertyValueMerger} on a source value or a 
+     * {@link MultiPropertyValueMerger} on all of them.
+     * @param dtoClass the class of the DTO.
+     * @param property the target property of the DTO.
+     * @param mergerClass the class of the merger.
+     * @param nanos the time spent on the merger.
+     */
+    public void mergerCalled(Class<?> dtoClass, String property, Class<?> mergerClass, long nanos);
+
+    /**
+     * A cascaded field has been bound.
+     * @param dtoClass the class of the DTO owning the field.
+     * @param property the target property of the DTO.
+     * @param nanos the time spent binding the cascaded DTOs.
+     */
+    public void cascadeBound(Class<?> dtoClass, String property, long nanos);
+}
@@ -18,6 +18,7 @@ package org.jdto;
 
 import java.io.Serializable;
 import java.util.Collection;
+import java.util.Iterator;
 import java.util.List;
 
 /**
@@ -66,6 +67,41 @@ public interface DTOBinder extends Serializable{
     public <T> T bindFromBusinessObject(Class<T> dtoClass, Object... businessObjects);
     
     
+    /**
+     * Populate an existing DTO instance with data extracted from one or more
+     * business objects, following the same rules as
+     * {@link #bindFromBusinessObject(java.lang.Class, java.lang.Object[]) }. This
+     * allows reusing DTO instances instead of creating new ones on every call.
+     * Lifecycle methods are called as usual. <br />
+     * 
+     * @param <T> The type of the DTO.
+     * @param target the DTO to populate, its class determines the metadata.
+     * @param businessObjects a list of Business Objects to extract fresh data.
+     * @return the target DTO or null if the first business object is null.
+     * @since 1.5
+     * 
+     * @throws IllegalArgumentException if the target is null or the DTO is immutable.
+     */
+    public <T> T bindInto(T target, Object... businessObjects);
+    
+    /**
+     * Populate the DTOs of an array with the business objects of a list, the 
+     * DTO at each index is bound from the business object at the same index. 
+     * Existing DTOs are populated as on {@link #bindInto(java.lang.Object, java.lang.Object[]) }
+     * and null elements are filled with new DTOs of the component type of the 
+     * array. Null business objects leave a null element and the elements past 
+     * the size of the list are not modified. <br />
+     * 
+     * @param <T> The type of the DTOs.
+     * @param targets the array of DTOs, should be at least as big as the list.
+     * @param businessObjects the list of source business objects.
+     * @return the targets array or null if the business objects are null.
+     * @since 1.5
+     * 
+     * @throws IllegalArgumentException if the array is smaller than the list.
+     */
+    public <T> T[] bindIntoArray(T[] targets, List<?> businessObjects);
+    
     /**
      * Create a list of DTOs by performing multiple calls to 
      * {@link DTOBinder#bindFromBusinessObject(java.lang.Class, java.lang.Object[]) } 
@@ -81,6 +117,24 @@ public interface DTOBinder extends Serializable{
      */
     public <T> List<T> bindFromBusinessObjectList(Class<T> dtoClass, List... businessObjectsLists);
     
+    /**
+     * Create a list of DTOs out of one or more iterables of business objects,
+     * as {@link #bindFromBusinessObjectList(java.lang.Class, java.util.List[]) }
+     * does for lists. The iterables are traversed once with one iterator each,
+     * so any kind of collection can be bound in linear time. The first not null
+     * iterable decides the amount of DTOs. <br />
+     * 
+     * @param <T> The type of the DTOs list which will be returned.
+     * @param dtoClass the class of the resulting DTOs
+     * @param businessObjects iterables of business objects.
+     * @return A list of DTO's populated with the provided business objects or 
+     * null if all of the iterables are null.
+     * @since 1.5
+     * 
+     * @throws some subclass of {@link RuntimeException} on various error conditions.
+     */
+    public <T> List<T> bindFromBusinessObjectList(Class<T> dtoClass, Iterable... businessObjects);
+    
     
     /**
      * Create a collection of DTOs by performing multiple calls to 
@@ -105,6 +159,39 @@ public interface DTOBinder extends Serializable{
      */
     public <T,R extends Collection> R bindFromBusinessObjectCollection(Class<T> dtoClass, R businessObjects);
     
+    /**
+     * Create an iterator which binds the business objects of the given iterator
+     * one at a time, as they are requested. <br />
+     * 
+     * Only the DTOs currently referenced by the caller stay in memory, which makes
+     * this suitable for large results read from a cursor. DTOs bound from the
+     * same business objects are reused only within a bounded window of elements.
+     * Removing elements removes them from the source iterator. <br />
+     * 
+     * @param <T> The type of the DTOs to be bound.
+     * @param dtoClass the class of the resulting DTOs.
+     * @param businessObjects the iterator of source business objects.
+     * @return an iterator of DTOs or null if the business objects are null.
+     * @since 1.5
+     * 
+     * @throws some subclass of {@link RuntimeException} on various error conditions
+     * while iterating.
+     */
+    public <T> Iterator<T> bindIterator(Class<T> dtoClass, Iterator<?> businessObjects);
+    
+    /**
+     * Create a view of the given business objects which binds them lazily, 
+     * every call to {@link Iterable#iterator() } returns a new iterator as 
+     * described in {@link #bindIterator(java.lang.Class, java.util.Iterator) }.
+     * 
+     * @param <T> The type of the DTOs to be bound.
+     * @param dtoClass the class of the resulting DTOs.
+     * @param businessObjects the source business objects.
+     * @return an iterable of DTOs or null if the business objects are null.
+     * @since 1.5
+     */
+    public <T> Iterable<T> bindIterable(Class<T> dtoClass, Iterable<?> businessObjects);
+    
     /**
      * Makes the best effort to extract data from a dto to a business object. <br />
      * 
@@ -31,6 +31,14 @@ import org.jdto.impl.*;
  */
 public abstract class DTOBinderFactory {
 
+    /**
+     * System property to enable the runtime generation of binder classes on 
+     * the binders built by this factory. Set it to <code>true</code> to enable
+     * it.
+     * @since 1.5
+     */
+    public static final String GENERATED_BINDERS_PROPERTY = "org.jdto.generatedBinders";
+
     /**
      * Create a new instance of a DTO binder with default settings. <br />
      * The resulting bean will read its configurations out of annotations on the
@@ -92,7 +100,7 @@ public abstract class DTOBinderFactory {
         DTOBinderBean bean = InstancePool.getOrCreate(DTOBinderBean.class);
         injectDependencies(bean);
         
-        if (bean.getMetadata() == null) {
+        if (bean.getRegisteredMetadata() == null) {
             bean.setMetadata(new HashMap<Class, BeanMetadata>());
         }
         return bean;
@@ -111,5 +119,6 @@ public abstract class DTOBinderFactory {
     private static void injectDependencies(DTOBinderBean bean) {
         bean.setBeanModifier(getBeanModifier());
         bean.setMergerManager(getMergerManager(bean.getBeanModifier()));
+        bean.setGeneratedBindersEnabled(Boolean.getBoolean(GENERATED_BINDERS_PROPERTY));
     }
 }
@@ -0,0 +1,157 @@
+/*
+ *    Copyright 2012 Juan Alberto López Cavallotti
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jdto;
+
+import java.io.Serializable;
+import org.apache.commons.lang3.StringUtils;
+
+/**
+ * A property path parsed once into its dot separated segments. <br />
+ *
+ * Property paths on the DTO metadata never change, so they are parsed when the
+ * metadata is compiled and then handed to {@link PropertyPathBeanModifier}
+ * implementations which don't need to split the path on every access. <br />
+ *
+ * Bean modifiers may also attach their own resolution of the path (for example
+ * the chain of accessor methods) with {@link #setResolution(java.lang.Object, java.lang.Object) }
+ * so it is reused by later accesses.
+ *
+ * @since 1.5
+ */
+public final class PropertyPath implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+    private final String path;
+    private final String[] segments;
+    private final String[] subPaths;
+    private transient volatile Resolution resolution;
+
+    private PropertyPath(String path) {
+        this.path = path;
+        this.segments = StringUtils.split(path, '.');
+        this.subPaths = new String[segments.length];
+
+        StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < segments.length; i++) {
+            if (i > 0) {
+                builder.append('.');
+            }
+            builder.append(segments[i]);
+            subPaths[i] = builder.toString();
+        }
+    }
+
+    /**
+     * Parse the given property path.
+     * @param path the dot separated property path.
+     * @return the parsed path or null if the path is null.
+     */
+    public static PropertyPath compile(String path) {
+        if (path == null) {
+            return null;
+        }
+        return new PropertyPath(path);
+    }
+
+    /**
+     * The property path as it was written.
+     * @return the full property path.
+     */
+    public String getPath() {
+        return path;
+    }
+
+    /**
+     * The amount of segments of the path.
+     * @return the amount of segments.
+     */
+    public int size() {
+        return segments.length;
+    }
+
+    /**
+     * The property name of the given segment.
+     * @param index the index of the segment.
+     * @return the property name.
+     */
+    public String getSegment(int index) {
+        return segments[index];
+    }
+
+    /**
+     * The path up to and including the given segment.
+     * @param index the index of the last segment.
+     * @return the partial property path.
+     */
+    public String getSubPath(int index) {
+        return subPaths[index];
+    }
+
+    /**
+     * Get the resolution attached by the given owner.
+     * @param owner the object which attached the resolution, usually a bean modifier.
+     * @return the resolution or null if the owner has not attached anything.
+     */
+    public Object getResolution(Object owner) {
+        Resolution current = resolution;
+        if (current == null || current.owner != owner) {
+            return null;
+        }
+        return current.value;
+    }
+
+    /**
+     * Attach a resolution of this path. Only one owner can attach its
+     * resolution at a time, the last one wins.
+     * @param owner the object attaching the resolution.
+     * @param value the resolution.
+     */
+    public void setResolution(Object owner, Object value) {
+        this.resolution = new Resolution(owner, value);
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (!(obj instanceof PropertyPath)) {
+            return false;
+        }
+        return path.equals(((PropertyPath) obj).path);
+    }
+
+    @Override
+    public int hashCode() {
+        return path.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return path;
+    }
+
+    private static final class Resolution {
+
+        private final Object owner;
+        private final Object value;
+
+        Resolution(Object owner, Object value) {
+            this.owner = owner;
+            this.value = value;
+        }
+    }
+}
@@ -0,0 +1,46 @@
+/*
+ *    Copyright 2012 Juan Alberto López Cavallotti
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jdto;
+
+/**
+ * A bean modifier which is able to work with pre parsed {@link PropertyPath}
+ * instances. The binder uses these methods for every property configured on
+ * the DTO metadata when the bean modifier implements this interface. <br />
+ *
+ * Bean modifiers extending {@link org.jdto.impl.BaseBeanModifier} already
+ * implement this interface.
+ *
+ * @since 1.5
+ */
+public interface PropertyPathBeanModifier extends BeanModifier {
+
+    /**
+     * Read a value from a property path from an instance of a bean.
+     * @param propertyPath the parsed property path.
+     * @param instance
+     * @return the value of the property read from the instance or null if
+     * something goes wrong.
+     */
+    public Object readPropertyValue(PropertyPath propertyPath, Object instance);
+
+    /**
+     * Write a value to a property following the given path into the given instance.
+     * @param propertyPath the parsed property path.
+     * @param value the value to set.
+     * @param instance the instance where to set the value.
+     */
+    public void writePropertyValue(PropertyPath propertyPath, Object value, Object instance);
+}
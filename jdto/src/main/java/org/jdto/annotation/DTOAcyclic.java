@@ -0,0 +1,54 @@
+/*
+ *    Copyright 2012 Juan Alberto López Cavallotti
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jdto.annotation;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Annotation type to declare that the business objects of a DTO are never
+ * reached again while binding its own cascades. <br />
+ * 
+ * The binder keeps track of the DTOs built during a binding call to avoid
+ * infinite loops on cascades. DTOs which can't be part of a cycle according
+ * to their cascade declarations are never tracked, this annotation is useful
+ * for DTOs whose cascades may be cyclic by type but never by instance, like
+ * trees. <br />
+ * 
+ * Declaring a DTO as acyclic when its business objects do reference each other
+ * leads to infinite recursion. DTOs annotated with {@link DTOIdentifier} are
+ * always tracked. <br />
+ * 
+ * <pre>
+ * &#64;DTOAcyclic
+ * public class CategoryDTO {
+ *   ...
+ *   &#64;DTOCascade
+ *   private List&lt;CategoryDTO&gt; children;
+ * }
+ * </pre>
+ * 
+ * @since 1.5
+ */
+@Documented
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface DTOAcyclic {
+}
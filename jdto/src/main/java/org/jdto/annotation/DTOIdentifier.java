@@ -0,0 +1,57 @@
+/*
+ *    Copyright 2012 Juan Alberto López Cavallotti
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jdto.annotation;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Annotation type to declare the property of the source bean which identifies
+ * the business object a DTO is built from. <br />
+ * 
+ * During a single binding call the binder reuses the DTOs built out of the same
+ * business objects, this also prevents infinite loops on cascades. By default
+ * business objects are the same only if they are the same instance, with this
+ * annotation two business objects are the same if the values of the identifier
+ * property are equal. <br />
+ * 
+ * The identifier is read from the first source bean. When the identifier is null
+ * the business object is matched by instance. <br />
+ * 
+ * <pre>
+ * &#64;DTOIdentifier("id")
+ * public class CustomerDTO {
+ *   ...
+ * }
+ * </pre>
+ * 
+ * @since 1.5
+ */
+@Documented
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface DTOIdentifier {
+    
+    /**
+     * The property path of the identifier on the first source bean.
+     * @return the property path of the identifier.
+     */
+    String value();
+}
@@ -63,6 +63,10 @@ abstract class AbstractBeanInspector implements Serializable {
             String[] sourceBeanNames = readSourceBeanNames(beanClass);
 
             ret.setDefaultBeanNames(sourceBeanNames);
+            
+            ret.setIdentifierProperty(readIdentifierProperty(beanClass));
+            
+            ret.setAcyclic(readAcyclic(beanClass));
 
             return ret;
 
@@ -147,6 +151,26 @@ abstract class AbstractBeanInspector implements Serializable {
      */
     abstract String[] readSourceBeanNames(Class beanClass);
 
+    /**
+     * Read the property which identifies the source business objects of the
+     * given class.
+     * @param beanClass
+     * @return the identifier property or null if the business objects are 
+     * identified by instance.
+     */
+    String readIdentifierProperty(Class beanClass) {
+        return null;
+    }
+
+    /**
+     * Read whether the given class is declared as never being part of a cycle.
+     * @param beanClass
+     * @return true if the binder should not keep track of the DTO instances.
+     */
+    boolean readAcyclic(Class beanClass) {
+        return false;
+    }
+
     /**
      * Read the constructor to use for creating an instance of an immutable class.
      * @param beanClass
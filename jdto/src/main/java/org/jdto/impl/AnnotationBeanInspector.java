@@ -58,6 +58,22 @@ class AnnotationBeanInspector extends AbstractBeanInspector {
         return readSourceBeanNamesFromAnnotation((SourceNames)beanClass.getAnnotation(SourceNames.class));
     }
 
+    @Override
+    String readIdentifierProperty(Class beanClass) {
+        DTOIdentifier identifier = (DTOIdentifier) beanClass.getAnnotation(DTOIdentifier.class);
+        
+        if (identifier == null || StringUtils.isEmpty(identifier.value())) {
+            return null;
+        }
+        
+        return identifier.value();
+    }
+
+    @Override
+    boolean readAcyclic(Class beanClass) {
+        return beanClass.isAnnotationPresent(DTOAcyclic.class);
+    }
+
     /**
      * Read annotations from the accessor method and from the field, if exists!
      * @param propertyName
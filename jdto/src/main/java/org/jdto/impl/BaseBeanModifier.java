@@ -19,6 +19,8 @@ package org.jdto.impl;
 import java.io.Serializable;
 import java.util.Map;
 import org.jdto.BeanModifier;
+import org.jdto.PropertyPath;
+import org.jdto.PropertyPathBeanModifier;
 
 /**
  * Base class for bean modifiers, this adds basic features common to all 
@@ -26,7 +28,7 @@ import org.jdto.BeanModifier;
  * a map transparently.
  * @author Juan Alberto Lopez Cavallotti
  */
-public abstract class BaseBeanModifier implements BeanModifier, Serializable {
+public abstract class BaseBeanModifier implements BeanModifier, PropertyPathBeanModifier, Serializable {
     private static final long serialVersionUID = 1L;
     
     /**
@@ -67,6 +69,81 @@ public abstract class BaseBeanModifier implements BeanModifier, Serializable {
         doWritePropertyValue(propertyPath, value, instance);
     }
     
+    /**
+     * {@inheritDoc }
+     * If the instance parameter is a map, then it will read the value from it
+     * using the full property path as the key.
+     * @param propertyPath
+     * @param instance
+     * @return the value read from the property path on the instance or null
+     * if something goes wrong.
+     * @since 1.5
+     */
+    @Override
+    public final Object readPropertyValue(PropertyPath propertyPath, Object instance) {
+
+        if (propertyPath == null) {
+            return readPropertyValue((String) null, instance);
+        }
+
+        if (instance instanceof Map) {
+            return readValueFromMap(propertyPath.getPath(), (Map) instance);
+        }
+
+        return doReadPropertyValue(propertyPath, instance);
+    }
+
+    /**
+     * {@inheritDoc }
+     * If the instance parameter is a map, then it will write the value into it
+     * using the full property path as the key.
+     * @param propertyPath
+     * @param value
+     * @param instance
+     * @since 1.5
+     */
+    @Override
+    public final void writePropertyValue(PropertyPath propertyPath, Object value, Object instance) {
+
+        if (propertyPath == null) {
+            writePropertyValue((String) null, value, instance);
+            return;
+        }
+
+        if (instance instanceof Map) {
+            writeValueToMap(propertyPath.getPath(), value, (Map) instance);
+            return;
+        }
+
+        doWritePropertyValue(propertyPath, value, instance);
+    }
+
+    /**
+     * Read a property value from a parsed property path. By default this 
+     * reads the property with the full path, subclasses should override it to
+     * take advantage of the parsed segments.
+     * @param propertyPath
+     * @param instance
+     * @return the value from the property path or null.
+     * @since 1.5
+     */
+    protected Object doReadPropertyValue(PropertyPath propertyPath, Object instance) {
+        return doReadPropertyValue(propertyPath.getPath(), instance);
+    }
+
+    /**
+     * Write a property value on a parsed property path. By default this 
+     * writes the property with the full path, subclasses should override it to
+     * take advantage of the parsed segments.
+     * @param propertyPath
+     * @param value
+     * @param instance
+     * @since 1.5
+     */
+    protected void doWritePropertyValue(PropertyPath propertyPath, Object value, Object instance) {
+        doWritePropertyValue(propertyPath.getPath(), value, instance);
+    }
+
     /**
      * Read a property value.
      * @param propertyPath
@@ -38,6 +38,8 @@ public class BeanMetadata implements DTOMetadata,Serializable {
     private boolean immutableBean;
     private List<FieldMetadata> constructorArgs;
     private Constructor immutableConstructor;
+    private String identifierProperty;
+    private boolean acyclic;
     
     private EnumMap<LifecyclePhase, Method> lifecycleHandlers;
     
@@ -131,6 +133,34 @@ public class BeanMetadata implements DTOMetadata,Serializable {
         this.immutableConstructor = immutableConstructor;
     }
 
+    /**
+     * The property of the first source bean which identifies the business 
+     * objects of the DTO.
+     * @return the identifier property path or null if business objects are 
+     * identified by instance.
+     * @since 1.5
+     */
+    public String getIdentifierProperty() {
+        return identifierProperty;
+    }
+
+    public void setIdentifierProperty(String identifierProperty) {
+        this.identifierProperty = identifierProperty;
+    }
+
+    /**
+     * Whether the DTO has been declared as never being part of a cycle.
+     * @return true if the binder should not keep track of the DTO instances.
+     * @since 1.5
+     */
+    public boolean isAcyclic() {
+        return acyclic;
+    }
+
+    public void setAcyclic(boolean acyclic) {
+        this.acyclic = acyclic;
+    }
+
     EnumMap<LifecyclePhase, Method> getLifecycleHandlers() {
         return lifecycleHandlers;
     }
@@ -0,0 +1,115 @@
+/*
+ *    Copyright 2012 Juan Alberto López Cavallotti
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jdto.impl;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Generates, compiles and instantiates the binder classes of DTO types. <br />
+ *
+ * The compilation is performed by {@link GeneratedClassCompiler} so binders can
+ * only be generated when the system java compiler is available.
+ *
+ * @since 1.5
+ */
+class BinderClassCompiler {
+
+    private static final Logger logger = LoggerFactory.getLogger(BinderClassCompiler.class);
+    
+    /**
+     * Generates the binders one at a time, off the threads binding the DTOs.
+     * The thread goes away when there is nothing left to generate.
+     */
+    private static final ThreadPoolExecutor generator = createGenerator();
+
+    /**
+     * Generate the binder for the given plan on the background thread, and
+     * set it on the plan once it is ready.
+     * @param plan the plan to generate the binder for.
+     * @param delegate the delegate the generated binder will use for cascades.
+     * @param businessObjects sample business objects.
+     */
+    static void buildBinderLater(final BindingPlan plan, final SimpleBinderDelegate delegate, final Object[] businessObjects) {
+        generator.execute(new Runnable() {
+            @Override
+            public void run() {
+                plan.setGeneratedBinder(buildBinder(plan, delegate, businessObjects));
+            }
+        });
+    }
+
+    /**
+     * Generate, compile and instantiate the binder for the given plan.
+     * @param plan the plan to generate the binder for.
+     * @param delegate the delegate the generated binder will use for cascades.
+     * @param businessObjects sample business objects.
+     * @return the generated binder or null if it could not be generated.
+     */
+    static GeneratedBinder buildBinder(BindingPlan plan, SimpleBinderDelegate delegate, Object[] businessObjects) {
+        try {
+            BinderClassGenerator generator = new BinderClassGenerator(plan, businessObjects);
+            String source = generator.generate();
+
+            if (source == null) {
+                return null;
+            }
+
+            List<Class> sourceTypes = new ArrayList<Class>();
+            for (Object bo : businessObjects) {
+                if (bo != null) {
+                    sourceTypes.add(bo.getClass());
+                }
+            }
+
+            ClassLoader loader = GeneratedClassCompiler.compile(generator.getClassName(), source, plan.getDtoClass(), sourceTypes);
+
+            if (loader == null) {
+                return null;
+            }
+
+            Class binderClass = loader.loadClass(generator.getClassName());
+
+            GeneratedBinder ret = (GeneratedBinder) binderClass.newInstance();
+            ret.init(plan, delegate);
+
+            logger.debug("Generated binder " + binderClass.getName());
+            return ret;
+        } catch (Throwable t) {
+            logger.warn("Could not generate binder for " + plan.getDtoClass().getName() + ", using reflection.", t);
+            return null;
+        }
+    }
+
+    private static ThreadPoolExecutor createGenerator() {
+        ThreadPoolExecutor ret = new ThreadPoolExecutor(1, 1, 10, TimeUnit.SECONDS, new LinkedBlockingQueue<Runnable>(), new ThreadFactory() {
+            @Override
+            public Thread newThread(Runnable task) {
+                Thread ret = new Thread(task, "jdto-binder-generator");
+                ret.setDaemon(true);
+                return ret;
+            }
+        });
+        ret.allowCoreThreadTimeOut(true);
+        return ret;
+    }
+}
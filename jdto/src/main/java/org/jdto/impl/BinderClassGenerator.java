@@ -0,0 +1,436 @@
+/*
+ *    Copyright 2012 Juan Alberto López Cavallotti
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jdto.impl;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.apache.commons.lang3.StringUtils;
+import org.jdto.mergers.FirstObjectPropertyValueMerger;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Generates the java source of a {@link GeneratedBinder} for a binding plan and
+ * the types of the business objects it is going to be used with. <br />
+ *
+ * Generation is only possible when every type and member involved is public,
+ * in any other case the generator gives up and the reflective binding path
+ * should be used instead.
+ *
+ * @since 1.5
+ */
+class BinderClassGenerator {
+
+    private static final Logger logger = LoggerFactory.getLogger(BinderClassGenerator.class);
+    private static final AtomicInteger sequence = new AtomicInteger();
+
+    private final BindingPlan plan;
+    private final Class[] sourceTypes;
+    private final boolean[] rootSources;
+    private final String className;
+    private final StringBuilder out;
+
+    /**
+     * Create a generator for the given plan.
+     * @param plan the plan to generate the binder for.
+     * @param businessObjects sample business objects, used to find out the
+     * types the generated code will read from.
+     */
+    BinderClassGenerator(BindingPlan plan, Object[] businessObjects) {
+        this.plan = plan;
+        this.sourceTypes = new Class[businessObjects.length];
+        this.rootSources = new boolean[businessObjects.length];
+        this.out = new StringBuilder();
+
+        Class dtoClass = plan.getDtoClass();
+        String packageName = (dtoClass.getPackage() == null) ? "" : dtoClass.getPackage().getName();
+        String simpleName = dtoClass.getName().substring(dtoClass.getName().lastIndexOf('.') + 1).replace('$', '_');
+        String prefix = StringUtils.isEmpty(packageName) ? "" : packageName + ".";
+        this.className = prefix + simpleName + "$$JDTOBinder" + sequence.incrementAndGet();
+
+        for (int i = 0; i < businessObjects.length; i++) {
+            sourceTypes[i] = findSourceType(i, businessObjects[i]);
+        }
+
+        for (BindingPlan.FieldStep step : plan.getSteps()) {
+            for (BindingPlan.SourceStep source : step.sources) {
+                if (source.rootObject && source.argumentIndex >= 0 && source.argumentIndex < rootSources.length) {
+                    rootSources[source.argumentIndex] = true;
+                }
+            }
+        }
+    }
+
+    /**
+     * The fully qualified name of the generated class.
+     * @return the class name.
+     */
+    String getClassName() {
+        return className;
+    }
+
+    /**
+     * Generate the java source for the binder.
+     * @return the source code or null if the binder cannot be generated.
+     */
+    String generate() {
+        try {
+            writeClass();
+            return out.toString();
+        } catch (GenerationException ex) {
+            logger.debug("Cannot generate binder for " + plan.getDtoClass().getName() + ": " + ex.getMessage());
+            return null;
+        }
+    }
+
+    private void writeClass() {
+        Class dtoClass = plan.getDtoClass();
+        String dtoType = typeName(dtoClass);
+
+        int dot = className.lastIndexOf('.');
+        if (dot > 0) {
+            out.append("package ").append(className.substring(0, dot)).append(";\n\n");
+        }
+
+        out.append("public final class ").append(className.substring(dot + 1))
+                .append(" extends org.jdto.impl.GeneratedBinder {\n\n");
+
+        writeAccepts();
+
+        if (plan.isImmutable()) {
+            checkAccessible(plan.getConstructor().getModifiers(), "constructor");
+            out.append("    public Object newInstance() {\n        throw new UnsupportedOperationException();\n    }\n\n");
+            out.append("    public void populate(Object target, Object[] bos) {\n        throw new UnsupportedOperationException();\n    }\n\n");
+            writeConstruct(dtoType);
+        } else {
+            out.append("    public Object newInstance() {\n        return new ").append(dtoType).append("();\n    }\n\n");
+            writePopulate(dtoType);
+            out.append("    public Object construct(Object[] bos) {\n        throw new UnsupportedOperationException();\n    }\n\n");
+        }
+
+        out.append("}\n");
+    }
+
+    private void writeAccepts() {
+        out.append("    public boolean accepts(Object[] bos) {\n");
+        out.append("        return bos.length == ").append(sourceTypes.length);
+
+        for (int i = 0; i < sourceTypes.length; i++) {
+            if (sourceTypes[i] != null) {
+                out.append("\n            && bos[").append(i).append("] instanceof ").append(typeName(sourceTypes[i]));
+            } else if (rootSources[i]) {
+                out.append("\n            && bos[").append(i).append("] != null");
+            }
+        }
+        out.append(";\n    }\n\n");
+    }
+
+    private void writePopulate(String dtoType) {
+        out.append("    public void populate(Object target, Object[] bos) {\n");
+        out.append("        ").append(dtoType).append(" dto = (").append(dtoType).append(") target;\n");
+        writeSourceLocals();
+
+        BindingPlan.FieldStep[] steps = plan.getSteps();
+        for (int i = 0; i < steps.length; i++) {
+            BindingPlan.FieldStep step = steps[i];
+            out.append("        //").append(step.targetProperty).append("\n");
+            out.append("        {\n");
+            writeFieldValue(i, step);
+
+            Method setter = BeanPropertyUtils.findSetterMethod(step.targetProperty, plan.getDtoClass());
+
+            //the reflective path would fail, there is nothing to write.
+            if (setter != null) {
+                checkAccessible(setter.getDeclaringClass().getModifiers(), "declaring class of " + setter.getName());
+                Class type = setter.getParameterTypes()[0];
+                out.append("            try {\n");
+                out.append("                dto.").append(setter.getName()).append("(")
+                        .append(unbox(type, "convert(" + classLiteral(type) + ", v)")).append(");\n");
+                out.append("            } catch (Exception ex) {\n");
+                out.append("                writeFailed(\"").append(step.targetProperty).append("\", ex);\n");
+                out.append("            }\n");
+            }
+            out.append("        }\n");
+        }
+        out.append("    }\n\n");
+    }
+
+    private void writeConstruct(String dtoType) {
+        out.append("    public Object construct(Object[] bos) {\n");
+        writeSourceLocals();
+
+        Class[] types = plan.getConstructor().getParameterTypes();
+        BindingPlan.FieldStep[] steps = plan.getSteps();
+
+        for (int i = 0; i < steps.length; i++) {
+            out.append("        Object a").append(i).append(";\n");
+            out.append("        {\n");
+            writeFieldValue(i, steps[i]);
+            out.append("            a").append(i).append(" = compatible(").append(classLiteral(steps[i].targetType)).append(", v);\n");
+            out.append("        }\n");
+        }
+
+        out.append("        try {\n");
+        out.append("            return new ").append(dtoType).append("(");
+        for (int i = 0; i < types.length; i++) {
+            if (i > 0) {
+                out.append(", ");
+            }
+            out.append(unbox(types[i], "a" + i));
+        }
+        out.append(");\n");
+        out.append("        } catch (Throwable t) {\n");
+        out.append("            throw constructionFailed(").append(dtoType).append(".class, t);\n");
+        out.append("        }\n");
+        out.append("    }\n\n");
+    }
+
+    private void writeSourceLocals() {
+        for (int i = 0; i < sourceTypes.length; i++) {
+            if (sourceTypes[i] == null) {
+                continue;
+            }
+            String type = typeName(sourceTypes[i]);
+            out.append("        ").append(type).append(" s").append(i)
+                    .append(" = (").append(type).append(") bos[").append(i).append("];\n");
+        }
+    }
+
+    /**
+     * Write the code that leaves the merged value of a field on a local named v.
+     */
+    private void writeFieldValue(int field, BindingPlan.FieldStep step) {
+
+        BindingPlan.SourceStep[] sources = step.sources;
+
+        for (int j = 0; j < sources.length; j++) {
+            BindingPlan.SourceStep source = sources[j];
+            String local = "r" + j;
+
+            out.append("            Object ").append(local).append(" = null;\n");
+
+            if (source.rootObject) {
+                if (source.argumentIndex < 0 || source.argumentIndex >= rootSources.length) {
+                    throw new GenerationException("no source bean for the root object");
+                }
+                out.append("            ").append(local).append(" = bos[").append(source.argumentIndex).append("];\n");
+            } else {
+                writeRead(local, source);
+            }
+
+            out.append("            ").append(local).append(" = sourceMergers[").append(field).append("][").append(j)
+                    .append("].mergeObjects(").append(local).append(", sourceMergerParams[").append(field).append("][").append(j).append("]);\n");
+        }
+
+        if (step.cascade) {
+            out.append("            Object v = cascade(").append(field).append(", ").append(valuesArray(sources.length)).append(");\n");
+        } else if (sources.length == 1 && step.merger.getClass() == FirstObjectPropertyValueMerger.class) {
+            //the first non null value of a single value is the value itself.
+            out.append("            Object v = r0;\n");
+        } else {
+            out.append("            Object v = mergers[").append(field).append("].mergeObjects(java.util.Arrays.asList(")
+                    .append(valuesArray(sources.length)).append("), mergerParams[").append(field).append("]);\n");
+        }
+    }
+
+    private void writeRead(String local, BindingPlan.SourceStep source) {
+
+        if (source.argumentIndex < 0 || source.argumentIndex >= sourceTypes.length || sourceTypes[source.argumentIndex] == null) {
+            throw new GenerationException("no typed source bean for " + source.property);
+        }
+
+        String[] segments = StringUtils.split(source.property, ".");
+        Class currentType = sourceTypes[source.argumentIndex];
+        String current = "s" + source.argumentIndex;
+
+        out.append("            try {\n");
+        String indent = "                ";
+        int opened = 0;
+
+        for (int k = 0; k < segments.length; k++) {
+            Method getter = findGetter(segments[k], currentType);
+            Class returnType = getter.getReturnType();
+
+            if (k == segments.length - 1) {
+                out.append(indent).append(local).append(" = ").append(current).append(".").append(getter.getName()).append("();\n");
+                break;
+            }
+
+            if (returnType.isPrimitive() || returnType.isArray()) {
+                throw new GenerationException("cannot navigate through " + segments[k]);
+            }
+            checkNotMap(returnType);
+
+            String next = "t" + k;
+            out.append(indent).append(typeName(returnType)).append(" ").append(next).append(" = ")
+                    .append(current).append(".").append(getter.getName()).append("();\n");
+            out.append(indent).append("if (").append(next).append(" != null) {\n");
+            indent += "    ";
+            opened++;
+
+            current = next;
+            currentType = returnType;
+        }
+
+        for (int k = opened; k > 0; k--) {
+            out.append(StringUtils.repeat("    ", 3 + k)).append("}\n");
+        }
+
+        out.append("            } catch (Exception ex) {\n");
+        out.append("                ").append(local).append(" = readFailed(\"").append(source.property).append("\", ex);\n");
+        out.append("            }\n");
+    }
+
+    /**
+     * Find the type the generated code will use to read from the given
+     * business object. This is the most general public type which still
+     * declares every getter needed on the first level of the property paths.
+     * @return the type or null if the business object is only read as the root object.
+     */
+    private Class findSourceType(int index, Object businessObject) {
+
+        boolean typed = false;
+        java.util.List<String> properties = new java.util.ArrayList<String>();
+
+        for (BindingPlan.FieldStep step : plan.getSteps()) {
+            for (BindingPlan.SourceStep source : step.sources) {
+                if (source.argumentIndex != index || source.rootObject) {
+                    continue;
+                }
+                typed = true;
+                String[] segments = StringUtils.split(source.property, ".");
+                if (segments.length > 0) {
+                    properties.add(segments[0]);
+                }
+            }
+        }
+
+        if (!typed || businessObject == null) {
+            return null;
+        }
+
+        Class ret = null;
+        Class candidate = businessObject.getClass();
+
+        while (candidate != null && candidate != Object.class) {
+            if (isAccessible(candidate) && !Map.class.isAssignableFrom(candidate) && declaresAll(candidate, properties)) {
+                ret = candidate;
+            } else if (ret != null) {
+                break;
+            }
+            candidate = candidate.getSuperclass();
+        }
+
+        return ret;
+    }
+
+    private boolean declaresAll(Class type, java.util.List<String> properties) {
+        for (String property : properties) {
+            Method getter = BeanPropertyUtils.findGetterMethod(property, type);
+            if (getter == null || !isAccessible(getter.getReturnType()) || !isAccessible(getter.getDeclaringClass())) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private Method findGetter(String property, Class type) {
+        Method ret = BeanPropertyUtils.findGetterMethod(property, type);
+
+        if (ret == null) {
+            throw new GenerationException("no getter for " + property + " on " + type.getName());
+        }
+
+        if (!isAccessible(ret.getReturnType())) {
+            throw new GenerationException("type of " + property + " is not accessible");
+        }
+
+        checkAccessible(ret.getDeclaringClass().getModifiers(), "declaring class of " + ret.getName());
+
+        return ret;
+    }
+
+    private String unbox(Class type, String expression) {
+        if (!type.isPrimitive()) {
+            return "(" + typeName(type) + ") " + expression;
+        }
+        String name = type.getName();
+        return "org.jdto.impl.PrimitiveConversions.to" + Character.toUpperCase(name.charAt(0)) + name.substring(1) + "(" + expression + ")";
+    }
+
+    private String classLiteral(Class type) {
+        return typeName(type) + ".class";
+    }
+
+    private String typeName(Class type) {
+        if (!isAccessible(type)) {
+            throw new GenerationException("type " + type.getName() + " is not accessible");
+        }
+        return type.getCanonicalName();
+    }
+
+    private static String valuesArray(int size) {
+        StringBuilder ret = new StringBuilder("new Object[] {");
+        for (int i = 0; i < size; i++) {
+            if (i > 0) {
+                ret.append(", ");
+            }
+            ret.append("r").append(i);
+        }
+        return ret.append("}").toString();
+    }
+
+    private static void checkNotMap(Class type) {
+        if (Map.class.isAssignableFrom(type)) {
+            throw new GenerationException("maps are read by the bean modifier");
+        }
+    }
+
+    private static void checkAccessible(int modifiers, String what) {
+        if (!Modifier.isPublic(modifiers)) {
+            throw new GenerationException(what + " is not public");
+        }
+    }
+
+    /**
+     * Check if generated code on another class loader can refer to the type.
+     */
+    static boolean isAccessible(Class type) {
+        if (type.isPrimitive()) {
+            return true;
+        }
+        if (type.isArray()) {
+            return isAccessible(type.getComponentType());
+        }
+        if (!Modifier.isPublic(type.getModifiers()) || type.getCanonicalName() == null) {
+            return false;
+        }
+        return type.getEnclosingClass() == null || isAccessible(type.getEnclosingClass());
+    }
+
+    /**
+     * Signals the binder cannot be generated.
+     */
+    private static class GenerationException extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+
+        GenerationException(String message) {
+            super(message);
+        }
+    }
+}
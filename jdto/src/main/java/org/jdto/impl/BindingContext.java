@@ -0,0 +1,313 @@
+/*
+ *    Copyright 2012 Juan Alberto López Cavallotti
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jdto.impl;
+
+/**
+ * The DTOs built during a single binding call, used to avoid cycles on
+ * cascades and to reuse the DTO built out of the same business objects. <br />
+ *
+ * The DTOs are keyed by their binding plan and the references of the source
+ * business objects, the business objects' own equals and hashCode are never
+ * called. DTOs with an identifier property are keyed by the value of the
+ * identifier instead, which is compared by equality. <br />
+ *
+ * This is an open addressing hash table with linear probing, instances are
+ * confined to the binding thread and are not thread safe, except for the
+ * {@link Shared} contexts used when cascades are bound concurrently.
+ *
+ * @since 1.5
+ */
+class BindingContext {
+
+    private static final int INITIAL_CAPACITY = 16;
+    private BindingPlan[] plans;
+    private Object[] keys;
+    private Object[] values;
+    private int[] hashes;
+    private int size;
+    
+    /**
+     * The metadata the binding was started with.
+     */
+    private MetadataRegistry metadata;
+
+    BindingContext() {
+        //the tables are allocated on the first insert.
+    }
+
+    /**
+     * Get the metadata registry the binding was started with, every DTO of
+     * the binding is bound with the same metadata even if the binder's
+     * metadata is replaced meanwhile.
+     * @return the registry or null if the context is not tied to one.
+     */
+    MetadataRegistry getMetadata() {
+        return metadata;
+    }
+
+    void setMetadata(MetadataRegistry metadata) {
+        this.metadata = metadata;
+    }
+
+    /**
+     * Find the DTO built by the given plan out of the same business objects.
+     * @param plan the binding plan of the DTO.
+     * @param sources the business objects.
+     * @return the DTO or null if there is no such DTO.
+     */
+    Object get(BindingPlan plan, Object[] sources) {
+        if (size == 0) {
+            return null;
+        }
+        
+        int mask = plans.length - 1;
+        int i = hash(plan, sources) & mask;
+
+        BindingPlan current;
+        while ((current = plans[i]) != null) {
+            if (current == plan && sameSources(keys[i], sources)) {
+                return values[i];
+            }
+            i = (i + 1) & mask;
+        }
+
+        return null;
+    }
+
+    /**
+     * Remember the DTO built by the given plan out of the given business objects.
+     * @param plan the binding plan of the DTO.
+     * @param sources the business objects.
+     * @param dto the DTO.
+     */
+    void put(BindingPlan plan, Object[] sources, Object dto) {
+        //the sources array may be reused by the caller.
+        Object key = (sources.length == 1) ? sources[0] : new MultipleSources(sources.clone());
+        insert(hash(plan, sources), plan, key, dto);
+    }
+
+    /**
+     * Find the DTO built by the given plan for the given identifier.
+     * @param plan the binding plan of the DTO.
+     * @param identifier the value of the identifier property.
+     * @return the DTO or null if there is no such DTO.
+     */
+    Object getByIdentifier(BindingPlan plan, Object identifier) {
+        if (size == 0) {
+            return null;
+        }
+        
+        int mask = plans.length - 1;
+        int i = hashByIdentifier(plan, identifier) & mask;
+
+        BindingPlan current;
+        while ((current = plans[i]) != null) {
+            if (current == plan && keys[i] instanceof Identifier && ((Identifier) keys[i]).value.equals(identifier)) {
+                return values[i];
+            }
+            i = (i + 1) & mask;
+        }
+
+        return null;
+    }
+
+    /**
+     * Remember the DTO built by the given plan for the given identifier.
+     * @param plan the binding plan of the DTO.
+     * @param identifier the value of the identifier property.
+     * @param dto the DTO.
+     */
+    void putByIdentifier(BindingPlan plan, Object identifier, Object dto) {
+        insert(hashByIdentifier(plan, identifier), plan, new Identifier(identifier), dto);
+    }
+
+    /**
+     * The amount of DTOs on the context.
+     * @return the size of the context.
+     */
+    int size() {
+        return size;
+    }
+
+    private void insert(int hash, BindingPlan plan, Object key, Object value) {
+
+        if (plans == null) {
+            allocate(INITIAL_CAPACITY);
+        }
+        
+        //keep the load factor under 0.5
+        if ((size + 1) * 2 > plans.length) {
+            resize();
+        }
+
+        int mask = plans.length - 1;
+        int i = hash & mask;
+
+        while (plans[i] != null) {
+            if (plans[i] == plan && sameKey(keys[i], key)) {
+                values[i] = value;
+                return;
+            }
+            i = (i + 1) & mask;
+        }
+
+        plans[i] = plan;
+        keys[i] = key;
+        values[i] = value;
+        hashes[i] = hash;
+        size++;
+    }
+
+    private void resize() {
+        BindingPlan[] oldPlans = plans;
+        Object[] oldKeys = keys;
+        Object[] oldValues = values;
+        int[] oldHashes = hashes;
+
+        allocate(oldPlans.length * 2);
+        int mask = plans.length - 1;
+
+        for (int j = 0; j < oldPlans.length; j++) {
+            if (oldPlans[j] == null) {
+                continue;
+            }
+
+            int i = oldHashes[j] & mask;
+            while (plans[i] != null) {
+                i = (i + 1) & mask;
+            }
+
+            plans[i] = oldPlans[j];
+            keys[i] = oldKeys[j];
+            values[i] = oldValues[j];
+            hashes[i] = oldHashes[j];
+        }
+    }
+
+    private void allocate(int capacity) {
+        plans = new BindingPlan[capacity];
+        keys = new Object[capacity];
+        values = new Object[capacity];
+        hashes = new int[capacity];
+    }
+
+    private static boolean sameSources(Object key, Object[] sources) {
+        if (sources.length == 1) {
+            return key == sources[0];
+        }
+
+        if (!(key instanceof MultipleSources)) {
+            return false;
+        }
+
+        Object[] stored = ((MultipleSources) key).sources;
+
+        if (stored.length != sources.length) {
+            return false;
+        }
+
+        for (int i = 0; i < stored.length; i++) {
+            if (stored[i] != sources[i]) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    private static boolean sameKey(Object stored, Object key) {
+        if (key instanceof MultipleSources) {
+            return sameSources(stored, ((MultipleSources) key).sources);
+        }
+
+        if (key instanceof Identifier) {
+            return stored instanceof Identifier && ((Identifier) stored).value.equals(((Identifier) key).value);
+        }
+
+        return stored == key;
+    }
+
+    private static int hash(BindingPlan plan, Object[] sources) {
+        int ret = System.identityHashCode(plan);
+        for (Object source : sources) {
+            ret = ret * 31 + System.identityHashCode(source);
+        }
+        return spread(ret);
+    }
+
+    private static int hashByIdentifier(BindingPlan plan, Object identifier) {
+        return spread(System.identityHashCode(plan) * 31 + identifier.hashCode());
+    }
+
+    private static int spread(int hash) {
+        return hash ^ (hash >>> 16);
+    }
+
+    /**
+     * Binding context which can be used by several threads at the same time.
+     */
+    static final class Shared extends BindingContext {
+
+        @Override
+        synchronized Object get(BindingPlan plan, Object[] sources) {
+            return super.get(plan, sources);
+        }
+
+        @Override
+        synchronized void put(BindingPlan plan, Object[] sources, Object dto) {
+            super.put(plan, sources, dto);
+        }
+
+        @Override
+        synchronized Object getByIdentifier(BindingPlan plan, Object identifier) {
+            return super.getByIdentifier(plan, identifier);
+        }
+
+        @Override
+        synchronized void putByIdentifier(BindingPlan plan, Object identifier, Object dto) {
+            super.putByIdentifier(plan, identifier, dto);
+        }
+
+        @Override
+        synchronized int size() {
+            return super.size();
+        }
+    }
+
+    /**
+     * Key of the DTOs built out of more than one business object.
+     */
+    private static final class MultipleSources {
+
+        private final Object[] sources;
+
+        MultipleSources(Object[] sources) {
+            this.sources = sources;
+        }
+    }
+
+    /**
+     * Key of the DTOs with an identifier property.
+     */
+    private static final class Identifier {
+
+        private final Object value;
+
+        Identifier(Object value) {
+            this.value = value;
+        }
+    }
+}
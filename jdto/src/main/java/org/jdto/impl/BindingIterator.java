@@ -0,0 +1,69 @@
+/*
+ *    Copyright 2012 Juan Alberto López Cavallotti
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jdto.impl;
+
+import java.util.Iterator;
+
+/**
+ * Iterator which binds the business objects of another iterator one at a time.
+ * The elements share a binding context which is replaced every
+ * {@link DTOBinderBean#getLazyBindingWindow() } elements, so the bound DTOs are
+ * not retained for longer than that.
+ *
+ * @since 1.5
+ */
+final class BindingIterator<T> implements Iterator<T> {
+
+    private final DTOBinderBean binder;
+    private final Class<T> dtoClass;
+    private final Iterator<?> businessObjects;
+    private final int window;
+    private BindingContext context;
+    private int bound;
+
+    BindingIterator(DTOBinderBean binder, Class<T> dtoClass, Iterator<?> businessObjects, int window) {
+        this.binder = binder;
+        this.dtoClass = dtoClass;
+        this.businessObjects = businessObjects;
+        this.window = window;
+    }
+
+    @Override
+    public boolean hasNext() {
+        return businessObjects.hasNext();
+    }
+
+    @Override
+    public T next() {
+        Object businessObject = businessObjects.next();
+
+        if (context == null || bound == window) {
+            context = binder.newBindingContext();
+            bound = 0;
+        }
+
+        bound++;
+        return binder.bindInContext(context, dtoClass, new Object[]{businessObject});
+    }
+
+    /**
+     * Remove the last business object from the source iterator.
+     */
+    @Override
+    public void remove() {
+        businessObjects.remove();
+    }
+}
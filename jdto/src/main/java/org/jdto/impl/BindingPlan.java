@@ -0,0 +1,285 @@
+/*
+ *    Copyright 2012 Juan Alberto López Cavallotti
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jdto.impl;
+
+import java.io.Serializable;
+import java.lang.reflect.Constructor;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.apache.commons.lang3.ArrayUtils;
+import org.apache.commons.lang3.StringUtils;
+import org.jdto.Binding;
+import org.jdto.MultiPropertyValueMerger;
+import org.jdto.PropertyPath;
+import org.jdto.PropertyValueMergerInstanceManager;
+import org.jdto.SinglePropertyValueMerger;
+
+/**
+ * Compiled form of the {@link BeanMetadata} of a DTO class. <br />
+ *
+ * The plan is built once per DTO type and resolves everything that does not
+ * depend on the source objects: the order of the fields, the index of the
+ * source bean each property is read from, the merger instances and the target
+ * types. Binding a DTO is then a loop over the {@link FieldStep} array.
+ *
+ * @since 1.5
+ */
+final class BindingPlan implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * Argument index used when a source bean name could not be resolved.
+     */
+    static final int UNRESOLVED_SOURCE = -1;
+
+    private final Class dtoClass;
+    private final BeanMetadata metadata;
+    private final boolean immutable;
+    private final Constructor constructor;
+    private final FieldStep[] steps;
+    private final PropertyPath identifierPath;
+    private final int cascadeCount;
+    private boolean cyclic;
+    private transient volatile GeneratedBinder generatedBinder;
+    private transient volatile boolean generationAttempted;
+
+    private BindingPlan(Class dtoClass, BeanMetadata metadata, FieldStep[] steps) {
+        this.dtoClass = dtoClass;
+        this.metadata = metadata;
+        this.immutable = metadata.isImmutableBean();
+        this.constructor = metadata.getImmutableConstructor();
+        this.steps = steps;
+        this.identifierPath = PropertyPath.compile(metadata.getIdentifierProperty());
+        
+        int cascades = 0;
+        for (FieldStep step : steps) {
+            if (step.cascade) {
+                cascades++;
+            }
+        }
+        this.cascadeCount = cascades;
+    }
+
+    /**
+     * Compile the binding plan for the given DTO class.
+     * @param dtoClass the type of the DTO.
+     * @param metadata the metadata of the DTO.
+     * @param mergerManager used to resolve the merger instances.
+     * @return the compiled plan.
+     */
+    static BindingPlan compile(Class dtoClass, BeanMetadata metadata, PropertyValueMergerInstanceManager mergerManager) {
+
+        FieldStep[] steps;
+
+        if (metadata.isImmutableBean()) {
+            List<FieldMetadata> args = metadata.getConstructorArgs();
+            steps = new FieldStep[args.size()];
+            int i = 0;
+            for (FieldMetadata fieldMetadata : args) {
+                steps[i++] = compileField(null, fieldMetadata, metadata, mergerManager);
+            }
+        } else {
+            HashMap<String, FieldMetadata> fields = metadata.getFieldMetadata();
+            steps = new FieldStep[fields.size()];
+            int i = 0;
+            for (Map.Entry<String, FieldMetadata> entry : fields.entrySet()) {
+                steps[i++] = compileField(entry.getKey(), entry.getValue(), metadata, mergerManager);
+            }
+        }
+
+        return new BindingPlan(dtoClass, metadata, steps);
+    }
+
+    private static FieldStep compileField(String targetProperty, FieldMetadata fieldMetadata, BeanMetadata metadata, PropertyValueMergerInstanceManager mergerManager) {
+
+        //the same resolution rules as the source beans map used to have.
+        String[] names = (ArrayUtils.isEmpty(fieldMetadata.getSourceBeanNames()))
+                ? metadata.getDefaultBeanNames() : fieldMetadata.getSourceBeanNames();
+
+        List<String> sourceFields = fieldMetadata.getSourceFields();
+        SourceStep[] sources = new SourceStep[sourceFields.size()];
+
+        int sourceIndex = 0;
+        for (String sourceProperty : sourceFields) {
+            String sourceBean = fieldMetadata.getSourceBeans()[sourceIndex];
+            Class mergerClass = fieldMetadata.getSourceMergers()[sourceIndex];
+
+            SinglePropertyValueMerger merger = (SinglePropertyValueMerger) mergerManager.getPropertyValueMerger(mergerClass);
+
+            sources[sourceIndex] = new SourceStep(sourceBean,
+                    resolveArgumentIndex(sourceBean, names),
+                    sourceProperty,
+                    merger,
+                    fieldMetadata.getSourceMergersParams()[sourceIndex]);
+            sourceIndex++;
+        }
+
+        MultiPropertyValueMerger merger = null;
+
+        if (!fieldMetadata.isCascadePresent()) {
+            merger = (MultiPropertyValueMerger) mergerManager.getPropertyValueMerger(fieldMetadata.getPropertyValueMerger());
+        }
+
+        return new FieldStep(targetProperty, fieldMetadata, sources, merger);
+    }
+
+    /**
+     * Find the position of the source bean in the business objects array.
+     * The last declaration wins and the empty name always refers to the first
+     * business object.
+     */
+    private static int resolveArgumentIndex(String sourceBean, String[] names) {
+
+        if (StringUtils.isEmpty(sourceBean)) {
+            return 0;
+        }
+
+        for (int i = names.length - 1; i >= 0; i--) {
+            if (sourceBean.equals(names[i])) {
+                return i;
+            }
+        }
+
+        return UNRESOLVED_SOURCE;
+    }
+
+    //GETTERS
+    Class getDtoClass() {
+        return dtoClass;
+    }
+
+    BeanMetadata getMetadata() {
+        return metadata;
+    }
+
+    boolean isImmutable() {
+        return immutable;
+    }
+
+    Constructor getConstructor() {
+        return constructor;
+    }
+
+    FieldStep[] getSteps() {
+        return steps;
+    }
+
+    /**
+     * The amount of cascaded fields.
+     */
+    int getCascadeCount() {
+        return cascadeCount;
+    }
+
+    PropertyPath getIdentifierPath() {
+        return identifierPath;
+    }
+
+    /**
+     * Whether the DTO may be bound again while binding its own cascades. This
+     * is set by the binder before the plan is published.
+     */
+    boolean isCyclic() {
+        return cyclic;
+    }
+
+    void setCyclic(boolean cyclic) {
+        this.cyclic = cyclic;
+    }
+
+    GeneratedBinder getGeneratedBinder() {
+        return generatedBinder;
+    }
+
+    void setGeneratedBinder(GeneratedBinder generatedBinder) {
+        this.generatedBinder = generatedBinder;
+    }
+
+    boolean isGenerationAttempted() {
+        return generationAttempted;
+    }
+
+    void setGenerationAttempted(boolean generationAttempted) {
+        this.generationAttempted = generationAttempted;
+    }
+
+    /**
+     * Mark the generation of the binder as attempted.
+     * @return true if the caller should generate the binder, false if it was
+     * already attempted.
+     */
+    synchronized boolean startGeneration() {
+        if (generationAttempted) {
+            return false;
+        }
+        generationAttempted = true;
+        return true;
+    }
+
+    /**
+     * Compiled information to populate a single target field or constructor
+     * argument.
+     */
+    static final class FieldStep implements Serializable {
+        private static final long serialVersionUID = 1L;
+
+        final String targetProperty;
+        final PropertyPath targetPath;
+        final FieldMetadata fieldMetadata;
+        final Class targetType;
+        final SourceStep[] sources;
+        final MultiPropertyValueMerger merger;
+        final String[] mergerParams;
+        final boolean cascade;
+
+        FieldStep(String targetProperty, FieldMetadata fieldMetadata, SourceStep[] sources, MultiPropertyValueMerger merger) {
+            this.targetProperty = targetProperty;
+            this.targetPath = PropertyPath.compile(targetProperty);
+            this.fieldMetadata = fieldMetadata;
+            this.targetType = fieldMetadata.getTargetType();
+            this.sources = sources;
+            this.merger = merger;
+            this.mergerParams = fieldMetadata.getMergerParameter();
+            this.cascade = fieldMetadata.isCascadePresent();
+        }
+    }
+
+    /**
+     * Compiled information to read and merge a single source property.
+     */
+    static final class SourceStep implements Serializable {
+        private static final long serialVersionUID = 1L;
+
+        final String sourceBean;
+        final int argumentIndex;
+        final String property;
+        final PropertyPath path;
+        final boolean rootObject;
+        final SinglePropertyValueMerger merger;
+        final String[] mergerParams;
+
+        SourceStep(String sourceBean, int argumentIndex, String property, SinglePropertyValueMerger merger, String[] mergerParams) {
+            this.sourceBean = sourceBean;
+            this.argumentIndex = argumentIndex;
+            this.property = property;
+            this.path = PropertyPath.compile(property);
+            this.rootObject = StringUtils.equals(property, Binding.ROOT_OBJECT);
+            this.merger = merger;
+            this.mergerParams = mergerParams;
+        }
+    }
+}
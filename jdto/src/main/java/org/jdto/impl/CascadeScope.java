@@ -0,0 +1,121 @@
+/*
+ *    Copyright 2012 Juan Alberto López Cavallotti
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jdto.impl;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Runs a group of cascaded bindings concurrently and waits for all of them. <br />
+ *
+ * The tasks run on the binding context of the calling thread. The calling
+ * thread runs every task which the executor has not started yet, so a busy or
+ * bounded executor never blocks the binding and nested scopes can't starve
+ * the executor.
+ *
+ * @since 1.5
+ */
+final class CascadeScope {
+
+    private CascadeScope() {
+    }
+
+    /**
+     * Run all of the tasks and wait for their results.
+     * @param binder the binder which owns the binding context.
+     * @param executor the executor where to run the tasks.
+     * @param tasks the cascaded bindings.
+     * @return the results of the tasks, in the same order.
+     */
+    static Object[] invokeAll(final DTOBinderBean binder, Executor executor, List<Callable<Object>> tasks) {
+
+        final BindingContext context = binder.bindingContext.get();
+        List<FutureTask<Object>> futures = new ArrayList<FutureTask<Object>>(tasks.size());
+
+        for (final Callable<Object> task : tasks) {
+            futures.add(new FutureTask<Object>(new Callable<Object>() {
+                @Override
+                public Object call() throws Exception {
+                    BindingContext previous = binder.swapBindingContext(context);
+                    try {
+                        return task.call();
+                    } finally {
+                        binder.swapBindingContext(previous);
+                    }
+                }
+            }));
+        }
+
+        //the first task is always run by the calling thread.
+        for (int i = 1; i < futures.size(); i++) {
+            try {
+                executor.execute(futures.get(i));
+            } catch (RejectedExecutionException ex) {
+                DTOBinderBean.logger.debug("Executor rejected a cascade, binding it on the calling thread");
+                break;
+            }
+        }
+
+        //run whatever has not been started, this does nothing on started tasks.
+        for (FutureTask<Object> future : futures) {
+            future.run();
+        }
+
+        Object[] ret = new Object[futures.size()];
+        boolean interrupted = false;
+        Throwable error = null;
+
+        for (int i = 0; i < ret.length; i++) {
+            while (true) {
+                try {
+                    ret[i] = futures.get(i).get();
+                    break;
+                } catch (InterruptedException ex) {
+                    //the task is running, wait for it anyway.
+                    interrupted = true;
+                } catch (ExecutionException ex) {
+                    if (error == null) {
+                        error = ex.getCause();
+                    }
+                    break;
+                }
+            }
+        }
+
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+
+        if (error instanceof RuntimeException) {
+            throw (RuntimeException) error;
+        }
+
+        if (error instanceof Error) {
+            throw (Error) error;
+        }
+
+        if (error != null) {
+            throw new RuntimeException("Could not bind cascade", error);
+        }
+
+        return ret;
+    }
+}
@@ -0,0 +1,144 @@
+/*
+ *    Copyright 2012 Juan Alberto López Cavallotti
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jdto.impl;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UnsupportedEncodingException;
+import java.lang.reflect.Modifier;
+import java.net.JarURLConnection;
+import java.net.URL;
+import java.net.URLConnection;
+import java.net.URLDecoder;
+import java.util.ArrayList;
+import java.util.Enumeration;
+import java.util.List;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Finds the classes of a package and its sub packages on the class path, 
+ * both in directories and in jar files. Only concrete public top level 
+ * classes are returned, as those are the ones which may be DTOs.
+ *
+ * @since 1.5
+ */
+final class ClassPathScanner {
+
+    private static final Logger logger = LoggerFactory.getLogger(ClassPathScanner.class);
+    private static final String CLASS_SUFFIX = ".class";
+
+    private ClassPathScanner() {
+    }
+
+    /**
+     * Find the classes of a package and its sub packages.
+     * @param packageName the name of the package.
+     * @param classLoader the class loader to look into.
+     * @return the classes found.
+     * @throws IOException if the class path can't be read.
+     */
+    static List<Class<?>> findClasses(String packageName, ClassLoader classLoader) throws IOException {
+        String resourcePath = packageName.replace('.', '/');
+        List<String> classNames = new ArrayList<String>();
+
+        Enumeration<URL> roots = classLoader.getResources(resourcePath);
+        while (roots.hasMoreElements()) {
+            URL root = roots.nextElement();
+
+            if ("file".equals(root.getProtocol())) {
+                scanDirectory(new File(decode(root.getPath())), packageName, classNames);
+                continue;
+            }
+
+            URLConnection connection = root.openConnection();
+            if (connection instanceof JarURLConnection) {
+                scanJar(((JarURLConnection) connection).getJarFile(), resourcePath + "/", classNames);
+            } else {
+                logger.warn("Cannot scan class path entry: " + root);
+            }
+        }
+
+        List<Class<?>> ret = new ArrayList<Class<?>>();
+        for (String className : classNames) {
+            Class<?> type = load(className, classLoader);
+            if (type != null && isCandidate(type)) {
+                ret.add(type);
+            }
+        }
+
+        return ret;
+    }
+
+    private static void scanDirectory(File directory, String packageName, List<String> classNames) {
+        File[] files = directory.listFiles();
+
+        if (files == null) {
+            return;
+        }
+
+        for (File file : files) {
+            String name = file.getName();
+            if (file.isDirectory()) {
+                scanDirectory(file, packageName + "." + name, classNames);
+            } else if (isTopLevelClassFile(name)) {
+                classNames.add(packageName + "." + name.substring(0, name.length() - CLASS_SUFFIX.length()));
+            }
+        }
+    }
+
+    private static void scanJar(JarFile jar, String prefix, List<String> classNames) {
+        Enumeration<JarEntry> entries = jar.entries();
+        while (entries.hasMoreElements()) {
+            String name = entries.nextElement().getName();
+            if (name.startsWith(prefix) && isTopLevelClassFile(name)) {
+                classNames.add(name.substring(0, name.length() - CLASS_SUFFIX.length()).replace('/', '.'));
+            }
+        }
+    }
+
+    private static boolean isTopLevelClassFile(String name) {
+        return name.endsWith(CLASS_SUFFIX) && name.indexOf('$') == -1 && !name.endsWith("package-info.class");
+    }
+
+    private static boolean isCandidate(Class<?> type) {
+        int modifiers = type.getModifiers();
+        return Modifier.isPublic(modifiers) && !Modifier.isAbstract(modifiers) 
+                && !type.isInterface() && !type.isEnum() && !type.isAnnotation();
+    }
+
+    private static Class<?> load(String className, ClassLoader classLoader) {
+        try {
+            return Class.forName(className, false, classLoader);
+        } catch (ClassNotFoundException ex) {
+            logger.warn("Cannot load scanned class " + className, ex);
+        } catch (LinkageError ex) {
+            logger.warn("Cannot load scanned class " + className, ex);
+        }
+        return null;
+    }
+
+    private static String decode(String path) {
+        try {
+            return URLDecoder.decode(path, "UTF-8");
+        } catch (UnsupportedEncodingException ex) {
+            //UTF-8 is always supported.
+            return path;
+        }
+    }
+}
@@ -17,12 +17,15 @@
 package org.jdto.impl;
 
 import org.apache.commons.lang3.StringUtils;
+import org.jdto.PropertyPath;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.IOException;
+import java.io.ObjectInputStream;
 import java.lang.reflect.Array;
 import java.lang.reflect.Method;
-import java.util.HashMap;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Basic implementation of bean modifier, basicly to let the user to not depend
@@ -34,9 +37,12 @@ public class CoreBeanModifier extends BaseBeanModifier {
 
     private static final long serialVersionUID = 1L;
     private static final Logger logger = LoggerFactory.getLogger(CoreBeanModifier.class);
+    /**
+     * Marks a property with no accessor method so it is not looked up again.
+     */
+    private static final Object NOT_FOUND = new Object();
     private boolean makeUpMissingInstances;
-    private HashMap<Class, HashMap<String, Method>> getterCache;
-    private HashMap<Class, HashMap<String, Method>> setterCache;
+    private transient ConcurrentHashMap<Class, ClassMethods> methodCache;
 
     /**
      * Create a new instance of the core bean modifer. By default this 
@@ -45,8 +51,7 @@ public class CoreBeanModifier extends BaseBeanModifier {
      */
     public CoreBeanModifier() {
         this.makeUpMissingInstances = true;
-        getterCache = new HashMap<Class, HashMap<String, Method>>();
-        setterCache = new HashMap<Class, HashMap<String, Method>>();
+        methodCache = new ConcurrentHashMap<Class, ClassMethods>();
     }
 
     /**
@@ -66,26 +71,40 @@ public class CoreBeanModifier extends BaseBeanModifier {
     @Override
     public Object doReadPropertyValue(String propertyPath, Object instance) {
 
-        try {
+        if (propertyPath == null) {
+            logger.info("Ignoring null property path");
+            return null;
+        }
 
-            if (propertyPath == null) {
-                logger.info("Ignoring null property path");
-                return null;
-            }
+        //first try to split the property path by its parts.
+        return read(propertyPath, StringUtils.split(propertyPath, "."), null, instance);
+    }
+
+    /**
+     * {@inheritDoc }
+     */
+    @Override
+    protected Object doReadPropertyValue(PropertyPath propertyPath, Object instance) {
+        ResolvedPath resolved = resolve(propertyPath);
+        return read(propertyPath.getPath(), resolved.segments, resolved, instance);
+    }
+
+    private Object read(String propertyPath, String[] segments, ResolvedPath resolved, Object instance) {
+
+        try {
 
             if (instance == null) {
                 logger.info("Ignoring attempt to read a value from a null instance");
                 return null;
             }
 
-            //first try to split the property path by its parts.
-            String[] partialProperties = StringUtils.split(propertyPath, ".");
-
             Object actualInstance = instance;
+            int size = segments.length;
 
-            for (String property : partialProperties) {
+            for (int i = 0; i < size; i++) {
 
-                Method getter = findProperGetter(property, actualInstance.getClass());
+                String property = segments[i];
+                Method getter = findGetter(resolved, i, property, actualInstance.getClass());
 
                 if (getter == null) {
                     logger.warn("no getter method found for property " + property + " on class " + actualInstance.getClass().getName());
@@ -116,29 +135,42 @@ public class CoreBeanModifier extends BaseBeanModifier {
      */
     @Override
     public void doWritePropertyValue(String propertyPath, Object finalValue, Object instance) {
-        try {
 
-            if (propertyPath == null) {
-                logger.info("Ignoring null property path");
-                return;
-            }
+        if (propertyPath == null) {
+            logger.info("Ignoring null property path");
+            return;
+        }
+
+        //first try to split the property path by its parts.
+        write(propertyPath, StringUtils.split(propertyPath, "."), null, finalValue, instance);
+    }
+
+    /**
+     * {@inheritDoc }
+     */
+    @Override
+    protected void doWritePropertyValue(PropertyPath propertyPath, Object value, Object instance) {
+        ResolvedPath resolved = resolve(propertyPath);
+        write(propertyPath.getPath(), resolved.segments, resolved, value, instance);
+    }
+
+    private void write(String propertyPath, String[] segments, ResolvedPath resolved, Object finalValue, Object instance) {
+        try {
 
             if (instance == null) {
                 logger.info("Ignoring attempt to write a value to a null instance (I can't make up for this)");
                 return;
             }
 
-            //first try to split the property path by its parts.
-            String[] partialProperties = StringUtils.split(propertyPath, ".");
-
             Object actualInstance = instance;
+            int size = segments.length;
 
-            for (int i = 0; i < partialProperties.length - 1; i++) {
+            for (int i = 0; i < size - 1; i++) {
 
-                String property = partialProperties[i];
+                String property = segments[i];
                 //here comes the make up magic.
                 //first of all we find the getter.
-                Method getter = findProperGetter(property, actualInstance.getClass());
+                Method getter = findGetter(resolved, i, property, actualInstance.getClass());
 
                 if (getter == null) {
                     logger.warn("no getter method found for property " + property + " on class " + actualInstance.getClass().getName());
@@ -174,7 +206,7 @@ public class CoreBeanModifier extends BaseBeanModifier {
             //end of recursion, we can now return the value we found.
 
             //finally the strawberry on the dessert.
-            Method setter = findProperSetter(partialProperties[partialProperties.length - 1], actualInstance.getClass());
+            Method setter = findSetter(resolved, segments[size - 1], actualInstance.getClass());
 
             //at this point maybe a little type casting it would be helpful
             Class expectedType = setter.getParameterTypes()[0];
@@ -204,52 +236,103 @@ public class CoreBeanModifier extends BaseBeanModifier {
         this.makeUpMissingInstances = makeUpMissingInstances;
     }
 
-    private synchronized Method findProperGetter(String property, Class targetClass) {
+    /**
+     * Find the getter for the given property of the given class.
+     * @param property the name of the property.
+     * @param targetClass the class declaring the property.
+     * @return the getter or null if there is no such getter.
+     */
+    Method findProperGetter(String property, Class targetClass) {
+        return findClassMethods(targetClass).getter(property);
+    }
 
-        HashMap<String, Method> classGetterCache = getterCache.get(targetClass);
+    /**
+     * Find the setter for the given property of the given class.
+     * @param property the name of the property.
+     * @param targetClass the class declaring the property.
+     * @return the setter or null if there is no such setter.
+     */
+    Method findProperSetter(String property, Class targetClass) {
+        return findClassMethods(targetClass).setter(property);
+    }
 
-        if (classGetterCache == null) {
-            classGetterCache = new HashMap();
-            getterCache.put(targetClass, classGetterCache);
+    /**
+     * Find the getter of a segment, using the resolution of the path if it was
+     * resolved for the same class.
+     */
+    private Method findGetter(ResolvedPath resolved, int index, String property, Class targetClass) {
+        if (resolved == null) {
+            return findProperGetter(property, targetClass);
         }
 
-        Method ret = classGetterCache.get(property);
+        ResolvedMethod[] cached = resolved.getters[index];
+        ResolvedMethod hit = ResolvedMethod.lookup(cached, targetClass);
 
-        if (ret != null) {
-            return ret;
+        if (hit != null) {
+            return hit.method;
         }
 
-        ret = BeanPropertyUtils.findGetterMethod(property, targetClass);
+        Method ret = findProperGetter(property, targetClass);
+        ResolvedMethod[] updated = ResolvedMethod.append(cached, targetClass, ret);
 
-        classGetterCache.put(property, ret);
+        if (updated != cached) {
+            resolved.getters[index] = updated;
+        }
 
         return ret;
     }
 
-    private synchronized Method findProperSetter(String property, Class targetClass) {
+    /**
+     * Find the setter of the last segment, using the resolution of the path if
+     * it was resolved for the same class.
+     */
+    private Method findSetter(ResolvedPath resolved, String property, Class targetClass) {
+        if (resolved == null) {
+            return findProperSetter(property, targetClass);
+        }
+
+        ResolvedMethod[] cached = resolved.setters;
+        ResolvedMethod hit = ResolvedMethod.lookup(cached, targetClass);
+
+        if (hit != null) {
+            return hit.method;
+        }
 
-        HashMap<String, Method> classSetterCache = setterCache.get(targetClass);
+        Method ret = findProperSetter(property, targetClass);
+        ResolvedMethod[] updated = ResolvedMethod.append(cached, targetClass, ret);
 
-        if (classSetterCache == null) {
-            classSetterCache = new HashMap();
-            setterCache.put(targetClass, classSetterCache);
+        if (updated != cached) {
+            resolved.setters = updated;
         }
 
+        return ret;
+    }
 
-        Method ret = classSetterCache.get(property);
+    private ResolvedPath resolve(PropertyPath propertyPath) {
+        ResolvedPath ret = (ResolvedPath) propertyPath.getResolution(this);
+
+        if (ret == null) {
+            ret = new ResolvedPath(propertyPath);
+            propertyPath.setResolution(this, ret);
+        }
+
+        return ret;
+    }
+
+    private ClassMethods findClassMethods(Class targetClass) {
+        ClassMethods ret = methodCache.get(targetClass);
 
         if (ret != null) {
             return ret;
         }
 
-        ret = BeanPropertyUtils.findSetterMethod(property, targetClass);
+        ret = new ClassMethods(targetClass);
+        ClassMethods existing = methodCache.putIfAbsent(targetClass, ret);
 
-        classSetterCache.put(property, ret);
-
-        return ret;
+        return (existing == null) ? ret : existing;
     }
 
-    private Object copyToProperArray(Class expectedType, Object finalValue) {
+    static Object copyToProperArray(Class expectedType, Object finalValue) {
         Object ret = Array.newInstance(expectedType.getComponentType(), Array.getLength(finalValue));
         
         for (int i = 0; i < Array.getLength(finalValue); i++) {
@@ -258,4 +341,134 @@ public class CoreBeanModifier extends BaseBeanModifier {
         
         return ret;
     }
+
+    /**
+     * The cache holds reflection objects which cannot be serialized, start
+     * over with an empty cache.
+     */
+    private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+        in.defaultReadObject();
+        methodCache = new ConcurrentHashMap<Class, ClassMethods>();
+    }
+
+    /**
+     * The accessor methods found so far for a single class. Properties with no
+     * accessor are cached as well, so the class hierarchy is scanned at most
+     * once per property.
+     */
+    private static final class ClassMethods {
+
+        private final Class type;
+        private final ConcurrentHashMap<String, Object> getters;
+        private final ConcurrentHashMap<String, Object> setters;
+
+        ClassMethods(Class type) {
+            this.type = type;
+            this.getters = new ConcurrentHashMap<String, Object>();
+            this.setters = new ConcurrentHashMap<String, Object>();
+        }
+
+        Method getter(String property) {
+            Object ret = getters.get(property);
+
+            if (ret == null) {
+                Method getter = BeanPropertyUtils.findGetterMethod(property, type);
+                ret = (getter == null) ? NOT_FOUND : getter;
+                getters.putIfAbsent(property, ret);
+            }
+
+            return (ret == NOT_FOUND) ? null : (Method) ret;
+        }
+
+        Method setter(String property) {
+            Object ret = setters.get(property);
+
+            if (ret == null) {
+                Method setter = BeanPropertyUtils.findSetterMethod(property, type);
+                ret = (setter == null) ? NOT_FOUND : setter;
+                setters.putIfAbsent(property, ret);
+            }
+
+            return (ret == NOT_FOUND) ? null : (Method) ret;
+        }
+    }
+
+    /**
+     * A method resolved for a given class.
+     */
+    private static final class ResolvedMethod {
+
+        private final Class type;
+        private final Method method;
+
+        ResolvedMethod(Class type, Method method) {
+            this.type = type;
+            this.method = method;
+        }
+
+        /**
+         * Find the method resolved for the given class.
+         * @param entries the methods resolved so far, may be null.
+         * @param type the class to look for.
+         * @return the resolved method or null if it was not resolved yet.
+         */
+        static ResolvedMethod lookup(ResolvedMethod[] entries, Class type) {
+            if (entries == null) {
+                return null;
+            }
+
+            for (ResolvedMethod entry : entries) {
+                //entries may not be visible yet to other threads.
+                if (entry != null && entry.type == type) {
+                    return entry;
+                }
+            }
+
+            return null;
+        }
+
+        /**
+         * Add a resolved method to a copy of the entries, unless there are
+         * already {@link ResolvedPath#POLYMORPHIC_LIMIT} of them.
+         * @return the new entries or the same entries if they are full.
+         */
+        static ResolvedMethod[] append(ResolvedMethod[] entries, Class type, Method method) {
+            if (entries == null) {
+                return new ResolvedMethod[] {new ResolvedMethod(type, method)};
+            }
+
+            if (entries.length >= ResolvedPath.POLYMORPHIC_LIMIT) {
+                return entries;
+            }
+
+            ResolvedMethod[] ret = new ResolvedMethod[entries.length + 1];
+            System.arraycopy(entries, 0, ret, 0, entries.length);
+            ret[entries.length] = new ResolvedMethod(type, method);
+            return ret;
+        }
+    }
+
+    /**
+     * The segments of a property path and the methods resolved for each of
+     * them, for up to {@link #POLYMORPHIC_LIMIT} classes per segment. Entries
+     * are never replaced, once a segment has seen that many classes the
+     * methods of any other class are looked up in the method cache. Hits
+     * don't write anything, and a racing update can only lead to resolving
+     * the method again.
+     */
+    private static final class ResolvedPath {
+
+        private static final int POLYMORPHIC_LIMIT = 4;
+        private final String[] segments;
+        private final ResolvedMethod[][] getters;
+        private ResolvedMethod[] setters;
+
+        ResolvedPath(PropertyPath propertyPath) {
+            this.segments = new String[propertyPath.size()];
+            for (int i = 0; i < segments.length; i++) {
+                segments[i] = propertyPath.getSegment(i);
+            }
+            this.getters = new ResolvedMethod[segments.length][];
+        }
+    }
 }
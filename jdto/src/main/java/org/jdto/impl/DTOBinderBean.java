@@ -15,18 +15,31 @@
  */
 package org.jdto.impl;
 
+import org.jdto.AsyncDTOBinder;
 import org.jdto.BeanModifier;
+import org.jdto.BindingListener;
 import org.jdto.DTOBinder;
 import org.jdto.PropertyValueMerger;
 import org.jdto.PropertyValueMergerInstanceManager;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.RandomAccess;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
 
 /**
  * Basic implementation of the DTO binding lifecycle. Subclasses can extend this
@@ -35,12 +48,34 @@ import java.util.List;
  *
  * @author Juan Alberto Lopez Cavallotti
  */
-public class DTOBinderBean implements DTOBinder {
+public class DTOBinderBean implements DTOBinder, AsyncDTOBinder {
 
     private static final long serialVersionUID = 1L;
-    private HashMap<Class, BeanMetadata> metadata;
+    /**
+     * The metadata and compiled plans, replaced as a whole when the mappings
+     * are reloaded.
+     */
+    private volatile MetadataRegistry metadata = new MetadataRegistry();
     static final Logger logger = LoggerFactory.getLogger(DTOBinderBean.class);
-    ThreadLocal<HashMap> bindingContext = new ThreadLocal<HashMap>();
+    ThreadLocal<BindingContext> bindingContext = new ThreadLocal<BindingContext>();
+    
+    /**
+     * The default minimum amount of business objects to bind in parallel.
+     */
+    public static final int DEFAULT_PARALLEL_THRESHOLD = 1000;
+    
+    /**
+     * Executor for binding large lists and collections in parallel.
+     */
+    private transient Executor parallelExecutor;
+    private int parallelThreshold = DEFAULT_PARALLEL_THRESHOLD;
+    
+    /**
+     * The default amount of elements sharing a binding context on lazy binding.
+     */
+    public static final int DEFAULT_LAZY_BINDING_WINDOW = 1000;
+    private int lazyBindingWindow = DEFAULT_LAZY_BINDING_WINDOW;
+    private boolean lazyListsEnabled;
     /**
      * This delegate will hold the real implementation of the binding lifecycle
      * for simple instances, hiding the complexity of other types of bindings
@@ -92,21 +127,66 @@ public class DTOBinderBean implements DTOBinder {
             if (businessObjects[0] == null) {
                 return null;
             }
-            return implementationDelegate.bindFromBusinessObject(metadata, dtoClass, businessObjects);
+            return implementationDelegate.bindFromBusinessObject(currentMetadata(), dtoClass, businessObjects);
         } finally {
             releaseBindingContext(shouldReleaseThreadLocal);
         }
     }
 
     @Override
-    public <T> List<T> bindFromBusinessObjectList(Class<T> dtoClass, List... businessObjectsLists) {
+    public <T> T bindInto(T target, Object... businessObjects) {
+        
+        if (target == null) {
+            throw new IllegalArgumentException("The target DTO should not be null");
+        }
+        
+        boolean shouldReleaseThreadLocal = initBindingContextIfNecessary();
+        try {
+            if (businessObjects[0] == null) {
+                return null;
+            }
+            return implementationDelegate.bindInto(currentMetadata(), target, businessObjects);
+        } finally {
+            releaseBindingContext(shouldReleaseThreadLocal);
+        }
+    }
 
+    @Override
+    public <T> T[] bindIntoArray(T[] targets, List<?> businessObjects) {
+        
+        if (businessObjects == null) {
+            return null;
+        }
+        
+        if (businessObjects.size() > targets.length) {
+            throw new IllegalArgumentException("The targets array is smaller than the business objects list");
+        }
+        
+        Class<T> dtoClass = (Class<T>) targets.getClass().getComponentType();
+        
         boolean shouldReleaseThreadLocal = initBindingContextIfNecessary();
         try {
+            int i = 0;
+            for (Object businessObject : businessObjects) {
+                Object[] params = new Object[]{businessObject};
+                targets[i] = (targets[i] == null) 
+                        ? bindFromBusinessObject(dtoClass, params) 
+                        : bindInto(targets[i], params);
+                i++;
+            }
             
-            //this will apply repeatedly the conversion results to a list.
-            Object[] paramsBuffer = new Object[businessObjectsLists.length];
+            return targets;
+        } finally {
+            releaseBindingContext(shouldReleaseThreadLocal);
+        }
+    }
+
+    @Override
+    public <T> List<T> bindFromBusinessObjectList(Class<T> dtoClass, List... businessObjectsLists) {
 
+        boolean shouldReleaseThreadLocal = initBindingContextIfNecessary();
+        try {
+            
             int refSize = getSourceListsSize(businessObjectsLists);
             
             //all of the elements are null
@@ -115,27 +195,101 @@ public class DTOBinderBean implements DTOBinder {
             }
             
             
-            List<T> ret = new ArrayList<T>();
-            //repeatedly run the simple binding.
-            for (int i = 0; i < refSize; i++) {
-                for (int j = 0; j < businessObjectsLists.length; j++) {
-                    List param = businessObjectsLists[j];
-                    paramsBuffer[j] = param.get(i);
-                }
-
-                T result = bindFromBusinessObject(dtoClass, paramsBuffer);
-                ret.add(result);
+            if (shouldReleaseThreadLocal && lazyListsEnabled) {
+                return new LazyBindingList<T>(this, dtoClass, toRandomAccess(businessObjectsLists), refSize);
+            }
+            
+            if (shouldReleaseThreadLocal && isParallel(refSize)) {
+                return bindInParallel(dtoClass, toRandomAccess(businessObjectsLists), refSize);
             }
+            
+            return bindZipped(dtoClass, businessObjectsLists, refSize);
+        } finally {
+            releaseBindingContext(shouldReleaseThreadLocal);
+        }
+    }
 
-            return ret;
+    @Override
+    public <T> List<T> bindFromBusinessObjectList(Class<T> dtoClass, Iterable... businessObjects) {
+
+        boolean shouldReleaseThreadLocal = initBindingContextIfNecessary();
+        try {
+            
+            for (Iterable iterable : businessObjects) {
+                if (iterable != null) {
+                    int sizeHint = (iterable instanceof Collection) ? ((Collection) iterable).size() : -1;
+                    return bindZipped(dtoClass, businessObjects, sizeHint);
+                }
+            }
+            
+            //all of the elements are null
+            return null;
         } finally {
             releaseBindingContext(shouldReleaseThreadLocal);
         }
     }
+    
+    /**
+     * Bind the business objects of the given sources advancing one iterator 
+     * per source, so the cost is linear for any kind of list. The first not 
+     * null source decides the amount of DTOs.
+     * @param sizeHint the expected amount of DTOs or -1 if unknown.
+     */
+    private <T> List<T> bindZipped(Class<T> dtoClass, Iterable[] sources, int sizeHint) {
+        
+        Iterator[] iterators = new Iterator[sources.length];
+        Iterator reference = null;
+        
+        for (int j = 0; j < sources.length; j++) {
+            if (sources[j] != null) {
+                iterators[j] = sources[j].iterator();
+                if (reference == null) {
+                    reference = iterators[j];
+                }
+            }
+        }
+        
+        //a single collection is bound in one batch, the plan is looked up once.
+        if (sources.length == 1 && sources[0] instanceof Collection) {
+            return implementationDelegate.bindBatch(currentMetadata(), dtoClass, (Collection) sources[0]);
+        }
+        
+        List<T> ret = (sizeHint < 0) ? new ArrayList<T>() : new ArrayList<T>(sizeHint);
+        
+        //this will apply repeatedly the conversion results to a list.
+        Object[] paramsBuffer = new Object[sources.length];
+        
+        //repeatedly run the simple binding.
+        while (reference.hasNext()) {
+            for (int j = 0; j < iterators.length; j++) {
+                paramsBuffer[j] = iterators[j].next();
+            }
+            
+            T result = bindFromBusinessObject(dtoClass, paramsBuffer);
+            ret.add(result);
+        }
+        
+        return ret;
+    }
+    
+    /**
+     * Copy the lists without random access, so they can be read by index.
+     */
+    private static List[] toRandomAccess(List[] lists) {
+        List[] ret = lists.clone();
+        
+        for (int i = 0; i < ret.length; i++) {
+            if (ret[i] != null && !(ret[i] instanceof RandomAccess)) {
+                ret[i] = new ArrayList(ret[i]);
+            }
+        }
+        
+        return ret;
+    }
 
     @Override
     public <T> T extractFromDto(Class<T> businessObjectClass, Object dto) {
-        return implementationDelegate.extractFromDto(metadata, businessObjectClass, dto);
+        return implementationDelegate.extractFromDto(currentMetadata(), businessObjectClass, dto);
     }
 
     @Override
@@ -149,6 +303,11 @@ public class DTOBinderBean implements DTOBinder {
 
             R ret = BeanClassUtils.createCollectionInstance(businessObjectsCollection.getClass());
 
+            if (shouldReleaseThreadLocal && isParallel(businessObjectsCollection.size())) {
+                ret.addAll(bindInParallel(dtoClass, new List[]{new ArrayList(businessObjectsCollection)}, businessObjectsCollection.size()));
+                return ret;
+            }
+            
             for (Object object : businessObjectsCollection) {
                 T result = bindFromBusinessObject(dtoClass, object);
                 ret.add(result);
@@ -161,19 +320,184 @@ public class DTOBinderBean implements DTOBinder {
 
     }
 
+    @Override
+    public <T> Iterator<T> bindIterator(Class<T> dtoClass, Iterator<?> businessObjects) {
+        
+        if (businessObjects == null) {
+            return null;
+        }
+        
+        return new BindingIterator<T>(this, dtoClass, businessObjects, lazyBindingWindow);
+    }
+
+    @Override
+    public <T> Iterable<T> bindIterable(final Class<T> dtoClass, final Iterable<?> businessObjects) {
+        
+        if (businessObjects == null) {
+            return null;
+        }
+        
+        return new Iterable<T>() {
+            @Override
+            public Iterator<T> iterator() {
+                return bindIterator(dtoClass, businessObjects.iterator());
+            }
+        };
+    }
+
+    @Override
+    public <T> Future<T> bindAsync(Executor executor, final Class<T> dtoClass, Object... businessObjects) {
+        
+        //the caller may reuse the array.
+        final Object[] sources = businessObjects.clone();
+        
+        return submit(executor, new Callable<T>() {
+            @Override
+            public T call() {
+                return bindFromBusinessObject(dtoClass, sources);
+            }
+        });
+    }
+
+    @Override
+    public <T> Future<List<T>> bindListAsync(Executor executor, final Class<T> dtoClass, List... businessObjectsLists) {
+        
+        final List[] sources = businessObjectsLists.clone();
+        
+        return submit(executor, new Callable<List<T>>() {
+            @Override
+            public List<T> call() {
+                return bindFromBusinessObjectList(dtoClass, sources);
+            }
+        });
+    }
+
     @Override
     public <T extends PropertyValueMerger> T getPropertyValueMerger(Class<T> mergerClass) {
         return implementationDelegate.getMergerManager().getPropertyValueMerger(mergerClass);
     }
     
+    /**
+     * Check if the given amount of business objects should be bound in parallel.
+     */
+    private boolean isParallel(int size) {
+        return parallelExecutor != null && size >= parallelThreshold && size > 1;
+    }
+    
+    /**
+     * Bind the business objects of the lists on the parallel executor, the 
+     * result keeps the order of the lists.
+     */
+    private <T> List<T> bindInParallel(final Class<T> dtoClass, final List[] businessObjectsLists, int size) {
+        
+        Object[] results = ParallelBulkBinding.bind(this, parallelExecutor, size, new ParallelBulkBinding.ElementBinder() {
+            @Override
+            public Object bind(int index) {
+                Object[] params = new Object[businessObjectsLists.length];
+                for (int j = 0; j < businessObjectsLists.length; j++) {
+                    params[j] = businessObjectsLists[j].get(index);
+                }
+                return bindFromBusinessObject(dtoClass, params);
+            }
+        });
+        
+        List<T> ret = new ArrayList<T>(results.length);
+        for (Object result : results) {
+            ret.add((T) result);
+        }
+        
+        return ret;
+    }
+    
+    /**
+     * Bind the business objects on the given binding context, restoring the 
+     * context of the current thread afterwards.
+     */
+    <T> T bindInContext(BindingContext context, Class<T> dtoClass, Object[] businessObjects) {
+        BindingContext previous = swapBindingContext(context);
+        try {
+            return bindFromBusinessObject(dtoClass, businessObjects);
+        } finally {
+            swapBindingContext(previous);
+        }
+    }
+    
+    /**
+     * Create a binding context, shared between threads if cascades are bound
+     * concurrently.
+     */
+    BindingContext newBindingContext() {
+        BindingContext ret = (implementationDelegate.getCascadeExecutor() == null) 
+                ? new BindingContext() 
+                : new BindingContext.Shared();
+        ret.setMetadata(metadata);
+        return ret;
+    }
+    
+    /**
+     * The metadata of the binding in progress on the current thread, or the
+     * current metadata of the binder if there is none.
+     */
+    MetadataRegistry currentMetadata() {
+        BindingContext context = bindingContext.get();
+        MetadataRegistry ret = (context == null) ? null : context.getMetadata();
+        return (ret == null) ? metadata : ret;
+    }
+    
+    /**
+     * Drop the compiled binding plans, they are compiled again on next use.
+     */
+    void clearBindingPlans() {
+        metadata.clearPlans();
+    }
+    
+    /**
+     * Replace the binding context of the current thread.
+     * @param context the new context, null to remove it.
+     * @return the previous context, or null if there was none.
+     */
+    BindingContext swapBindingContext(BindingContext context) {
+        BindingContext previous = bindingContext.get();
+        if (context == null) {
+            bindingContext.remove();
+        } else {
+            bindingContext.set(context);
+        }
+        return previous;
+    }
+    
+    /**
+     * Run the binding on the executor, the binding context is created now and
+     * moves to the thread running the task.
+     */
+    private <T> Future<T> submit(Executor executor, final Callable<T> binding) {
+        
+        final BindingContext context = newBindingContext();
+        
+        FutureTask<T> ret = new FutureTask<T>(new Callable<T>() {
+            @Override
+            public T call() throws Exception {
+                BindingContext previous = swapBindingContext(context);
+                try {
+                    return binding.call();
+                } finally {
+                    swapBindingContext(previous);
+                }
+            }
+        });
+        
+        executor.execute(ret);
+        return ret;
+    }
+    
     /**
      * Initializes the thread local and keeps track if it needs to be released.
      * @return true if this method created the context, false if not.
      */
-    private boolean initBindingContextIfNecessary() {
-        HashMap context = bindingContext.get();
+    boolean initBindingContextIfNecessary() {
+        BindingContext context = bindingContext.get();
         if (context == null) {
-            bindingContext.set(new HashMap());
+            bindingContext.set(newBindingContext());
             return true;
         }
 
@@ -184,7 +508,7 @@ public class DTOBinderBean implements DTOBinder {
      * Releases the binding context if necessary
      * @param shouldRelease whether or not is necessary to release the binding context.
      */
-    private void releaseBindingContext(boolean shouldRelease) {
+    void releaseBindingContext(boolean shouldRelease) {
         if (!shouldRelease) {
             return;
         }
@@ -192,12 +516,163 @@ public class DTOBinderBean implements DTOBinder {
     }
 
     //GETTER + SETTER IMPLEMENTATION
+    /**
+     * Get the metadata of the DTO classes this binder knows about. Since 1.5 
+     * the returned map is a copy, modifying it has no effect on the binder.
+     * @return a copy of the registered metadata.
+     * @deprecated changes to the returned map are ignored, use 
+     * {@link #getRegisteredMetadata() } to read the metadata and 
+     * {@link #setMetadata(java.util.HashMap) } to replace it.
+     */
+    @Deprecated
     public HashMap<Class, BeanMetadata> getMetadata() {
-        return metadata;
+        return metadata.copy();
+    }
+
+    /**
+     * Get the metadata of the DTO classes this binder knows about.
+     * @return a read only view of the metadata registered so far.
+     * @since 1.5
+     */
+    public Map<Class, BeanMetadata> getRegisteredMetadata() {
+        return metadata.view();
     }
 
+    /**
+     * Replace the metadata of the DTO classes this binder knows about.
+     * @param metadata the new metadata, the map is copied.
+     */
     public final void setMetadata(HashMap<Class, BeanMetadata> metadata) {
-        this.metadata = metadata;
+        this.metadata = new MetadataRegistry(metadata, this.metadata.getInspector());
+    }
+
+    /**
+     * Write the metadata of the DTO classes this binder knows about as a 
+     * compact binary snapshot, so other binders can skip inspecting them. 
+     * The snapshot is usually exported at build time or after a first run
+     * which has bound every DTO.
+     * @param out the stream to write to, it's not closed.
+     * @return the amount of DTO classes written.
+     * @throws IOException if writing fails.
+     * @since 1.5
+     */
+    public int exportMetadata(OutputStream out) throws IOException {
+        return MetadataSnapshot.write(metadata.copy(), out);
+    }
+
+    /**
+     * Register the metadata of a snapshot written by {@link #exportMetadata(java.io.OutputStream) }.
+     * The entries of classes which changed since the snapshot was written are
+     * skipped, those classes are inspected as usual on first use. Classes are
+     * resolved with the context class loader of the current thread.
+     * @param in the stream to read from, it's not closed.
+     * @return the amount of DTO classes registered.
+     * @throws IOException if reading fails or the stream is not a snapshot.
+     * @since 1.5
+     */
+    public int importMetadata(InputStream in) throws IOException {
+        ClassLoader classLoader = Thread.currentThread().getContextClassLoader();
+        
+        if (classLoader == null) {
+            classLoader = DTOBinderBean.class.getClassLoader();
+        }
+        
+        Map<Class, BeanMetadata> snapshot = MetadataSnapshot.read(in, classLoader);
+        metadata.registerAll(snapshot);
+        return snapshot.size();
+    }
+
+    /**
+     * Inspect the given DTO classes and the DTOs cascaded from them and
+     * compile their binding plans, so the first bindings don't pay for it.
+     * The classes are warmed up concurrently on the parallel executor, or on a
+     * temporary pool with a thread per processor if there is none. Classes 
+     * which fail to warm up are logged and left out of the result.
+     * @param dtoClasses the DTO classes.
+     * @return the nanoseconds spent on each warmed up class.
+     * @since 1.5
+     */
+    public Map<Class, Long> warmUp(Collection<Class<?>> dtoClasses) {
+        return warmUp(metadata, dtoClasses);
+    }
+    
+    private Map<Class, Long> warmUp(MetadataRegistry registry, Collection<Class<?>> dtoClasses) {
+        if (parallelExecutor != null) {
+            return WarmUp.run(implementationDelegate, registry, parallelExecutor, dtoClasses);
+        }
+        
+        ExecutorService pool = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors());
+        try {
+            return WarmUp.run(implementationDelegate, registry, pool, dtoClasses);
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * Inspect the given DTO classes and the DTOs cascaded from them and
+     * compile their binding plans on the given executor.
+     * @param executor the executor to warm up the classes on.
+     * @param dtoClasses the DTO classes.
+     * @return the nanoseconds spent on each warmed up class.
+     * @see #warmUp(java.util.Collection) 
+     * @since 1.5
+     */
+    public Map<Class, Long> warmUp(Executor executor, Collection<Class<?>> dtoClasses) {
+        return WarmUp.run(implementationDelegate, metadata, executor, dtoClasses);
+    }
+
+    /**
+     * Replace the mappings of this binder with the ones of the given XML 
+     * configuration. The new metadata and the binding plans of the configured
+     * DTOs and their cascades are built on the calling thread, and the parallel 
+     * executor if any, and then published at once. Bindings in progress finish 
+     * with the previous mappings and no binding waits for the new ones to be 
+     * built. If the configuration can't be read the current mappings are kept.
+     * @param xmlFile an input stream for the XML config file, it's not closed.
+     * @return the amount of DTO classes configured on the file.
+     * @see XMLMappingsWatcher
+     * @since 1.5
+     */
+    public int reloadMappings(InputStream xmlFile) {
+        XMLBeanInspector xmlInspector = new XMLBeanInspector(xmlFile);
+        
+        HashMap<Class, BeanMetadata> reloadedMetadata = (parallelExecutor == null)
+                ? xmlInspector.buildMetadata()
+                : xmlInspector.buildMetadata(parallelExecutor);
+        
+        MetadataRegistry reloaded = new MetadataRegistry(reloadedMetadata, xmlInspector);
+        
+        List<Class<?>> dtoClasses = new ArrayList<Class<?>>(reloadedMetadata.size());
+        for (Class dtoClass : reloadedMetadata.keySet()) {
+            dtoClasses.add(dtoClass);
+        }
+        warmUp(reloaded, dtoClasses);
+        
+        metadata = reloaded;
+        implementationDelegate.setInspector(xmlInspector);
+        
+        return reloadedMetadata.size();
+    }
+
+    /**
+     * Warm up every concrete public class found in the given package and its
+     * sub packages, on the class path of the context class loader of the 
+     * current thread.
+     * @param packageName the name of the package, for example "com.acme.dto".
+     * @return the nanoseconds spent on each warmed up class.
+     * @throws IOException if the class path can't be read.
+     * @see #warmUp(java.util.Collection) 
+     * @since 1.5
+     */
+    public Map<Class, Long> warmUpPackage(String packageName) throws IOException {
+        ClassLoader classLoader = Thread.currentThread().getContextClassLoader();
+        
+        if (classLoader == null) {
+            classLoader = DTOBinderBean.class.getClassLoader();
+        }
+        
+        return warmUp(ClassPathScanner.findClasses(packageName, classLoader));
     }
 
     public BeanModifier getBeanModifier() {
@@ -208,6 +683,255 @@ public class DTOBinderBean implements DTOBinder {
         this.implementationDelegate.setModifier(modifier);
     }
 
+    /**
+     * Check if binder classes are generated at runtime for the DTOs.
+     * @return true if generated binders are enabled.
+     * @since 1.5
+     */
+    public boolean isGeneratedBindersEnabled() {
+        return this.implementationDelegate.isGeneratedBindersEnabled();
+    }
+
+    /**
+     * Enable or disable the generation of binder classes at runtime. When 
+     * enabled, the first bind of a DTO type starts generating and compiling, 
+     * on a background thread, a class that calls the getters, setters and 
+     * constructors directly. The DTO type is bound through reflection until 
+     * the class is ready. This requires the system java compiler and public 
+     * DTOs and source beans, whenever this is not possible the regular 
+     * reflective binding is used.
+     * @param enabled true to enable the generated binders.
+     * @since 1.5
+     */
+    public void setGeneratedBindersEnabled(boolean enabled) {
+        this.implementationDelegate.setGeneratedBindersEnabled(enabled);
+    }
+
+    /**
+     * Check if the binder keeps track of the DTOs which may be part of a cycle.
+     * @return true if cycle detection is enabled.
+     * @since 1.5
+     */
+    public boolean isCycleDetectionEnabled() {
+        return this.implementationDelegate.isCycleDetectionEnabled();
+    }
+
+    /**
+     * Enable or disable cycle detection on cascades. By default the binder 
+     * keeps track of the DTOs whose cascades may bind the same DTO type again,
+     * so the same business objects are not bound twice on a single call. 
+     * Disable it only when none of the bound object graphs has cycles, DTOs 
+     * with a {@link org.jdto.annotation.DTOIdentifier} are tracked anyway.
+     * @param enabled false to stop tracking the bound DTOs.
+     * @since 1.5
+     */
+    public void setCycleDetectionEnabled(boolean enabled) {
+        this.implementationDelegate.setCycleDetectionEnabled(enabled);
+    }
+
+    /**
+     * Get the executor used to bind large lists and collections in parallel.
+     * @return the executor or null if bulk binding is sequential.
+     * @since 1.5
+     */
+    public Executor getParallelExecutor() {
+        return parallelExecutor;
+    }
+
+    /**
+     * Set the executor used to bind large lists and collections in parallel.
+     * When set, lists and collections with at least {@link #getParallelThreshold() }
+     * business objects are split in chunks which are bound concurrently on the 
+     * executor and on the calling thread, the result keeps the order of the 
+     * input. Each worker binds its chunks on its own binding context, so the
+     * same business object may be bound into different DTOs by different 
+     * workers. Cascaded lists are always bound on the thread of their parent.
+     * @param executor the executor or null to bind sequentially.
+     * @since 1.5
+     */
+    public void setParallelExecutor(Executor executor) {
+        this.parallelExecutor = executor;
+    }
+
+    /**
+     * Get the minimum amount of business objects to bind in parallel.
+     * @return the parallel threshold.
+     * @since 1.5
+     */
+    public int getParallelThreshold() {
+        return parallelThreshold;
+    }
+
+    /**
+     * Set the minimum amount of business objects to bind in parallel, smaller
+     * lists are not worth the coordination. The default is 
+     * {@link #DEFAULT_PARALLEL_THRESHOLD}.
+     * @param parallelThreshold the parallel threshold.
+     * @since 1.5
+     */
+    public void setParallelThreshold(int parallelThreshold) {
+        this.parallelThreshold = parallelThreshold;
+    }
+
+    /**
+     * Pool up to the given amount of released instances of a DTO class per
+     * thread. Once a DTO has been released with {@link #release(java.lang.Object) }
+     * its instance is reset and handed out again by the next binding of the same
+     * class on the same thread, instead of creating a new one. Immutable DTOs
+     * can't be pooled.
+     * @param dtoClass the DTO class.
+     * @param capacity the maximum amount of pooled instances per thread, zero 
+     * or less to stop pooling the class.
+     * @since 1.5
+     */
+    public void setPoolCapacity(Class<?> dtoClass, int capacity) {
+        this.implementationDelegate.getInstancePool().setCapacity(dtoClass, capacity);
+    }
+
+    /**
+     * Get the maximum amount of pooled instances of a DTO class per thread.
+     * @param dtoClass the DTO class.
+     * @return the pool capacity, zero if the class is not pooled.
+     * @since 1.5
+     */
+    public int getPoolCapacity(Class<?> dtoClass) {
+        return this.implementationDelegate.getInstancePool().getCapacity(dtoClass);
+    }
+
+    /**
+     * Return a DTO to the pool of its class. Every bound property is restored
+     * to its default value, null or zero for primitives, and the instance may
+     * be returned by the following bindings, so the caller must not use the 
+     * DTO after releasing it.
+     * @param dto the DTO to release.
+     * @return true if the DTO was pooled, false if its class is not pooled,
+     * the pool is full or the DTO is already pooled, in which case the DTO is
+     * not modified.
+     * @since 1.5
+     */
+    public boolean release(Object dto) {
+        return this.implementationDelegate.release(currentMetadata(), dto);
+    }
+
+    /**
+     * Get the amount of bindings of pooled DTO classes which reused a 
+     * released instance.
+     * @return the pool hits.
+     * @since 1.5
+     */
+    public long getPoolHits() {
+        return this.implementationDelegate.getInstancePool().getHits();
+    }
+
+    /**
+     * Get the amount of bindings of pooled DTO classes which had to create a
+     * new instance.
+     * @return the pool misses.
+     * @since 1.5
+     */
+    public long getPoolMisses() {
+        return this.implementationDelegate.getInstancePool().getMisses();
+    }
+
+    /**
+     * Get the executor used to bind cascaded fields concurrently.
+     * @return the executor or null if cascades are bound sequentially.
+     * @since 1.5
+     */
+    public Executor getCascadeExecutor() {
+        return this.implementationDelegate.getCascadeExecutor();
+    }
+
+    /**
+     * Set the executor used to bind cascaded fields concurrently. When set,
+     * the cascaded fields of a DTO with more than one cascade and the elements
+     * of cascaded collections are bound as tasks on the executor, which is 
+     * useful when reading them blocks, for example on lazy loading. The 
+     * binding thread runs the tasks which have not been started yet and waits 
+     * for all of them before the after properties set lifecycle phase, so
+     * bounded executors never starve. <br />
+     * 
+     * The tasks share the binding context of the DTO, so cycles are still 
+     * resolved, but the same business object bound at the same time by two
+     * tasks may produce two DTOs. Generated binders bind cascades sequentially.
+     * @param executor the executor or null to bind cascades sequentially.
+     * @since 1.5
+     */
+    public void setCascadeExecutor(Executor executor) {
+        this.implementationDelegate.setCascadeExecutor(executor);
+    }
+
+    /**
+     * Get the listener receiving the binding timings.
+     * @return the listener or null if the binding is not measured.
+     * @since 1.5
+     */
+    public BindingListener getBindingListener() {
+        return this.implementationDelegate.getListener();
+    }
+
+    /**
+     * Set the listener receiving the time spent binding each DTO and reading,
+     * merging and cascading each of its fields, see 
+     * {@link org.jdto.metrics.BindingMetrics} for aggregating them. Nothing is
+     * measured while there is no listener. Generated and precompiled binders
+     * are not used while there is a listener, the DTOs are bound through 
+     * reflection instead.
+     * @param listener the listener or null to stop measuring.
+     * @since 1.5
+     */
+    public void setBindingListener(BindingListener listener) {
+        this.implementationDelegate.setListener(listener);
+    }
+
+    /**
+     * Get the amount of elements sharing a binding context on lazy binding.
+     * @return the lazy binding window.
+     * @since 1.5
+     */
+    public int getLazyBindingWindow() {
+        return lazyBindingWindow;
+    }
+
+    /**
+     * Set the amount of elements sharing a binding context on lazy binding. The
+     * iterators returned by {@link #bindIterator(java.lang.Class, java.util.Iterator) }
+     * start a new binding context every this many elements, so DTOs bound 
+     * earlier are not retained. The default is {@link #DEFAULT_LAZY_BINDING_WINDOW}.
+     * @param lazyBindingWindow the lazy binding window, at least 1.
+     * @since 1.5
+     */
+    public void setLazyBindingWindow(int lazyBindingWindow) {
+        if (lazyBindingWindow < 1) {
+            throw new IllegalArgumentException("The lazy binding window should be at least 1");
+        }
+        this.lazyBindingWindow = lazyBindingWindow;
+    }
+
+    /**
+     * Check if list bindings return lazily bound views.
+     * @return true if lazy lists are enabled.
+     * @since 1.5
+     */
+    public boolean isLazyListsEnabled() {
+        return lazyListsEnabled;
+    }
+
+    /**
+     * Enable or disable lazily bound lists. When enabled, 
+     * {@link #bindFromBusinessObjectList(java.lang.Class, java.util.List[]) }
+     * returns a read only random access view which binds each element the
+     * first time it is read and then keeps it, so elements which are never read
+     * are never bound. The view reads the source lists when the elements are 
+     * bound, so they should not change meanwhile. Cascaded lists are always 
+     * bound eagerly.
+     * @param lazyListsEnabled true to return lazily bound lists.
+     * @since 1.5
+     */
+    public void setLazyListsEnabled(boolean lazyListsEnabled) {
+        this.lazyListsEnabled = lazyListsEnabled;
+    }
+
     public PropertyValueMergerInstanceManager getMergerManager() {
         return this.implementationDelegate.getMergerManager();
     }
@@ -0,0 +1,193 @@
+/*
+ *    Copyright 2012 Juan Alberto López Cavallotti
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jdto.impl;
+
+import java.io.Serializable;
+import java.util.HashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import org.jdto.metrics.StripedCounter;
+
+/**
+ * Bounded pools of released DTO instances, kept per thread and per DTO class.
+ * Only the classes with a configured capacity are pooled. <br />
+ *
+ * Instances are reset before they are put on the pool, so the pool never
+ * retains the values of the previous binding.
+ *
+ * @since 1.5
+ */
+final class DTOInstancePool implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+    private final ConcurrentHashMap<Class, Integer> capacities = new ConcurrentHashMap<Class, Integer>();
+    private final StripedCounter hits = new StripedCounter();
+    private final StripedCounter misses = new StripedCounter();
+    private transient ThreadLocal<HashMap<Class, Stack>> pools = new ThreadLocal<HashMap<Class, Stack>>();
+
+    /**
+     * Take a pooled instance of the given class.
+     * @param dtoClass the DTO class.
+     * @return a reset instance or null if there is none.
+     */
+    Object acquire(Class dtoClass) {
+
+        if (capacities.isEmpty() || !capacities.containsKey(dtoClass)) {
+            return null;
+        }
+
+        Stack stack = findStack(dtoClass, false);
+        Object ret = (stack == null) ? null : stack.pop();
+
+        if (ret == null) {
+            misses.increment();
+        } else {
+            hits.increment();
+        }
+
+        return ret;
+    }
+
+    /**
+     * Check if the given DTO class is pooled.
+     */
+    boolean isPooled(Class dtoClass) {
+        return capacities.containsKey(dtoClass);
+    }
+
+    /**
+     * Check if the pool of the current thread would take the given instance,
+     * so it is only reset when it is going to be pooled.
+     * @param dto the DTO.
+     * @return true if the pool has room and the instance is not pooled yet.
+     */
+    boolean accepts(Object dto) {
+        Stack stack = findStack(dto.getClass(), true);
+        return stack != null && stack.accepts(dto);
+    }
+
+    /**
+     * Put an already reset instance on the pool of the current thread.
+     * @param dto the DTO.
+     * @return true if the instance was pooled, false if the pool is full or
+     * the instance was already on the pool.
+     */
+    boolean release(Object dto) {
+        Stack stack = findStack(dto.getClass(), true);
+        return stack != null && stack.push(dto);
+    }
+
+    private Stack findStack(Class dtoClass, boolean create) {
+        Integer capacity = capacities.get(dtoClass);
+
+        if (capacity == null) {
+            return null;
+        }
+
+        HashMap<Class, Stack> threadPools = pools.get();
+
+        if (threadPools == null) {
+            if (!create) {
+                return null;
+            }
+            threadPools = new HashMap<Class, Stack>();
+            pools.set(threadPools);
+        }
+
+        Stack ret = threadPools.get(dtoClass);
+
+        if (ret == null || ret.elements.length != capacity) {
+            if (!create) {
+                return ret;
+            }
+            ret = new Stack(capacity);
+            threadPools.put(dtoClass, ret);
+        }
+
+        return ret;
+    }
+
+    void setCapacity(Class dtoClass, int capacity) {
+        if (capacity <= 0) {
+            capacities.remove(dtoClass);
+        } else {
+            capacities.put(dtoClass, capacity);
+        }
+    }
+
+    int getCapacity(Class dtoClass) {
+        Integer ret = capacities.get(dtoClass);
+        return (ret == null) ? 0 : ret;
+    }
+
+    long getHits() {
+        return hits.sum();
+    }
+
+    long getMisses() {
+        return misses.sum();
+    }
+
+    private Object readResolve() {
+        pools = new ThreadLocal<HashMap<Class, Stack>>();
+        return this;
+    }
+
+    /**
+     * Bounded stack of instances.
+     */
+    private static final class Stack {
+
+        private final Object[] elements;
+        private int size;
+
+        Stack(int capacity) {
+            this.elements = new Object[capacity];
+        }
+
+        Object pop() {
+            if (size == 0) {
+                return null;
+            }
+            Object ret = elements[--size];
+            elements[size] = null;
+            return ret;
+        }
+
+        boolean accepts(Object element) {
+            if (size == elements.length) {
+                return false;
+            }
+
+            //releasing twice would hand out the same instance twice.
+            for (int i = 0; i < size; i++) {
+                if (elements[i] == element) {
+                    return false;
+                }
+            }
+
+            return true;
+        }
+
+        boolean push(Object element) {
+            if (!accepts(element)) {
+                return false;
+            }
+
+            elements[size++] = element;
+            return true;
+        }
+    }
+}
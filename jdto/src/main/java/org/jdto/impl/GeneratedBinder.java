@@ -0,0 +1,188 @@
+/*
+ *    Copyright 2012 Juan Alberto López Cavallotti
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jdto.impl;
+
+import org.jdto.MultiPropertyValueMerger;
+import org.jdto.SinglePropertyValueMerger;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * jDTO Binder INTERNAL API - DO NOT USE!! <br />
+ *
+ * Base class for the binder classes generated at runtime for a single DTO
+ * type. Generated subclasses call the getters, setters and constructors of the
+ * DTO and its source beans directly, every other part of the binding (mergers,
+ * cascades and value compatibility) is reached through the members of this
+ * class. <br />
+ *
+ * Generated code can only be used if the source beans are accepted by
+ * {@link #accepts(java.lang.Object[]) }, otherwise the reflective binding path
+ * must be used.
+ *
+ * @since 1.5
+ */
+public abstract class GeneratedBinder {
+
+    private static final Logger logger = LoggerFactory.getLogger(GeneratedBinder.class);
+
+    /**
+     * The single property value mergers by field and source index.
+     */
+    protected SinglePropertyValueMerger[][] sourceMergers;
+
+    /**
+     * The parameters for the single property value mergers by field and source index.
+     */
+    protected String[][][] sourceMergerParams;
+
+    /**
+     * The multiple property value mergers by field index.
+     */
+    protected MultiPropertyValueMerger[] mergers;
+
+    /**
+     * The parameters of the multiple property value mergers by field index.
+     */
+    protected String[][] mergerParams;
+
+    private BindingPlan plan;
+    private SimpleBinderDelegate delegate;
+
+    /**
+     * Wire the generated binder with the plan it has been generated for.
+     * @param plan
+     * @param delegate
+     */
+    final void init(BindingPlan plan, SimpleBinderDelegate delegate) {
+        this.plan = plan;
+        this.delegate = delegate;
+
+        BindingPlan.FieldStep[] steps = plan.getSteps();
+
+        sourceMergers = new SinglePropertyValueMerger[steps.length][];
+        sourceMergerParams = new String[steps.length][][];
+        mergers = new MultiPropertyValueMerger[steps.length];
+        mergerParams = new String[steps.length][];
+
+        for (int i = 0; i < steps.length; i++) {
+            BindingPlan.FieldStep step = steps[i];
+            sourceMergers[i] = new SinglePropertyValueMerger[step.sources.length];
+            sourceMergerParams[i] = new String[step.sources.length][];
+
+            for (int j = 0; j < step.sources.length; j++) {
+                sourceMergers[i][j] = step.sources[j].merger;
+                sourceMergerParams[i][j] = step.sources[j].mergerParams;
+            }
+
+            mergers[i] = step.merger;
+            mergerParams[i] = step.mergerParams;
+        }
+    }
+
+    /**
+     * Check if the generated code can be used to bind the given business objects.
+     * @param businessObjects the source business objects.
+     * @return true if the types of the business objects are the expected ones.
+     */
+    public abstract boolean accepts(Object[] businessObjects);
+
+    /**
+     * Create a new instance of a mutable DTO.
+     * @return the new DTO instance.
+     */
+    public abstract Object newInstance();
+
+    /**
+     * Populate the properties of a mutable DTO.
+     * @param target the DTO instance.
+     * @param businessObjects the source business objects.
+     */
+    public abstract void populate(Object target, Object[] businessObjects);
+
+    /**
+     * Create and populate an immutable DTO by calling its constructor.
+     * @param businessObjects the source business objects.
+     * @return the new DTO instance.
+     */
+    public abstract Object construct(Object[] businessObjects);
+
+    /**
+     * Apply the cascade logic for the given field.
+     * @param field the index of the field step.
+     * @param values the source values.
+     * @return the cascaded value.
+     */
+    protected final Object cascade(int field, Object[] values) {
+        return delegate.applyCascadeLogic(values, plan.getSteps()[field].fieldMetadata);
+    }
+
+    /**
+     * Convert a value so it can be written on a property of the given type,
+     * the same way {@link CoreBeanModifier} does.
+     * @param type the type of the property.
+     * @param value the value to convert.
+     * @return the converted value.
+     */
+    protected static Object convert(Class type, Object value) {
+        if (type.isArray()) {
+            value = CoreBeanModifier.copyToProperArray(type, value);
+        }
+        return ValueConversionHelper.applyCompatibilityLogic(type, value);
+    }
+
+    /**
+     * Convert a value so it can be passed as a constructor argument of the
+     * given type.
+     * @param type the type of the argument.
+     * @param value the value to convert.
+     * @return the converted value.
+     */
+    protected static Object compatible(Class type, Object value) {
+        return ValueConversionHelper.applyCompatibilityLogic(type, value);
+    }
+
+    /**
+     * Handle a failure while reading a source property.
+     * @param propertyPath the property path that was being read.
+     * @param ex the cause.
+     * @return always null.
+     */
+    protected static Object readFailed(String propertyPath, Throwable ex) {
+        logger.error("Got unmanaged exception while trying to read property path " + propertyPath, ex);
+        return null;
+    }
+
+    /**
+     * Handle a failure while writing a target property.
+     * @param propertyPath the property that was being written.
+     * @param ex the cause.
+     */
+    protected static void writeFailed(String propertyPath, Throwable ex) {
+        logger.error("Got unmanaged exception while trying to write on property path " + propertyPath, ex);
+    }
+
+    /**
+     * Handle a failure while calling the constructor of the DTO.
+     * @param type the type of the DTO.
+     * @param ex the cause.
+     * @return an exception to be thrown.
+     */
+    protected static RuntimeException constructionFailed(Class type, Throwable ex) {
+        logger.error("Could not create bean instance of class" + type.toString(), ex);
+        return new RuntimeException(ex);
+    }
+}
@@ -0,0 +1,203 @@
+/*
+ *    Copyright 2012 Juan Alberto López Cavallotti
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jdto.impl;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.StringWriter;
+import java.net.URI;
+import java.security.CodeSource;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import javax.tools.FileObject;
+import javax.tools.ForwardingJavaFileManager;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileManager;
+import javax.tools.JavaFileObject;
+import javax.tools.SimpleJavaFileObject;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.ToolProvider;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Compiles generated sources in memory with the system java compiler and
+ * loads them into a child class loader of the class loader of the class the
+ * code has been generated for. <br />
+ *
+ * The system java compiler is only available when running on a JDK, on any
+ * other runtime no class will ever be compiled.
+ *
+ * @since 1.5
+ */
+class GeneratedClassCompiler {
+
+    private static final Logger logger = LoggerFactory.getLogger(GeneratedClassCompiler.class);
+
+    /**
+     * Compile the given source and load the resulting classes.
+     * @param className the fully qualified name of the top level class.
+     * @param source the source of the compilation unit.
+     * @param hostClass the class the generated code is for, its class loader
+     * will be the parent of the generated classes.
+     * @param referencedClasses other classes the generated code refers to.
+     * @return the class loader of the compiled classes or null if the
+     * compilation failed.
+     */
+    static ClassLoader compile(final String className, final String source, Class hostClass, List<Class> referencedClasses) {
+
+        JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+
+        if (compiler == null) {
+            logger.debug("No system java compiler available");
+            return null;
+        }
+
+        StandardJavaFileManager standardManager = compiler.getStandardFileManager(null, null, null);
+        final Map<String, ByteArrayOutputStream> classes = new HashMap<String, ByteArrayOutputStream>();
+
+        JavaFileManager fileManager = new ForwardingJavaFileManager<StandardJavaFileManager>(standardManager) {
+            @Override
+            public JavaFileObject getJavaFileForOutput(Location location, final String name, JavaFileObject.Kind kind, FileObject sibling) {
+                return new SimpleJavaFileObject(URI.create("mem:///" + name.replace('.', '/') + kind.extension), kind) {
+                    @Override
+                    public OutputStream openOutputStream() {
+                        ByteArrayOutputStream ret = new ByteArrayOutputStream();
+                        classes.put(name, ret);
+                        return ret;
+                    }
+                };
+            }
+        };
+
+        JavaFileObject sourceFile = new SimpleJavaFileObject(URI.create("string:///" + className.replace('.', '/') + JavaFileObject.Kind.SOURCE.extension), JavaFileObject.Kind.SOURCE) {
+            @Override
+            public CharSequence getCharContent(boolean ignoreEncodingErrors) {
+                return source;
+            }
+        };
+
+        List<String> options = Arrays.asList("-classpath", buildClasspath(hostClass, referencedClasses), "-g:source,lines", "-nowarn");
+
+        StringWriter errors = new StringWriter();
+        Boolean success;
+        
+        try {
+            success = compiler.getTask(errors, fileManager, null, options, null, Collections.singletonList(sourceFile)).call();
+        } finally {
+            close(fileManager);
+        }
+
+        if (!Boolean.TRUE.equals(success)) {
+            logger.debug("Failed to compile generated class " + className + ":\n" + errors + "\n" + source);
+            return null;
+        }
+
+        ClassLoader parent = (hostClass.getClassLoader() == null) ? GeneratedClassCompiler.class.getClassLoader() : hostClass.getClassLoader();
+
+        return new GeneratedClassLoader(parent, classes);
+    }
+
+    /**
+     * Release the resources held by the file manager, such as open jar files.
+     */
+    private static void close(JavaFileManager fileManager) {
+        try {
+            fileManager.close();
+        } catch (IOException ex) {
+            logger.debug("Could not close the file manager", ex);
+        }
+    }
+
+    /**
+     * The classpath of the application plus the locations the host class, the
+     * referenced classes and jDTO Binder were loaded from.
+     */
+    private static String buildClasspath(Class hostClass, List<Class> referencedClasses) {
+        Set<String> entries = new LinkedHashSet<String>();
+
+        List<Class> classes = new ArrayList<Class>();
+        classes.add(GeneratedClassCompiler.class);
+        classes.add(hostClass);
+        classes.addAll(referencedClasses);
+
+        for (Class cls : classes) {
+            String location = findLocation(cls);
+            if (location != null) {
+                entries.add(location);
+            }
+        }
+
+        String classpath = System.getProperty("java.class.path");
+        if (classpath != null) {
+            entries.addAll(Arrays.asList(classpath.split(File.pathSeparator)));
+        }
+
+        StringBuilder ret = new StringBuilder();
+        for (String entry : entries) {
+            if (ret.length() > 0) {
+                ret.append(File.pathSeparator);
+            }
+            ret.append(entry);
+        }
+        return ret.toString();
+    }
+
+    private static String findLocation(Class cls) {
+        try {
+            CodeSource codeSource = cls.getProtectionDomain().getCodeSource();
+            if (codeSource == null || codeSource.getLocation() == null) {
+                return null;
+            }
+            return new File(codeSource.getLocation().toURI()).getPath();
+        } catch (Exception ex) {
+            return null;
+        }
+    }
+
+    /**
+     * Class loader for the compiled classes.
+     */
+    private static class GeneratedClassLoader extends ClassLoader {
+
+        private final Map<String, ByteArrayOutputStream> classes;
+
+        GeneratedClassLoader(ClassLoader parent, Map<String, ByteArrayOutputStream> classes) {
+            super(parent);
+            this.classes = classes;
+        }
+
+        @Override
+        protected Class<?> findClass(String name) throws ClassNotFoundException {
+            ByteArrayOutputStream bytes = classes.get(name);
+
+            if (bytes == null) {
+                return super.findClass(name);
+            }
+
+            byte[] b = bytes.toByteArray();
+            return defineClass(name, b, 0, b.length);
+        }
+    }
+}
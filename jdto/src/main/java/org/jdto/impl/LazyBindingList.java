@@ -0,0 +1,91 @@
+/*
+ *    Copyright 2012 Juan Alberto López Cavallotti
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jdto.impl;
+
+import java.io.Serializable;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.RandomAccess;
+
+/**
+ * Read only list view which binds each element the first time it is read. The
+ * source lists are zipped by index, as on the eager list binding, and all of
+ * the elements share the same binding context. <br />
+ *
+ * Reads are synchronized so the view can be shared between threads. When the
+ * view is serialized all of its elements are bound and an array list is
+ * written instead.
+ *
+ * @since 1.5
+ */
+final class LazyBindingList<T> extends AbstractList<T> implements RandomAccess, Serializable {
+
+    private static final long serialVersionUID = 1L;
+    private final DTOBinderBean binder;
+    private final Class<T> dtoClass;
+    private final List[] businessObjectsLists;
+    private final Object[] dtos;
+    private final boolean[] bound;
+    private BindingContext context;
+
+    LazyBindingList(DTOBinderBean binder, Class<T> dtoClass, List[] businessObjectsLists, int size) {
+        this.binder = binder;
+        this.dtoClass = dtoClass;
+        this.businessObjectsLists = businessObjectsLists;
+        this.dtos = new Object[size];
+        this.bound = new boolean[size];
+    }
+
+    @Override
+    public synchronized T get(int index) {
+
+        if (index < 0 || index >= dtos.length) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + dtos.length);
+        }
+
+        if (!bound[index]) {
+            dtos[index] = bind(index);
+            bound[index] = true;
+        }
+
+        return (T) dtos[index];
+    }
+
+    @Override
+    public int size() {
+        return dtos.length;
+    }
+
+    private Object bind(int index) {
+
+        if (context == null) {
+            context = binder.newBindingContext();
+        }
+
+        Object[] params = new Object[businessObjectsLists.length];
+
+        for (int j = 0; j < businessObjectsLists.length; j++) {
+            params[j] = businessObjectsLists[j].get(index);
+        }
+
+        return binder.bindInContext(context, dtoClass, params);
+    }
+
+    private Object writeReplace() {
+        return new ArrayList<T>(this);
+    }
+}
@@ -0,0 +1,250 @@
+/*
+ *    Copyright 2012 Juan Alberto López Cavallotti
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jdto.impl;
+
+import java.io.Serializable;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+
+/**
+ * Thread safe registry of the bean metadata known by a binder. <br />
+ *
+ * The registered metadata is kept on an immutable map which is replaced as a
+ * whole every time a new class is registered, so looking up a known class is
+ * a single volatile read and never writes anything. Each unknown class is
+ * inspected exactly once, other threads asking for the same class wait for
+ * the inspection in progress. <br />
+ *
+ * The registry also caches the binding plans compiled out of its metadata, so
+ * a registry and its plans can be replaced on a binder as a single unit.
+ *
+ * @since 1.5
+ */
+final class MetadataRegistry implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * The registered metadata, this map is never modified once published.
+     */
+    private volatile HashMap<Class, BeanMetadata> snapshot;
+
+    /**
+     * Inspections in progress by class.
+     */
+    private final transient ConcurrentHashMap<Class, FutureTask<BeanMetadata>> inFlight;
+
+    /**
+     * The binding plans compiled out of the registered metadata, by DTO class.
+     */
+    private final transient ConcurrentHashMap<Class, BindingPlan> plans;
+
+    /**
+     * The inspector for the classes missing on this registry, null to use the
+     * one of the binder.
+     */
+    private final AbstractBeanInspector inspector;
+
+    MetadataRegistry() {
+        this(null);
+    }
+
+    MetadataRegistry(Map<Class, BeanMetadata> metadata) {
+        this(metadata, null);
+    }
+
+    MetadataRegistry(Map<Class, BeanMetadata> metadata, AbstractBeanInspector inspector) {
+        this.inFlight = new ConcurrentHashMap<Class, FutureTask<BeanMetadata>>();
+        this.plans = new ConcurrentHashMap<Class, BindingPlan>();
+        this.inspector = inspector;
+        replaceAll(metadata);
+    }
+
+    /**
+     * Find the registered metadata of a class.
+     * @param type the class.
+     * @return the metadata or null if the class has not been registered.
+     */
+    BeanMetadata get(Class type) {
+        return snapshot.get(type);
+    }
+
+    /**
+     * Find the metadata of a class, inspecting and registering it if this is
+     * the first time the class is requested.
+     * @param type the class.
+     * @param inspector the inspector to build the metadata with.
+     * @return the metadata of the class.
+     */
+    BeanMetadata getOrInspect(final Class type, final AbstractBeanInspector inspector) {
+
+        BeanMetadata ret = snapshot.get(type);
+
+        if (ret != null) {
+            return ret;
+        }
+
+        FutureTask<BeanMetadata> task = new FutureTask<BeanMetadata>(new Callable<BeanMetadata>() {
+            @Override
+            public BeanMetadata call() {
+                //the class may have been registered after the first check.
+                BeanMetadata registered = snapshot.get(type);
+                return (registered != null) ? registered : inspector.inspectBean(type);
+            }
+        });
+
+        FutureTask<BeanMetadata> existing = inFlight.putIfAbsent(type, task);
+
+        if (existing != null) {
+            return await(existing);
+        }
+
+        try {
+            //the task always runs, other threads may be waiting for it.
+            task.run();
+            ret = await(task);
+            
+            if (snapshot.get(type) != ret) {
+                register(type, ret);
+            }
+            
+            return ret;
+        } finally {
+            inFlight.remove(type, task);
+        }
+    }
+
+    /**
+     * Register the metadata of a class, replacing the existing one.
+     * @param type the class.
+     * @param metadata the metadata.
+     */
+    synchronized void register(Class type, BeanMetadata metadata) {
+        HashMap<Class, BeanMetadata> updated = new HashMap<Class, BeanMetadata>(snapshot);
+        updated.put(type, metadata);
+        snapshot = updated;
+    }
+
+    /**
+     * Register the metadata of several classes at once, replacing the existing
+     * metadata of those classes.
+     * @param metadata the metadata by class.
+     */
+    synchronized void registerAll(Map<Class, BeanMetadata> metadata) {
+        HashMap<Class, BeanMetadata> updated = new HashMap<Class, BeanMetadata>(snapshot);
+        updated.putAll(metadata);
+        snapshot = updated;
+    }
+
+    /**
+     * Replace all of the registered metadata.
+     * @param metadata the new metadata, may be null.
+     */
+    synchronized void replaceAll(Map<Class, BeanMetadata> metadata) {
+        snapshot = (metadata == null)
+                ? new HashMap<Class, BeanMetadata>()
+                : new HashMap<Class, BeanMetadata>(metadata);
+    }
+
+    /**
+     * Get the inspector the metadata of this registry was built with.
+     * @return the inspector or null if the registry uses the one of the binder.
+     */
+    AbstractBeanInspector getInspector() {
+        return inspector;
+    }
+
+    /**
+     * Find the cached binding plan of a DTO class.
+     * @param type the DTO class.
+     * @return the plan or null if there is none.
+     */
+    BindingPlan getPlan(Class type) {
+        return plans.get(type);
+    }
+
+    /**
+     * Cache the binding plan of a DTO class.
+     * @param type the DTO class.
+     * @param plan the plan.
+     */
+    void putPlan(Class type, BindingPlan plan) {
+        plans.put(type, plan);
+    }
+
+    /**
+     * Drop the cached binding plans, so they are compiled again.
+     */
+    void clearPlans() {
+        plans.clear();
+    }
+
+    /**
+     * A copy of the registered metadata.
+     * @return a new map with the registered metadata.
+     */
+    HashMap<Class, BeanMetadata> copy() {
+        return new HashMap<Class, BeanMetadata>(snapshot);
+    }
+
+    /**
+     * A read only view of the metadata registered so far, classes registered
+     * later are not part of it.
+     * @return an unmodifiable map with the registered metadata.
+     */
+    Map<Class, BeanMetadata> view() {
+        return Collections.unmodifiableMap(snapshot);
+    }
+
+    private static BeanMetadata await(FutureTask<BeanMetadata> task) {
+        boolean interrupted = false;
+        try {
+            while (true) {
+                try {
+                    return task.get();
+                } catch (InterruptedException ex) {
+                    //the inspection will finish anyway, keep waiting.
+                    interrupted = true;
+                } catch (ExecutionException ex) {
+                    Throwable cause = ex.getCause();
+                    if (cause instanceof RuntimeException) {
+                        throw (RuntimeException) cause;
+                    }
+                    if (cause instanceof Error) {
+                        throw (Error) cause;
+                    }
+                    throw new RuntimeException(cause);
+                }
+            }
+        } finally {
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    /**
+     * Inspections in progress and plans are not serialized.
+     */
+    private Object readResolve() {
+        return new MetadataRegistry(snapshot, inspector);
+    }
+}
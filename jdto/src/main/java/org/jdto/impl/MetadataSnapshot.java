@@ -0,0 +1,402 @@
+/*
+ *    Copyright 2012 Juan Alberto López Cavallotti
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jdto.impl;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.CRC32;
+import org.jdto.DTOBindingContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Compact binary form of the bean metadata, used to skip the inspection of the
+ * DTO classes when an application starts. <br />
+ *
+ * Each class is stored along with a fingerprint of its class file and the class
+ * files of its super classes. When reading a snapshot, the entries of classes
+ * which are missing or have changed are skipped so those classes are inspected
+ * again on first use. The fingerprint only covers the classes, a snapshot of
+ * XML configured metadata should be exported again when the mappings change.
+ *
+ * @since 1.5
+ */
+final class MetadataSnapshot {
+
+    private static final Logger logger = LoggerFactory.getLogger(MetadataSnapshot.class);
+    private static final int MAGIC = 0x4A44544F;
+    private static final int VERSION = 1;
+    private static final Class[] lifecycleArgumentTypes = { DTOBindingContext.class };
+    private static final Map<String, Class> primitives = new HashMap<String, Class>();
+
+    static {
+        for (Class type : new Class[] {boolean.class, byte.class, char.class, short.class, int.class, 
+                long.class, float.class, double.class, void.class}) {
+            primitives.put(type.getName(), type);
+        }
+    }
+
+    private MetadataSnapshot() {
+    }
+
+    /**
+     * Write the metadata of the given classes. Classes whose class file can't
+     * be found are not written.
+     * @param metadata the metadata by class.
+     * @param out the stream to write to, it's not closed.
+     * @return the amount of classes written.
+     * @throws IOException if the stream fails.
+     */
+    static int write(Map<Class, BeanMetadata> metadata, OutputStream out) throws IOException {
+
+        List<byte[]> entries = new ArrayList<byte[]>(metadata.size());
+
+        for (Map.Entry<Class, BeanMetadata> entry : metadata.entrySet()) {
+            Class type = entry.getKey();
+            long fingerprint = fingerprint(type);
+
+            if (fingerprint == -1) {
+                logger.debug("Not writing the metadata of " + type.getName() + ", its class file was not found");
+                continue;
+            }
+
+            ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+            DataOutputStream data = new DataOutputStream(buffer);
+            writeBeanMetadata(data, entry.getValue());
+            data.flush();
+
+            ByteArrayOutputStream header = new ByteArrayOutputStream();
+            DataOutputStream headerData = new DataOutputStream(header);
+            headerData.writeUTF(type.getName());
+            headerData.writeLong(fingerprint);
+            headerData.writeInt(buffer.size());
+            headerData.flush();
+            buffer.writeTo(header);
+
+            entries.add(header.toByteArray());
+        }
+
+        DataOutputStream data = new DataOutputStream(out);
+        data.writeInt(MAGIC);
+        data.writeInt(VERSION);
+        data.writeInt(entries.size());
+
+        for (byte[] entry : entries) {
+            data.write(entry);
+        }
+
+        data.flush();
+        return entries.size();
+    }
+
+    /**
+     * Read the metadata of the classes which have not changed since the
+     * snapshot was written.
+     * @param in the stream to read from, it's not closed.
+     * @param classLoader the class loader to resolve the classes with.
+     * @return the metadata by class.
+     * @throws IOException if the stream fails or is not a metadata snapshot.
+     */
+    static Map<Class, BeanMetadata> read(InputStream in, ClassLoader classLoader) throws IOException {
+
+        DataInputStream data = new DataInputStream(in);
+
+        if (data.readInt() != MAGIC) {
+            throw new IOException("Not a metadata snapshot");
+        }
+
+        int version = data.readInt();
+        if (version != VERSION) {
+            throw new IOException("Unsupported metadata snapshot version " + version);
+        }
+
+        int count = data.readInt();
+        Map<Class, BeanMetadata> ret = new HashMap<Class, BeanMetadata>(count * 2);
+
+        for (int i = 0; i < count; i++) {
+            String className = data.readUTF();
+            long fingerprint = data.readLong();
+            byte[] entry = new byte[data.readInt()];
+            data.readFully(entry);
+
+            try {
+                Class type = Class.forName(className, false, classLoader);
+
+                if (fingerprint(type) != fingerprint) {
+                    logger.info("The metadata snapshot of " + className + " is stale, it will be inspected again");
+                    continue;
+                }
+
+                ret.put(type, readBeanMetadata(new DataInputStream(new ByteArrayInputStream(entry)), type, classLoader));
+            } catch (ClassNotFoundException ex) {
+                logger.info("Ignoring the metadata snapshot of " + className + ", " + ex.getMessage() + " is not available");
+            } catch (NoSuchMethodException ex) {
+                logger.info("The metadata snapshot of " + className + " is stale, it will be inspected again");
+            }
+        }
+
+        return ret;
+    }
+
+    /**
+     * A checksum of the class files of the type and its super classes.
+     * @return the checksum or -1 if some class file could not be read.
+     */
+    static long fingerprint(Class type) {
+
+        CRC32 crc = new CRC32();
+        byte[] buffer = new byte[4096];
+
+        for (Class current = type; current != null && current != Object.class; current = current.getSuperclass()) {
+            ClassLoader loader = current.getClassLoader();
+            String resource = current.getName().replace('.', '/') + ".class";
+            InputStream in = (loader == null) ? ClassLoader.getSystemResourceAsStream(resource) : loader.getResourceAsStream(resource);
+
+            if (in == null) {
+                return -1;
+            }
+
+            try {
+                try {
+                    int read;
+                    while ((read = in.read(buffer)) != -1) {
+                        crc.update(buffer, 0, read);
+                    }
+                } finally {
+                    in.close();
+                }
+            } catch (IOException ex) {
+                return -1;
+            }
+        }
+
+        return crc.getValue();
+    }
+
+    private static void writeBeanMetadata(DataOutputStream out, BeanMetadata metadata) throws IOException {
+
+        out.writeBoolean(metadata.isImmutableBean());
+        writeStrings(out, metadata.getDefaultBeanNames());
+        writeString(out, metadata.getIdentifierProperty());
+        out.writeBoolean(metadata.isAcyclic());
+
+        out.writeByte(metadata.getLifecycleHandlers().size());
+        for (LifecyclePhase phase : metadata.getLifecycleHandlers().keySet()) {
+            out.writeByte(phase.ordinal());
+        }
+
+        if (metadata.isImmutableBean()) {
+            Constructor constructor = metadata.getImmutableConstructor();
+            writeClasses(out, (constructor == null) ? null : constructor.getParameterTypes());
+
+            List<FieldMetadata> arguments = metadata.getConstructorArgs();
+            out.writeInt(arguments.size());
+            for (FieldMetadata argument : arguments) {
+                writeFieldMetadata(out, argument);
+            }
+        } else {
+            Map<String, FieldMetadata> fields = metadata.getFieldMetadata();
+            out.writeInt(fields.size());
+            for (Map.Entry<String, FieldMetadata> field : fields.entrySet()) {
+                out.writeUTF(field.getKey());
+                writeFieldMetadata(out, field.getValue());
+            }
+        }
+    }
+
+    private static BeanMetadata readBeanMetadata(DataInputStream in, Class type, ClassLoader classLoader) 
+            throws IOException, ClassNotFoundException, NoSuchMethodException {
+
+        BeanMetadata ret = new BeanMetadata(in.readBoolean());
+        ret.setDefaultBeanNames(readStrings(in));
+        ret.setIdentifierProperty(readString(in));
+        ret.setAcyclic(in.readBoolean());
+
+        int handlers = in.readByte();
+        for (int i = 0; i < handlers; i++) {
+            LifecyclePhase phase = LifecyclePhase.values()[in.readByte()];
+            Method handler = BeanClassUtils.safeGetMethod(type, phase.getHandlerMethodName(), lifecycleArgumentTypes);
+            if (handler == null) {
+                throw new NoSuchMethodException(phase.getHandlerMethodName());
+            }
+            ret.getLifecycleHandlers().put(phase, handler);
+        }
+
+        if (ret.isImmutableBean()) {
+            Class[] parameterTypes = readClasses(in, classLoader);
+            if (parameterTypes != null) {
+                ret.setImmutableConstructor(type.getDeclaredConstructor(parameterTypes));
+            }
+
+            int arguments = in.readInt();
+            for (int i = 0; i < arguments; i++) {
+                ret.addConstructorArgMetadata(readFieldMetadata(in, classLoader));
+            }
+        } else {
+            int fields = in.readInt();
+            for (int i = 0; i < fields; i++) {
+                String name = in.readUTF();
+                ret.putFieldMetadata(name, readFieldMetadata(in, classLoader));
+            }
+        }
+
+        return ret;
+    }
+
+    private static void writeFieldMetadata(DataOutputStream out, FieldMetadata metadata) throws IOException {
+
+        List<String> sourceFields = metadata.getSourceFields();
+        writeStrings(out, (sourceFields == null) ? null : sourceFields.toArray(new String[sourceFields.size()]));
+        writeClasses(out, metadata.getSourceMergers());
+
+        String[][] sourceMergersParams = metadata.getSourceMergersParams();
+        out.writeInt((sourceMergersParams == null) ? -1 : sourceMergersParams.length);
+        if (sourceMergersParams != null) {
+            for (String[] params : sourceMergersParams) {
+                writeStrings(out, params);
+            }
+        }
+
+        writeStrings(out, metadata.getSourceBeans());
+        writeStrings(out, metadata.getMergerParameter());
+        writeClass(out, metadata.getPropertyValueMerger());
+        writeStrings(out, metadata.getSourceBeanNames());
+        writeClass(out, metadata.getTargetType());
+        out.writeBoolean(metadata.isCascadePresent());
+        writeString(out, (metadata.getCascadeType() == null) ? null : metadata.getCascadeType().name());
+        writeClass(out, metadata.getCascadeTargetClass());
+        out.writeBoolean(metadata.isFieldTransient());
+    }
+
+    private static FieldMetadata readFieldMetadata(DataInputStream in, ClassLoader classLoader) throws IOException, ClassNotFoundException {
+
+        FieldMetadata ret = new FieldMetadata();
+
+        String[] sourceFields = readStrings(in);
+        ret.setSourceFields((sourceFields == null) ? null : toList(sourceFields));
+        ret.setSourceMergers(readClasses(in, classLoader));
+
+        int length = in.readInt();
+        if (length >= 0) {
+            String[][] sourceMergersParams = new String[length][];
+            for (int i = 0; i < length; i++) {
+                sourceMergersParams[i] = readStrings(in);
+            }
+            ret.setSourceMergersParams(sourceMergersParams);
+        }
+
+        ret.setSourceBeans(readStrings(in));
+        ret.setMergerParameter(readStrings(in));
+        ret.setPropertyValueMerger(readClass(in, classLoader));
+        ret.setSourceBeanNames(readStrings(in));
+        ret.setTargetType(readClass(in, classLoader));
+        ret.setCascadePresent(in.readBoolean());
+
+        String cascadeType = readString(in);
+        ret.setCascadeType((cascadeType == null) ? null : CascadeType.valueOf(cascadeType));
+        ret.setCascadeTargetClass(readClass(in, classLoader));
+        ret.setFieldTransient(in.readBoolean());
+
+        return ret;
+    }
+
+    private static List<String> toList(String[] values) {
+        List<String> ret = new ArrayList<String>(values.length);
+        for (String value : values) {
+            ret.add(value);
+        }
+        return ret;
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeUTF(value);
+        }
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        return in.readBoolean() ? in.readUTF() : null;
+    }
+
+    private static void writeStrings(DataOutputStream out, String[] values) throws IOException {
+        out.writeInt((values == null) ? -1 : values.length);
+        if (values != null) {
+            for (String value : values) {
+                writeString(out, value);
+            }
+        }
+    }
+
+    private static String[] readStrings(DataInputStream in) throws IOException {
+        int length = in.readInt();
+        if (length < 0) {
+            return null;
+        }
+        String[] ret = new String[length];
+        for (int i = 0; i < length; i++) {
+            ret[i] = readString(in);
+        }
+        return ret;
+    }
+
+    private static void writeClass(DataOutputStream out, Class type) throws IOException {
+        writeString(out, (type == null) ? null : type.getName());
+    }
+
+    private static Class readClass(DataInputStream in, ClassLoader classLoader) throws IOException, ClassNotFoundException {
+        String name = readString(in);
+
+        if (name == null) {
+            return null;
+        }
+
+        Class ret = primitives.get(name);
+        return (ret != null) ? ret : Class.forName(name, false, classLoader);
+    }
+
+    private static void writeClasses(DataOutputStream out, Class[] types) throws IOException {
+        out.writeInt((types == null) ? -1 : types.length);
+        if (types != null) {
+            for (Class type : types) {
+                writeClass(out, type);
+            }
+        }
+    }
+
+    private static Class[] readClasses(DataInputStream in, ClassLoader classLoader) throws IOException, ClassNotFoundException {
+        int length = in.readInt();
+        if (length < 0) {
+            return null;
+        }
+        Class[] ret = new Class[length];
+        for (int i = 0; i < length; i++) {
+            ret[i] = readClass(in, classLoader);
+        }
+        return ret;
+    }
+}
@@ -0,0 +1,262 @@
+/*
+ *    Copyright 2012 Juan Alberto López Cavallotti
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jdto.impl;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Binds a large amount of business objects concurrently on an executor. <br />
+ *
+ * The elements are claimed in chunks by the worker tasks and by the calling
+ * thread, the size of the chunks adapts to the measured cost of binding a single
+ * element so each chunk takes about {@link #TARGET_CHUNK_NANOS}. The results
+ * are stored by index so they keep the order of the input. <br />
+ *
+ * Every worker binds its chunks on its own binding context, DTOs are only
+ * shared between elements bound by the same worker.
+ * The calling thread waits for every worker which has started, workers which
+ * have not started by the time the calling thread runs out of chunks are 
+ * claimed by it and do nothing when they run. The first failure of any of 
+ * them is thrown.
+ *
+ * @since 1.5
+ */
+final class ParallelBulkBinding {
+
+    /**
+     * The time a single chunk should take to bind.
+     */
+    static final long TARGET_CHUNK_NANOS = 1000000L;
+    
+    /**
+     * The minimum amount of chunks per worker, to balance the load.
+     */
+    private static final int MIN_CHUNKS_PER_WORKER = 4;
+    
+    private final DTOBinderBean binder;
+    private final ElementBinder elementBinder;
+    private final Object[] results;
+    private final int parallelism;
+    private final AtomicInteger cursor = new AtomicInteger();
+    private final AtomicReference<Throwable> failure = new AtomicReference<Throwable>();
+    private volatile long nanosPerElement;
+
+    private ParallelBulkBinding(DTOBinderBean binder, int size, int parallelism, ElementBinder elementBinder) {
+        this.binder = binder;
+        this.elementBinder = elementBinder;
+        this.results = new Object[size];
+        this.parallelism = parallelism;
+    }
+
+    /**
+     * Bind the given amount of elements on the executor and the calling thread.
+     * @param binder the binder which owns the binding contexts.
+     * @param executor the executor where to run the workers.
+     * @param size the amount of elements.
+     * @param elementBinder binds each of the elements.
+     * @return the bound elements, in the same order as their indexes.
+     */
+    static Object[] bind(DTOBinderBean binder, Executor executor, int size, ElementBinder elementBinder) {
+        return bind(binder, executor, size, Runtime.getRuntime().availableProcessors(), elementBinder);
+    }
+
+    /**
+     * Bind the given amount of elements with the given amount of workers,
+     * including the calling thread.
+     */
+    static Object[] bind(DTOBinderBean binder, Executor executor, int size, int parallelism, ElementBinder elementBinder) {
+        ParallelBulkBinding binding = new ParallelBulkBinding(binder, size, parallelism, elementBinder);
+        binding.run(executor);
+        return binding.results;
+    }
+
+    private void run(Executor executor) {
+        
+        List<Worker> workers = new ArrayList<Worker>();
+        
+        //the calling thread is one of the workers.
+        for (int i = 1; i < parallelism && i < results.length; i++) {
+            Worker worker = new Worker();
+            try {
+                executor.execute(worker);
+                workers.add(worker);
+            } catch (RejectedExecutionException ex) {
+                DTOBinderBean.logger.debug("Executor rejected a binding worker, continuing with " + workers.size());
+                break;
+            }
+        }
+        
+        work();
+        
+        boolean interrupted = false;
+        
+        for (Worker worker : workers) {
+            
+            //a worker which has not started yet won't start anymore.
+            if (worker.claim()) {
+                continue;
+            }
+            
+            while (true) {
+                try {
+                    worker.done.await();
+                    break;
+                } catch (InterruptedException ex) {
+                    //the worker is binding its last chunk, wait for it anyway.
+                    interrupted = true;
+                }
+            }
+        }
+        
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+        
+        Throwable error = failure.get();
+        
+        if (error instanceof RuntimeException) {
+            throw (RuntimeException) error;
+        }
+        
+        if (error instanceof Error) {
+            throw (Error) error;
+        }
+        
+        if (error != null) {
+            throw new RuntimeException("Could not bind business objects", error);
+        }
+    }
+
+    /**
+     * Claim and bind chunks until there is nothing left or some worker failed.
+     */
+    private void work() {
+        while (failure.get() == null) {
+            int chunk = chunkSize();
+            int start = cursor.getAndAdd(chunk);
+            
+            if (start >= results.length) {
+                return;
+            }
+            
+            int end = Math.min(start + chunk, results.length);
+            long begin = System.nanoTime();
+            
+            try {
+                for (int i = start; i < end; i++) {
+                    results[i] = elementBinder.bind(i);
+                }
+            } catch (Throwable ex) {
+                failure.compareAndSet(null, ex);
+                return;
+            }
+            
+            measure(end - start, System.nanoTime() - begin);
+        }
+    }
+
+    /**
+     * The size of the next chunk, single elements until the cost is known.
+     */
+    private int chunkSize() {
+        long cost = nanosPerElement;
+        
+        if (cost == 0) {
+            return 1;
+        }
+        
+        long ret = TARGET_CHUNK_NANOS / cost;
+        int max = Math.max(1, results.length / (parallelism * MIN_CHUNKS_PER_WORKER));
+        
+        return (int) Math.max(1, Math.min(ret, max));
+    }
+
+    /**
+     * Update the moving average of the cost of binding one element, races 
+     * between the workers just lose a sample.
+     */
+    private void measure(int elements, long nanos) {
+        long sample = Math.max(1, nanos / elements);
+        long current = nanosPerElement;
+        nanosPerElement = (current == 0) ? sample : (current * 3 + sample) / 4;
+    }
+
+    /**
+     * Binds the elements of the bulk operation.
+     */
+    interface ElementBinder {
+
+        /**
+         * Bind the element at the given index.
+         * @param index the index of the element.
+         * @return the bound DTO.
+         */
+        Object bind(int index);
+    }
+
+    /**
+     * A worker running on the executor with its own binding context.
+     */
+    private final class Worker implements Runnable {
+
+        /**
+         * Set by either the worker when it starts or the calling thread when
+         * it no longer needs the worker, whoever comes first.
+         */
+        private final AtomicBoolean claimed = new AtomicBoolean();
+        
+        /**
+         * Released when a started worker is done.
+         */
+        private final CountDownLatch done = new CountDownLatch(1);
+
+        /**
+         * Claim the worker.
+         * @return true if the worker had not been claimed yet.
+         */
+        boolean claim() {
+            return claimed.compareAndSet(false, true);
+        }
+
+        @Override
+        public void run() {
+            
+            if (!claim()) {
+                return;
+            }
+            
+            try {
+                boolean release = binder.initBindingContextIfNecessary();
+                try {
+                    work();
+                } finally {
+                    binder.releaseBindingContext(release);
+                }
+            } catch (Throwable ex) {
+                failure.compareAndSet(null, ex);
+            } finally {
+                done.countDown();
+            }
+        }
+    }
+}
@@ -0,0 +1,191 @@
+/*
+ *    Copyright 2012 Juan Alberto López Cavallotti
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jdto.impl;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.ServiceConfigurationError;
+import java.util.ServiceLoader;
+import java.util.WeakHashMap;
+import org.jdto.mergers.FirstObjectPropertyValueMerger;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * jDTO Binder INTERNAL API - DO NOT USE!! <br />
+ *
+ * Base class for the binder classes generated at compile time by the jdto
+ * verifier annotation processor. Precompiled binders are registered as
+ * services of this class on META-INF/services and are preferred over runtime
+ * generation and reflection. <br />
+ *
+ * A precompiled binder only covers DTOs whose fields are read from a single
+ * property of a single business object, the binder declares the properties it
+ * was generated for and it is only used if they match the binding plan of the
+ * DTO at runtime, so stale binders fall back to the regular binding path.
+ *
+ * @since 1.5
+ */
+public abstract class PrecompiledBinder extends GeneratedBinder {
+
+    private static final Logger logger = LoggerFactory.getLogger(PrecompiledBinder.class);
+    private static final Map<ClassLoader, Map<String, String>> registry = 
+            new WeakHashMap<ClassLoader, Map<String, String>>();
+
+    /**
+     * The index of the binding plan step for each of the target properties.
+     */
+    protected int[] fields;
+
+    /**
+     * The DTO type this binder was generated for.
+     * @return the DTO type.
+     */
+    public abstract Class getDtoClass();
+
+    /**
+     * The DTO properties populated by this binder.
+     * @return the names of the properties, in the order the generated code
+     * refers to them through {@link #fields}.
+     */
+    protected abstract String[] getTargetProperties();
+
+    /**
+     * The property paths read from the business object for each of the 
+     * target properties.
+     * @return the source property paths.
+     */
+    protected abstract String[] getSourcePaths();
+
+    /**
+     * Map the target properties to the steps of the binding plan.
+     * @param plan the binding plan of the DTO.
+     * @return true if the plan populates exactly the properties of this binder
+     * out of the same source paths, false if it can't be used for the plan.
+     */
+    final boolean matches(BindingPlan plan) {
+
+        if (plan.isImmutable() || plan.getDtoClass() != getDtoClass()) {
+            return false;
+        }
+
+        String[] properties = getTargetProperties();
+        String[] paths = getSourcePaths();
+        BindingPlan.FieldStep[] steps = plan.getSteps();
+
+        if (steps.length != properties.length) {
+            return false;
+        }
+
+        int[] ret = new int[properties.length];
+
+        for (int k = 0; k < properties.length; k++) {
+            ret[k] = -1;
+
+            for (int i = 0; i < steps.length; i++) {
+                if (steps[i].targetProperty.equals(properties[k]) && isPlain(steps[i], paths[k])) {
+                    ret[k] = i;
+                    break;
+                }
+            }
+
+            if (ret[k] == -1) {
+                return false;
+            }
+        }
+
+        fields = ret;
+        return true;
+    }
+
+    private static boolean isPlain(BindingPlan.FieldStep step, String path) {
+
+        if (step.cascade || step.sources.length != 1 || step.merger.getClass() != FirstObjectPropertyValueMerger.class) {
+            return false;
+        }
+
+        BindingPlan.SourceStep source = step.sources[0];
+        return !source.rootObject && source.argumentIndex == 0 && path.equals(source.property);
+    }
+
+    /**
+     * Find and wire the precompiled binder for the given plan.
+     * @param plan the binding plan.
+     * @param delegate the delegate the binder will use.
+     * @return the binder or null if there is no usable precompiled binder.
+     */
+    static PrecompiledBinder find(BindingPlan plan, SimpleBinderDelegate delegate) {
+
+        Class dtoClass = plan.getDtoClass();
+        ClassLoader classLoader = dtoClass.getClassLoader();
+        String binderClass = findBinderClasses(classLoader).get(dtoClass.getName());
+
+        if (binderClass == null) {
+            return null;
+        }
+
+        try {
+            PrecompiledBinder ret = (PrecompiledBinder) Class.forName(binderClass, true, classLoader).newInstance();
+
+            if (!ret.matches(plan)) {
+                logger.warn("The precompiled binder " + binderClass + " does not match the configuration of " 
+                        + dtoClass.getName() + ", it may be stale.");
+                return null;
+            }
+
+            ret.init(plan, delegate);
+            return ret;
+        } catch (Exception ex) {
+            logger.warn("Could not create the precompiled binder " + binderClass, ex);
+            return null;
+        }
+    }
+
+    /**
+     * The names of the precompiled binder classes visible to the given class
+     * loader, by the name of their DTO type. Names are kept instead of classes
+     * so the registry doesn't keep the class loaders alive.
+     */
+    private static synchronized Map<String, String> findBinderClasses(ClassLoader classLoader) {
+
+        Map<String, String> ret = registry.get(classLoader);
+
+        if (ret != null) {
+            return ret;
+        }
+
+        ret = new HashMap<String, String>();
+
+        Iterator<PrecompiledBinder> binders = ServiceLoader.load(PrecompiledBinder.class, classLoader).iterator();
+        
+        while (true) {
+            try {
+                if (!binders.hasNext()) {
+                    break;
+                }
+                PrecompiledBinder binder = binders.next();
+                ret.put(binder.getDtoClass().getName(), binder.getClass().getName());
+            } catch (ServiceConfigurationError error) {
+                //registrations of deleted DTOs are kept by incremental builds.
+                logger.warn("Could not load a precompiled binder", error);
+            }
+        }
+
+        registry.put(classLoader, ret);
+        return ret;
+    }
+}
@@ -0,0 +1,96 @@
+/*
+ *    Copyright 2012 Juan Alberto López Cavallotti
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jdto.impl;
+
+/**
+ * jDTO Binder INTERNAL API - DO NOT USE!! <br />
+ *
+ * Unboxing of values for generated code. The conversions follow the same
+ * widening rules that are applied to the arguments of reflective calls, so
+ * generated code accepts and rejects the same values as the reflective
+ * binding path.
+ *
+ * @since 1.5
+ */
+public final class PrimitiveConversions {
+
+    private PrimitiveConversions() {
+    }
+
+    public static boolean toBoolean(Object value) {
+        if (value instanceof Boolean) {
+            return ((Boolean) value).booleanValue();
+        }
+        throw argumentMismatch(boolean.class, value);
+    }
+
+    public static char toChar(Object value) {
+        if (value instanceof Character) {
+            return ((Character) value).charValue();
+        }
+        throw argumentMismatch(char.class, value);
+    }
+
+    public static byte toByte(Object value) {
+        if (value instanceof Byte) {
+            return ((Byte) value).byteValue();
+        }
+        throw argumentMismatch(byte.class, value);
+    }
+
+    public static short toShort(Object value) {
+        if (value instanceof Short || value instanceof Byte) {
+            return ((Number) value).shortValue();
+        }
+        throw argumentMismatch(short.class, value);
+    }
+
+    public static int toInt(Object value) {
+        if (value instanceof Integer || value instanceof Short || value instanceof Byte) {
+            return ((Number) value).intValue();
+        }
+        if (value instanceof Character) {
+            return ((Character) value).charValue();
+        }
+        throw argumentMismatch(int.class, value);
+    }
+
+    public static long toLong(Object value) {
+        if (value instanceof Long) {
+            return ((Long) value).longValue();
+        }
+        return toInt(value);
+    }
+
+    public static float toFloat(Object value) {
+        if (value instanceof Float) {
+            return ((Float) value).floatValue();
+        }
+        return toLong(value);
+    }
+
+    public static double toDouble(Object value) {
+        if (value instanceof Double) {
+            return ((Double) value).doubleValue();
+        }
+        return toFloat(value);
+    }
+
+    private static IllegalArgumentException argumentMismatch(Class type, Object value) {
+        String valueType = (value == null) ? "null" : value.getClass().getName();
+        return new IllegalArgumentException("Cannot convert " + valueType + " to " + type.getName());
+    }
+}
@@ -15,7 +15,6 @@
  */
 package org.jdto.impl;
 
-import org.apache.commons.lang3.ArrayUtils;
 import org.apache.commons.lang3.StringUtils;
 import org.jdto.*;
 import org.slf4j.Logger;
@@ -23,6 +22,8 @@ import org.slf4j.LoggerFactory;
 
 import java.io.Serializable;
 import java.util.*;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executor;
 
 /**
  * Class responsible for binding the DTOs for real.
@@ -39,13 +40,114 @@ class SimpleBinderDelegate implements Serializable {
     private static final Logger logger = LoggerFactory.getLogger(SimpleBinderDelegate.class);
     
     private ObjectLifecycleManager lifecycleManager;
+    
+    /**
+     * Whether to generate binder classes for the binding plans.
+     */
+    private boolean generatedBindersEnabled;
+    
+    /**
+     * Whether to keep track of the DTOs which may be part of a cycle.
+     */
+    private boolean cycleDetectionEnabled = true;
+    
+    /**
+     * Released DTO instances, handed out again instead of creating new ones.
+     */
+    private final DTOInstancePool instancePool = new DTOInstancePool();
+    
+    /**
+     * Executor for binding the cascades concurrently.
+     */
+    private transient Executor cascadeExecutor;
+    
+    /**
+     * Listener of the binding timings, nothing is measured when there is none.
+     */
+    private transient volatile BindingListener listener;
 
     SimpleBinderDelegate(DTOBinderBean binderBean) {
         this.binderBean = binderBean;
         this.lifecycleManager = new ObjectLifecycleManager(binderBean);
     }
 
-    <T> T bindFromBusinessObject(HashMap<Class, BeanMetadata> metadataMap, Class<T> dtoClass, Object... businessObjects) {
+    <T> T bindFromBusinessObject(MetadataRegistry metadataRegistry, Class<T> dtoClass, Object... businessObjects) {
+        return bind(metadataRegistry, dtoClass, null, businessObjects);
+    }
+    
+    /**
+     * Populate an existing DTO instance with the values of the business objects.
+     * @param metadataRegistry
+     * @param target the DTO to populate, should not be immutable.
+     * @param businessObjects
+     * @return the target DTO.
+     */
+    <T> T bindInto(MetadataRegistry metadataRegistry, T target, Object... businessObjects) {
+        return bind(metadataRegistry, (Class<T>) target.getClass(), target, businessObjects);
+    }
+    
+    /**
+     * Inspect a DTO class and compile its binding plan before it is first
+     * bound.
+     * @param metadataRegistry
+     * @param dtoClass
+     * @return the classes of the DTOs cascaded from the given one.
+     */
+    List<Class> warmUp(MetadataRegistry metadataRegistry, Class dtoClass) {
+        BindingPlan plan = findBindingPlan(metadataRegistry, dtoClass);
+        
+        List<Class> ret = new ArrayList<Class>();
+        for (BindingPlan.FieldStep step : plan.getSteps()) {
+            Class target = step.fieldMetadata.getCascadeTargetClass();
+            if (step.cascade && target != null && target != Object.class) {
+                ret.add(target);
+            }
+        }
+        
+        return ret;
+    }
+    
+    /**
+     * Bind a batch of single business objects to DTOs of the same type, the
+     * binding plan is looked up only once for the whole batch.
+     * @param metadataRegistry
+     * @param dtoClass
+     * @param businessObjects the business objects, null elements are bound to null.
+     * @return the DTOs, in the same order as the business objects.
+     */
+    <T> List<T> bindBatch(MetadataRegistry metadataRegistry, Class<T> dtoClass, Collection<?> businessObjects) {
+        BindingPlan plan = findBindingPlan(metadataRegistry, dtoClass);
+        List<T> ret = new ArrayList<T>(businessObjects.size());
+        
+        for (Object businessObject : businessObjects) {
+            ret.add((businessObject == null) ? null : bind(plan, dtoClass, null, new Object[] {businessObject}));
+        }
+        
+        return ret;
+    }
+    
+    private <T> T bind(MetadataRegistry metadataRegistry, Class<T> dtoClass, T target, Object[] businessObjects) {
+        //first of all, we try to find the compiled plan for the DTO to build, if not
+        //then we build it.
+        return bind(findBindingPlan(metadataRegistry, dtoClass), dtoClass, target, businessObjects);
+    }
+    
+    private <T> T bind(BindingPlan plan, Class<T> dtoClass, T target, Object[] businessObjects) {
+        
+        BindingListener currentListener = listener;
+        
+        if (currentListener == null) {
+            return bindPlan(plan, dtoClass, target, businessObjects);
+        }
+        
+        long start = System.nanoTime();
+        T ret = bindPlan(plan, dtoClass, target, businessObjects);
+        currentListener.dtoBound(dtoClass, System.nanoTime() - start);
+        
+        return ret;
+    }
+    
+    private <T> T bindPlan(BindingPlan plan, Class<T> dtoClass, T target, Object[] businessObjects) {
         
         //log what I'm doing
         if (logger.isDebugEnabled()) {
@@ -53,60 +155,86 @@ class SimpleBinderDelegate implements Serializable {
             logger.debug("\t from source objects: " + Arrays.toString(businessObjects));
         }
         
-        //first of all, we try to find the metadata for the DTO to build, if not
-        //then we build it.
-        BeanMetadata metadata = findBeanMetadata(metadataMap, dtoClass);
+        BeanMetadata metadata = plan.getMetadata();
+        
+        if (target != null && plan.isImmutable()) {
+            throw new IllegalArgumentException("Can't bind into an instance of the immutable DTO " + dtoClass.getName());
+        }
         
-        DTOCacheKey cacheKey = new DTOCacheKey(metadata, businessObjects);
+        //only the DTOs which may be bound again are kept on the binding context.
+        BindingContext context = isTracked(plan) ? binderBean.bindingContext.get() : null;
+        Object identifier = null;
+        T ret = null;
         
         //check if the object to return is cached, this enhances performance and 
         //helps to mitigate the DTOCascade cycle problem.
+        if (context != null) {
+            identifier = readIdentifier(plan, businessObjects);
+        }
         
-        T ret = (T) binderBean.bindingContext.get().get(cacheKey);
+        if (context != null && target == null) {
+            ret = (T) ((identifier == null) 
+                    ? context.get(plan, businessObjects) 
+                    : context.getByIdentifier(plan, identifier));
+        }
         
         if (ret != null) {
             return ret;
         }
         
-        //the immutable constructor args list
-        ArrayList immutableConstructorArgs = null;
-
-        //build the appropiate object.
-        if (metadata.isImmutableBean()) {
-            immutableConstructorArgs = new ArrayList();
-        } else {
-            ret = BeanClassUtils.createInstance(dtoClass);
-            lifecycleManager.notify(LifecyclePhase.BEFORE_PROPERTIES_SET ,ret, metadata, businessObjects);
-            binderBean.bindingContext.get().put(cacheKey, ret);
-        }
-
-
-
-        HashMap<String, FieldMetadata> propertyMappings = metadata.getFieldMetadata();
-
-        //the map of source beans by name
-        HashMap<String, Object> sourceBeans = new HashMap<String, Object>();
-
-        if (metadata.isImmutableBean()) {
-            List<FieldMetadata> args = metadata.getConstructorArgs();
-            for (FieldMetadata fieldMetadata : args) {
-                Object targetValue = buildTargetValue(metadata, fieldMetadata, ret, sourceBeans, businessObjects);
-
-                //if the source and target types are not compatible, then apply the compatibility logic
-                targetValue = ValueConversionHelper.applyCompatibilityLogic(fieldMetadata.getTargetType(), targetValue);
-
-                //if the object is immutable, then we need to store the value.
-                immutableConstructorArgs.add(targetValue);
+        BindingPlan.FieldStep[] steps = plan.getSteps();
+        
+        //the generated binder, if any, reads and writes the properties directly.
+        //it can't report the timings of the fields, so a listener disables it.
+        GeneratedBinder generated = (listener == null) ? findGeneratedBinder(plan, businessObjects) : null;
+
+        //independent cascades may be bound concurrently.
+        boolean concurrentCascades = cascadeExecutor != null && plan.getCascadeCount() > 1;
+
+        if (plan.isImmutable()) {
+            if (generated != null) {
+                ret = (T) generated.construct(businessObjects);
+            } else {
+                //the immutable constructor args
+                Object[] immutableConstructorArgs = new Object[steps.length];
+                Object[] targetValues = concurrentCascades ? buildTargetValues(dtoClass, steps, businessObjects) : null;
+
+                for (int i = 0; i < steps.length; i++) {
+                    BindingPlan.FieldStep step = steps[i];
+                    Object targetValue = (targetValues != null) ? targetValues[i] : buildTargetValue(dtoClass, step, businessObjects);
+
+                    //if the source and target types are not compatible, then apply the compatibility logic
+                    immutableConstructorArgs[i] = ValueConversionHelper.applyCompatibilityLogic(step.targetType, targetValue);
+                }
+                ret = BeanClassUtils.createInstance(dtoClass, plan.getConstructor(), immutableConstructorArgs);
             }
-            ret = BeanClassUtils.createInstance(dtoClass, metadata.getImmutableConstructor(), immutableConstructorArgs);
-            binderBean.bindingContext.get().put(cacheKey, ret);
+            remember(context, plan, identifier, businessObjects, ret);
         } else {
-            //iterate through the properties and read the values from the business objects.
-            for (String targetProperty : propertyMappings.keySet()) {
-                //get the configuration for the DTO objects.
-                FieldMetadata fieldMetadata = propertyMappings.get(targetProperty);
-                Object targetValue = buildTargetValue(metadata, fieldMetadata, ret, sourceBeans, businessObjects);
-                modifier.writePropertyValue(targetProperty, targetValue, ret);
+            if (target != null) {
+                ret = target;
+            } else {
+                ret = (T) instancePool.acquire(dtoClass);
+            }
+            
+            if (ret == null) {
+                ret = (generated != null) ? (T) generated.newInstance() : BeanClassUtils.createInstance(dtoClass);
+            }
+            lifecycleManager.notify(LifecyclePhase.BEFORE_PROPERTIES_SET ,ret, metadata, businessObjects);
+            remember(context, plan, identifier, businessObjects, ret);
+            
+            if (generated != null) {
+                generated.populate(ret, businessObjects);
+            } else if (concurrentCascades) {
+                Object[] targetValues = buildTargetValues(dtoClass, steps, businessObjects);
+                for (int i = 0; i < steps.length; i++) {
+                    writeTargetValue(steps[i], targetValues[i], ret);
+                }
+            } else {
+                //iterate through the properties and read the values from the business objects.
+                for (BindingPlan.FieldStep step : steps) {
+                    Object targetValue = buildTargetValue(dtoClass, step, businessObjects);
+                    writeTargetValue(step, targetValue, ret);
+                }
             }
         }
         
@@ -115,76 +243,313 @@ class SimpleBinderDelegate implements Serializable {
         return ret;
     }
 
-    private <T> Object buildTargetValue(BeanMetadata metadata, FieldMetadata fieldMetadata, T ret, HashMap<String, Object> sourceBeans, Object... businessObjects) {
-        //create a buffer for the source values.
-        List<Object> sourceValues = new ArrayList<Object>();
-
-        //get a list of the properties to read for this DTO
+    /**
+     * Reset the properties of the DTO and put it on the instance pool.
+     * @param metadataRegistry
+     * @param dto the DTO to release.
+     * @return true if the DTO was pooled.
+     */
+    boolean release(MetadataRegistry metadataRegistry, Object dto) {
+        
+        if (dto == null || !instancePool.isPooled(dto.getClass())) {
+            return false;
+        }
+        
+        BindingPlan plan = findBindingPlan(metadataRegistry, dto.getClass());
         
-        List<String> sourceProperties = fieldMetadata.getSourceFields();
+        //only the DTOs the pool takes are reset, the rest are left untouched.
+        if (plan.isImmutable() || !instancePool.accepts(dto)) {
+            return false;
+        }
+        
+        //restore every bound property to its default value.
+        for (BindingPlan.FieldStep step : plan.getSteps()) {
+            writeTargetValue(step, null, dto);
+        }
+        
+        return instancePool.release(dto);
+    }
 
+    /**
+     * Check if the DTOs of the given plan should be kept on the binding context.
+     * DTOs with an identifier are always kept, the rest only if they may be
+     * part of a cycle.
+     */
+    private boolean isTracked(BindingPlan plan) {
+        return plan.getIdentifierPath() != null || (cycleDetectionEnabled && plan.isCyclic());
+    }
 
-        //field index to resolve collisions between property names
-        int sourcePropertyIndex = 0;
-        //read all the values.
-        for (String sourceProperty : sourceProperties) {
-            
-            populateSourceBeans(sourceBeans, metadata, fieldMetadata, businessObjects);
+    /**
+     * Read the identifier of the business objects if the DTO declares one.
+     * @return the identifier or null if the business objects should be
+     * identified by instance.
+     */
+    private Object readIdentifier(BindingPlan plan, Object[] businessObjects) {
+        
+        if (plan.getIdentifierPath() == null) {
+            return null;
+        }
+        
+        if (modifier instanceof PropertyPathBeanModifier) {
+            return ((PropertyPathBeanModifier) modifier).readPropertyValue(plan.getIdentifierPath(), businessObjects[0]);
+        }
+        
+        return modifier.readPropertyValue(plan.getIdentifierPath().getPath(), businessObjects[0]);
+    }
+    
+    private void remember(BindingContext context, BindingPlan plan, Object identifier, Object[] businessObjects, Object dto) {
+        if (context == null) {
+            return;
+        }
+        
+        if (identifier == null) {
+            context.put(plan, businessObjects, dto);
+        } else {
+            context.putByIdentifier(plan, identifier, dto);
+        }
+    }
 
-            Object finalValue = applyMergeToSingleField(sourceBeans, sourceProperty, fieldMetadata, sourcePropertyIndex);
-            sourceValues.add(finalValue);
-            sourcePropertyIndex++;
+    private Object buildTargetValue(Class dtoClass, BindingPlan.FieldStep step, Object[] businessObjects) {
+        
+        BindingListener currentListener = listener;
+        
+        if (currentListener != null) {
+            return buildTargetValue(currentListener, dtoClass, step, businessObjects);
         }
+        
+        BindingPlan.SourceStep[] sources = step.sources;
+        
+        //create a buffer for the source values.
+        Object[] sourceValues = new Object[sources.length];
 
+        //read all the values.
+        for (int i = 0; i < sources.length; i++) {
+            BindingPlan.SourceStep source = sources[i];
+            Object sourceValue = readSourceValue(source, businessObjects);
+            sourceValues[i] = source.merger.mergeObjects(sourceValue, source.mergerParams);
+        }
 
         //merge the values into one
-        Class mergerClass = fieldMetadata.getPropertyValueMerger();
-
-        Object targetValue = null;
-
-        if (fieldMetadata.isCascadePresent()) {
-            targetValue = applyCascadeLogic(sourceValues, fieldMetadata);
-        } else {
-            MultiPropertyValueMerger merger = (MultiPropertyValueMerger) mergerManager.getPropertyValueMerger(mergerClass); //todo get the merger from the context.
-            targetValue = merger.mergeObjects(sourceValues, fieldMetadata.getMergerParameter());
+        if (step.cascade) {
+            return applyCascadeLogic(sourceValues, step.fieldMetadata);
+        }
+        
+        return step.merger.mergeObjects(Arrays.asList(sourceValues), step.mergerParams);
+    }
+    
+    /**
+     * Same as building the target value without a listener, but reporting
+     * the time spent on each part of it.
+     */
+    private Object buildTargetValue(BindingListener currentListener, Class dtoClass, BindingPlan.FieldStep step, Object[] businessObjects) {
+        
+        BindingPlan.SourceStep[] sources = step.sources;
+        String property = step.targetProperty;
+        Object[] sourceValues = new Object[sources.length];
+        
+        for (int i = 0; i < sources.length; i++) {
+            BindingPlan.SourceStep source = sources[i];
+            
+            long start = System.nanoTime();
+            Object sourceValue = readSourceValue(source, businessObjects);
+            long read = System.nanoTime();
+            currentListener.sourceRead(dtoClass, property, read - start);
+            
+            sourceValues[i] = source.merger.mergeObjects(sourceValue, source.mergerParams);
+            currentListener.mergerCalled(dtoClass, property, source.merger.getClass(), System.nanoTime() - read);
+        }
+        
+        long start = System.nanoTime();
+        
+        if (step.cascade) {
+            Object ret = applyCascadeLogic(sourceValues, step.fieldMetadata);
+            currentListener.cascadeBound(dtoClass, property, System.nanoTime() - start);
+            return ret;
         }
+        
+        Object ret = step.merger.mergeObjects(Arrays.asList(sourceValues), step.mergerParams);
+        currentListener.mergerCalled(dtoClass, property, step.merger.getClass(), System.nanoTime() - start);
+        return ret;
+    }
 
-        //return the value
-        return targetValue;
+    /**
+     * Build the values of all of the steps, binding the cascades concurrently
+     * on the cascade executor.
+     */
+    private Object[] buildTargetValues(final Class dtoClass, BindingPlan.FieldStep[] steps, final Object[] businessObjects) {
+        
+        Object[] ret = new Object[steps.length];
+        int[] cascadeIndexes = new int[steps.length];
+        List<Callable<Object>> cascades = new ArrayList<Callable<Object>>();
+        
+        for (int i = 0; i < steps.length; i++) {
+            final BindingPlan.FieldStep step = steps[i];
+            
+            if (!step.cascade) {
+                ret[i] = buildTargetValue(dtoClass, step, businessObjects);
+                continue;
+            }
+            
+            cascadeIndexes[cascades.size()] = i;
+            cascades.add(new Callable<Object>() {
+                @Override
+                public Object call() {
+                    return buildTargetValue(dtoClass, step, businessObjects);
+                }
+            });
+        }
+        
+        Object[] values = CascadeScope.invokeAll(binderBean, cascadeExecutor, cascades);
+        
+        for (int i = 0; i < values.length; i++) {
+            ret[cascadeIndexes[i]] = values[i];
+        }
+        
+        return ret;
     }
 
     /**
      * Create the appropiate metadata if it doesn't exist.
      *
      * @param <T>
-     * @param metadataMap
+     * @param metadataRegistry
      * @param dtoClass
      * @return
      */
-    private <T> BeanMetadata findBeanMetadata(HashMap<Class, BeanMetadata> metadataMap, Class<T> dtoClass) {
-
-        BeanMetadata ret = metadataMap.get(dtoClass);
-
-        if (ret == null) {
-            ret = inspector.inspectBean(dtoClass);
+    private <T> BeanMetadata findBeanMetadata(MetadataRegistry metadataRegistry, Class<T> dtoClass) {
+        AbstractBeanInspector registryInspector = metadataRegistry.getInspector();
+        return metadataRegistry.getOrInspect(dtoClass, (registryInspector == null) ? inspector : registryInspector);
+    }
+    
+    /**
+     * Find the compiled binding plan for the given DTO class, compiling it if
+     * it is missing or if its metadata has been replaced.
+     *
+     * @param metadataRegistry
+     * @param dtoClass
+     * @return the binding plan for the DTO class.
+     */
+    private BindingPlan findBindingPlan(MetadataRegistry metadataRegistry, Class dtoClass) {
+        
+        BeanMetadata metadata = findBeanMetadata(metadataRegistry, dtoClass);
+        
+        BindingPlan ret = metadataRegistry.getPlan(dtoClass);
+        
+        if (ret == null || ret.getMetadata() != metadata) {
+            ret = BindingPlan.compile(dtoClass, metadata, mergerManager);
+            ret.setCyclic(!metadata.isAcyclic() && isCyclic(metadataRegistry, dtoClass, metadata));
+            
+            //binders generated at compile time take precedence.
+            PrecompiledBinder precompiled = PrecompiledBinder.find(ret, this);
+            if (precompiled != null) {
+                ret.setGeneratedBinder(precompiled);
+                ret.setGenerationAttempted(true);
+            }
+            
+            metadataRegistry.putPlan(dtoClass, ret);
         }
+        
+        return ret;
+    }
+    
+    /**
+     * Check if binding the cascades of the given DTO may end up binding the
+     * same DTO type again, by following the cascade target classes.
+     *
+     * @param metadataRegistry
+     * @param dtoClass
+     * @param metadata
+     * @return true if the DTO type is reachable through its own cascades.
+     */
+    private boolean isCyclic(MetadataRegistry metadataRegistry, Class dtoClass, BeanMetadata metadata) {
+        
+        HashSet<Class> visited = new HashSet<Class>();
+        LinkedList<BeanMetadata> pending = new LinkedList<BeanMetadata>();
+        pending.add(metadata);
+        
+        while (!pending.isEmpty()) {
+            BeanMetadata current = pending.removeFirst();
+            
+            Collection<FieldMetadata> fields = current.isImmutableBean() 
+                    ? current.getConstructorArgs() 
+                    : current.getFieldMetadata().values();
+            
+            for (FieldMetadata field : fields) {
+                
+                if (!field.isCascadePresent()) {
+                    continue;
+                }
+                
+                Class target = field.getCascadeTargetClass();
+                
+                if (target == dtoClass) {
+                    return true;
+                }
+                
+                if (target == null || target == Object.class || !visited.add(target)) {
+                    continue;
+                }
+                
+                try {
+                    pending.add(findBeanMetadata(metadataRegistry, target));
+                } catch (RuntimeException ex) {
+                    //the cascade will fail later anyway, be on the safe side.
+                    logger.debug("Could not inspect cascade target " + target.getName(), ex);
+                    return true;
+                }
+            }
+        }
+        
+        return false;
+    }
 
-        metadataMap.put(dtoClass, ret);
-
+    /**
+     * Find the generated binder for the plan. The first time it is needed the 
+     * binder is generated on a background thread, as compiling it takes too 
+     * long to do it while binding, and the plan is bound through reflection
+     * until it is ready. Binders are only generated when enabled, precompiled 
+     * binders are always used. Both kinds are only used when the properties 
+     * are accessed with the {@link CoreBeanModifier}.
+     *
+     * @param plan
+     * @param businessObjects
+     * @return the generated binder or null if the reflective path should be used.
+     */
+    private GeneratedBinder findGeneratedBinder(BindingPlan plan, Object[] businessObjects) {
+        
+        if (modifier == null || modifier.getClass() != CoreBeanModifier.class) {
+            return null;
+        }
+        
+        if (!plan.isGenerationAttempted()) {
+            
+            if (!generatedBindersEnabled) {
+                return null;
+            }
+            
+            if (plan.startGeneration()) {
+                BinderClassCompiler.buildBinderLater(plan, this, businessObjects.clone());
+            }
+        }
+        
+        GeneratedBinder ret = plan.getGeneratedBinder();
+        
+        if (ret == null || !ret.accepts(businessObjects)) {
+            return null;
+        }
+        
         return ret;
     }
 
     /**
      * Apply the cascade logic for generating the target value.
      *
-     * @param sourceValues
+     * @param values
      * @param fieldMetadata
      * @return
      */
-    private Object applyCascadeLogic(List<Object> sourceValues, FieldMetadata fieldMetadata) {
+    Object applyCascadeLogic(Object[] values, FieldMetadata fieldMetadata) {
 
-        Object[] values = sourceValues.toArray();
-                
         Object ret = null;
         List[] listValues = null;
 
@@ -204,7 +569,7 @@ class SimpleBinderDelegate implements Serializable {
                     listValues[i] = (List) convertValueToList(values[i]);
                 }
 
-                ret = binderBean.bindFromBusinessObjectList(fieldMetadata.getCascadeTargetClass(), listValues);
+                ret = bindCascadedList(fieldMetadata.getCascadeTargetClass(), listValues);
                 break;
             case ARRAY:
                 //pretty dangerous cast I say :)
@@ -214,7 +579,7 @@ class SimpleBinderDelegate implements Serializable {
                     listValues[i] = (List) convertValueToList(values[i]);
                 }
 
-                List retList = binderBean.bindFromBusinessObjectList(fieldMetadata.getCascadeTargetClass(), listValues);
+                List retList = bindCascadedList(fieldMetadata.getCascadeTargetClass(), listValues);
                 ret = retList.toArray();
                 break;
             default:
@@ -224,6 +589,49 @@ class SimpleBinderDelegate implements Serializable {
         return ret;
     }
 
+    /**
+     * Bind the cascaded lists, each element on its own task if there is a 
+     * cascade executor.
+     */
+    private List bindCascadedList(final Class dtoClass, List[] listValues) {
+        
+        List reference = null;
+        
+        for (List list : listValues) {
+            if (list != null) {
+                reference = list;
+                break;
+            }
+        }
+        
+        if (cascadeExecutor == null || reference == null || reference.size() < 2) {
+            return binderBean.bindFromBusinessObjectList(dtoClass, listValues);
+        }
+        
+        Iterator[] iterators = new Iterator[listValues.length];
+        for (int j = 0; j < listValues.length; j++) {
+            iterators[j] = (listValues[j] == null) ? null : listValues[j].iterator();
+        }
+        
+        List<Callable<Object>> elements = new ArrayList<Callable<Object>>(reference.size());
+        
+        for (int i = 0; i < reference.size(); i++) {
+            final Object[] params = new Object[listValues.length];
+            for (int j = 0; j < iterators.length; j++) {
+                params[j] = iterators[j].next();
+            }
+            
+            elements.add(new Callable<Object>() {
+                @Override
+                public Object call() {
+                    return binderBean.bindFromBusinessObject(dtoClass, params);
+                }
+            });
+        }
+        
+        return new ArrayList(Arrays.asList(CascadeScope.invokeAll(binderBean, cascadeExecutor, elements)));
+    }
+
     private List convertValueToList(Object value) {
         
         if (value == null) {
@@ -250,18 +658,18 @@ class SimpleBinderDelegate implements Serializable {
      * This is the modest reverse process. Not that useful but stay tuned :)
      *
      * @param <T>
-     * @param metadataMap
+     * @param metadataRegistry
      * @param entityClass
      * @param dto
      * @return
      */
-    <T> T extractFromDto(HashMap metadataMap, Class<T> entityClass, Object dto) {
+    <T> T extractFromDto(MetadataRegistry metadataRegistry, Class<T> entityClass, Object dto) {
         
         if (dto == null) {
             return null; //this satisfies f(null) = null
         }
         
-        BeanMetadata metadata = findBeanMetadata(metadataMap, dto.getClass());
+        BeanMetadata metadata = findBeanMetadata(metadataRegistry, dto.getClass());
 
         T ret = BeanClassUtils.createInstance(entityClass);
 
@@ -304,20 +712,6 @@ class SimpleBinderDelegate implements Serializable {
         return ret;
     }
 
-    private Object applyMergeToSingleField(HashMap<String, Object> sourceBeans, String sourceProperty, FieldMetadata fieldMetadata, int fieldIndex) {
-
-        //read the source value
-        Object sourceValue = readSourceValue(sourceBeans, sourceProperty, fieldMetadata, fieldIndex);
-        
-        //read the merger information
-        Class mergerClass = fieldMetadata.getSourceMergers()[fieldIndex];
-        String[] mergerExtraParam = fieldMetadata.getSourceMergersParams()[fieldIndex];
-
-        SinglePropertyValueMerger merger = (SinglePropertyValueMerger) mergerManager.getPropertyValueMerger(mergerClass); //todo get the merger from the context
-        return merger.mergeObjects(sourceValue, mergerExtraParam);
-    }
-    
-    
     private Object applyRestoreToSingleField(Object originalValue, FieldMetadata fieldMetadata, int sourceValueIndex) {
         Class mergerClass = fieldMetadata.getSourceMergers()[sourceValueIndex];
         String[] mergerExtraParam = fieldMetadata.getSourceMergersParams()[sourceValueIndex];
@@ -332,44 +726,36 @@ class SimpleBinderDelegate implements Serializable {
     }
     
     
-    private Object readSourceValue(HashMap<String,Object> sourceBeans, String sourceProperty, FieldMetadata fieldMetadata, int sourceIndex) {
+    private Object readSourceValue(BindingPlan.SourceStep source, Object[] businessObjects) {
 
-        String sourceBean = fieldMetadata.getSourceBeans()[sourceIndex];
-
-        Object bo = sourceBeans.get(sourceBean);
+        int index = source.argumentIndex;
+        
+        Object bo = (index >= 0 && index < businessObjects.length) ? businessObjects[index] : null;
         
         if (bo == null) {
-            throw new IllegalStateException("could not find source bean with name: " + sourceBean);
+            throw new IllegalStateException("could not find source bean with name: " + source.sourceBean);
         }
         
         //if it is the root object, then just return it.
-        if (StringUtils.equals(sourceProperty, Binding.ROOT_OBJECT)) {
+        if (source.rootObject) {
             return bo;
         }
         
-        Object sourceValue = modifier.readPropertyValue(sourceProperty, bo);
+        if (modifier instanceof PropertyPathBeanModifier) {
+            return ((PropertyPathBeanModifier) modifier).readPropertyValue(source.path, bo);
+        }
         
-        return sourceValue;
+        return modifier.readPropertyValue(source.property, bo);
     }
     
-    
-    private void populateSourceBeans(HashMap<String, Object> sourceBeans, BeanMetadata metadata, FieldMetadata fieldMetadata, Object[] bos) {
-
-        //clear the mappings
-        sourceBeans.clear();
-
-        //populate, by default the mapping on the field or else, the one on the ben.
-        String[] names = (ArrayUtils.isEmpty(fieldMetadata.getSourceBeanNames()))
-                ? metadata.getDefaultBeanNames() : fieldMetadata.getSourceBeanNames();
-
-        for (int i = 0; i < names.length; i++) {
-            String name = names[i];
-            Object bean = bos[i];
-            sourceBeans.put(name, bean);
+    private void writeTargetValue(BindingPlan.FieldStep step, Object value, Object target) {
+        
+        if (modifier instanceof PropertyPathBeanModifier) {
+            ((PropertyPathBeanModifier) modifier).writePropertyValue(step.targetPath, value, target);
+            return;
         }
-
-        //add the default bean name.
-        sourceBeans.put("", bos[0]);
+        
+        modifier.writePropertyValue(step.targetProperty, value, target);
     }
 
     //GETTERS AND SETTERS
@@ -387,6 +773,8 @@ class SimpleBinderDelegate implements Serializable {
 
     public void setModifier(BeanModifier modifier) {
         this.modifier = modifier;
+        //generated binders are only valid for the modifier they were built for.
+        binderBean.clearBindingPlans();
     }
 
     public PropertyValueMergerInstanceManager getMergerManager() {
@@ -395,5 +783,43 @@ class SimpleBinderDelegate implements Serializable {
 
     public void setMergerManager(PropertyValueMergerInstanceManager mergerManager) {
         this.mergerManager = mergerManager;
+        //the compiled plans hold merger instances of the previous manager.
+        binderBean.clearBindingPlans();
+    }
+
+    public boolean isGeneratedBindersEnabled() {
+        return generatedBindersEnabled;
+    }
+
+    public void setGeneratedBindersEnabled(boolean generatedBindersEnabled) {
+        this.generatedBindersEnabled = generatedBindersEnabled;
+    }
+
+    public Executor getCascadeExecutor() {
+        return cascadeExecutor;
+    }
+
+    public void setCascadeExecutor(Executor cascadeExecutor) {
+        this.cascadeExecutor = cascadeExecutor;
+    }
+
+    DTOInstancePool getInstancePool() {
+        return instancePool;
+    }
+
+    public BindingListener getListener() {
+        return listener;
+    }
+
+    public void setListener(BindingListener listener) {
+        this.listener = listener;
+    }
+
+    public boolean isCycleDetectionEnabled() {
+        return cycleDetectionEnabled;
+    }
+
+    public void setCycleDetectionEnabled(boolean cycleDetectionEnabled) {
+        this.cycleDetectionEnabled = cycleDetectionEnabled;
     }
 }
@@ -0,0 +1,133 @@
+/*
+ *    Copyright 2012 Juan Alberto López Cavallotti
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jdto.impl;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorCompletionService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Inspects DTO classes and compiles their binding plans ahead of the first
+ * binding, concurrently on an executor. The DTOs reached through cascades are
+ * warmed up as well. <br />
+ *
+ * A class which fails to warm up is logged and left out of the report, the
+ * rest of the classes are not affected.
+ *
+ * @since 1.5
+ */
+final class WarmUp {
+
+    private static final Logger logger = LoggerFactory.getLogger(WarmUp.class);
+
+    private WarmUp() {
+    }
+
+    /**
+     * Warm up the given classes and their cascaded DTOs.
+     * @param delegate the delegate which compiles the binding plans.
+     * @param registry the metadata registry of the binder.
+     * @param executor the executor to warm up the classes on.
+     * @param dtoClasses the DTO classes.
+     * @return the nanoseconds spent on each class, in completion order.
+     */
+    static Map<Class, Long> run(final SimpleBinderDelegate delegate, final MetadataRegistry registry, 
+            Executor executor, Collection<Class<?>> dtoClasses) {
+
+        CompletionService<Result> completion = new ExecutorCompletionService<Result>(executor);
+        Set<Class> submitted = new HashSet<Class>();
+        Map<Class, Long> ret = new LinkedHashMap<Class, Long>();
+        int pending = 0;
+
+        for (Class dtoClass : dtoClasses) {
+            if (submitted.add(dtoClass)) {
+                completion.submit(task(delegate, registry, dtoClass));
+                pending++;
+            }
+        }
+
+        try {
+            while (pending > 0) {
+                Result result = completion.take().get();
+                pending--;
+
+                if (result.failure != null) {
+                    logger.warn("Could not warm up " + result.dtoClass.getName(), result.failure);
+                    continue;
+                }
+
+                ret.put(result.dtoClass, result.nanos);
+
+                for (Class cascaded : result.cascades) {
+                    if (submitted.add(cascaded)) {
+                        completion.submit(task(delegate, registry, cascaded));
+                        pending++;
+                    }
+                }
+            }
+        } catch (InterruptedException ex) {
+            //the report is incomplete, the pending classes are warmed up anyway.
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException ex) {
+            //the tasks catch their own failures.
+            throw new IllegalStateException(ex.getCause());
+        }
+
+        return ret;
+    }
+
+    private static Callable<Result> task(final SimpleBinderDelegate delegate, final MetadataRegistry registry, final Class dtoClass) {
+        return new Callable<Result>() {
+            @Override
+            public Result call() {
+                Result ret = new Result(dtoClass);
+                long start = System.nanoTime();
+                try {
+                    ret.cascades = delegate.warmUp(registry, dtoClass);
+                } catch (RuntimeException ex) {
+                    ret.failure = ex;
+                }
+                ret.nanos = System.nanoTime() - start;
+                return ret;
+            }
+        };
+    }
+
+    /**
+     * The outcome of warming up a single class.
+     */
+    private static final class Result {
+
+        private final Class dtoClass;
+        private List<Class> cascades;
+        private RuntimeException failure;
+        private long nanos;
+
+        Result(Class dtoClass) {
+            this.dtoClass = dtoClass;
+        }
+    }
+}
@@ -19,17 +19,24 @@ import org.apache.commons.lang3.StringUtils;
 import org.jdto.impl.xml.DTOConstructorArg;
 import org.jdto.impl.xml.DTOElement;
 import org.jdto.impl.xml.DTOMappings;
+import org.jdto.impl.xml.DTOMappingsReader;
 import org.jdto.impl.xml.DTOTargetField;
 
-import javax.xml.bind.JAXBContext;
-import javax.xml.bind.Unmarshaller;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.Serializable;
 import java.lang.annotation.Annotation;
 import java.lang.reflect.Constructor;
 import java.lang.reflect.Method;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.FutureTask;
 
 /**
  * WARNING: THIS CLASS IS NOT PART OF JDTO PUBLIC API
@@ -60,13 +67,15 @@ public class XMLBeanInspector extends AbstractBeanInspector implements Serializa
 
         FieldMetadata metadata = buildDefaultFieldMetadata(propertyName);
 
-        if (!targetFieldMappings.containsKey(beanClass.getName())) {
+        HashMap<String, DTOTargetField> targetFields = findTargetFields(beanClass.getName());
+
+        if (targetFields == null) {
             logger.info("No settings for bean: " + beanClass.getName() + " using default values...");
             return metadata;
         }
 
         //build metadata from an xml file.
-        DTOTargetField config = targetFieldMappings.get(beanClass.getName()).get(propertyName);
+        DTOTargetField config = targetFields.get(propertyName);
 
         //if no config, then apply default.
         if (config == null) {
@@ -117,6 +126,17 @@ public class XMLBeanInspector extends AbstractBeanInspector implements Serializa
         return XMLBeanMetadataReader.readDefaultBeanNames(element);
     }
 
+    /**
+     * Read whether the given class is declared as acyclic.
+     * @param beanClass
+     * @return the value of the acyclic attribute of the dto element.
+     */
+    @Override
+    boolean readAcyclic(Class beanClass) {
+        DTOElement element = configuredDtos.get(beanClass.getName());
+        return element != null && element.isAcyclic();
+    }
+
     /**
      * Build an instance of XML bean inspector by reading the configuration file
      * in the default location, see {@link XMLBeanInspector#DEFAULT_PACKAGE_RESOURCE}
@@ -173,11 +193,21 @@ public class XMLBeanInspector extends AbstractBeanInspector implements Serializa
             }
         }
     }
+    /**
+     * Runs the tasks on the calling thread.
+     */
+    private static final Executor SAME_THREAD = new Executor() {
+        @Override
+        public void execute(Runnable command) {
+            command.run();
+        }
+    };
     private final DTOMappings mappings;
     //convenience map to access easily class and fields config.
     private final HashMap<String, DTOElement> configuredDtos;
-    private final HashMap<String, HashMap<String, DTOTargetField>> targetFieldMappings;
-    private final HashMap<String, DTOConstructorArg[]> constrcutrorArgMappings;
+    //the field and constructor configurations are indexed on first use.
+    private final ConcurrentHashMap<String, HashMap<String, DTOTargetField>> targetFieldMappings;
+    private final ConcurrentHashMap<String, DTOConstructorArg[]> constrcutrorArgMappings;
 
     /**
      * Read the XML file which can be read by accessing the input stream taken 
@@ -192,8 +222,8 @@ public class XMLBeanInspector extends AbstractBeanInspector implements Serializa
 
         mappings = parseXML(xmlStream);
         configuredDtos = new HashMap<String, DTOElement>();
-        targetFieldMappings = new HashMap<String, HashMap<String, DTOTargetField>>();
-        constrcutrorArgMappings = new HashMap<String, DTOConstructorArg[]>();
+        targetFieldMappings = new ConcurrentHashMap<String, HashMap<String, DTOTargetField>>();
+        constrcutrorArgMappings = new ConcurrentHashMap<String, DTOConstructorArg[]>();
         
         //mappings can be null for pefectly valid xml files so we check that
         if (mappings.getElements() == null) {
@@ -201,41 +231,77 @@ public class XMLBeanInspector extends AbstractBeanInspector implements Serializa
             return;
         }
         
-        //populate the target field mappings.
+        //index the configured dtos by type.
         for (DTOElement dto : mappings.getElements()) {
+            configuredDtos.put(dto.getType(), dto);
+        }
+    }
 
-            HashMap<String, DTOTargetField> fieldsMapping = new HashMap<String, DTOTargetField>();
+    /**
+     * Find the field configurations of a configured DTO.
+     * @param beanClassName
+     * @return the field configurations by name or null if the DTO is not configured.
+     */
+    private HashMap<String, DTOTargetField> findTargetFields(String beanClassName) {
+        HashMap<String, DTOTargetField> ret = targetFieldMappings.get(beanClassName);
+        
+        if (ret != null) {
+            return ret;
+        }
+        
+        DTOElement dto = configuredDtos.get(beanClassName);
+        
+        if (dto == null) {
+            return null;
+        }
+        
+        ret = new HashMap<String, DTOTargetField>();
 
-            //if the constructor is immutable this may cause problems.
-            if (dto.getTargetFields() != null) {
-                for (DTOTargetField targetField : dto.getTargetFields()) {
-                    fieldsMapping.put(targetField.getFieldName(), targetField);
-                }
+        //if the constructor is immutable this may cause problems.
+        if (dto.getTargetFields() != null) {
+            for (DTOTargetField targetField : dto.getTargetFields()) {
+                ret.put(targetField.getFieldName(), targetField);
             }
+        }
+        
+        targetFieldMappings.putIfAbsent(beanClassName, ret);
+        return ret;
+    }
 
-            configuredDtos.put(dto.getType(), dto);
-            targetFieldMappings.put(dto.getType(), fieldsMapping);
-
-            if (dto.getConstructorArgs() == null) {
-                continue;
-            }
+    /**
+     * Find the constructor argument configurations of a configured DTO.
+     * @param beanClassName
+     * @return the arguments in order or null if the DTO has no constructor configuration.
+     */
+    private DTOConstructorArg[] findConstructorArgs(String beanClassName) {
+        DTOConstructorArg[] args = constrcutrorArgMappings.get(beanClassName);
+        
+        if (args != null) {
+            return args;
+        }
+        
+        DTOElement dto = configuredDtos.get(beanClassName);
+        
+        if (dto == null || dto.getConstructorArgs() == null) {
+            return null;
+        }
 
-            DTOConstructorArg[] args = new DTOConstructorArg[dto.getConstructorArgs().size()];
-
-            //read the constructor args
-            for (int i = 0; i < dto.getConstructorArgs().size(); i++) {
-                DTOConstructorArg arg = dto.getConstructorArgs().get(i);
-                if (arg.getOrder() != null) {
-                    //if the argument has a specific order, then place it.
-                    args[arg.getOrder()] = arg;
-                } else {
-                    //otherwise use the declaration order.
-                    args[i] = arg;
-                }
+        args = new DTOConstructorArg[dto.getConstructorArgs().size()];
+
+        //read the constructor args
+        for (int i = 0; i < dto.getConstructorArgs().size(); i++) {
+            DTOConstructorArg arg = dto.getConstructorArgs().get(i);
+            if (arg.getOrder() != null) {
+                //if the argument has a specific order, then place it.
+                args[arg.getOrder()] = arg;
+            } else {
+                //otherwise use the declaration order.
+                args[i] = arg;
             }
-
-            constrcutrorArgMappings.put(dto.getType(), args);
         }
+
+        constrcutrorArgMappings.putIfAbsent(beanClassName, args);
+        return args;
     }
 
     /**
@@ -245,12 +311,7 @@ public class XMLBeanInspector extends AbstractBeanInspector implements Serializa
      */
     private DTOMappings parseXML(InputStream xmlStream) {
         try {
-            JAXBContext context = JAXBContext.newInstance(DTOMappings.class);
-
-            Unmarshaller unmarshaller = context.createUnmarshaller();
-            DTOMappings inputMappings = (DTOMappings) unmarshaller.unmarshal(xmlStream);
-
-            return inputMappings;
+            return DTOMappingsReader.read(xmlStream);
         } catch (Exception ex) {
             logger.error("Got exception while parsing xml file", ex);
             throw new RuntimeException(ex);
@@ -268,30 +329,82 @@ public class XMLBeanInspector extends AbstractBeanInspector implements Serializa
 
     /**
      * Build the bean metadata based on the information recovered on the xml on
-     * an eager way!
-     * parsing process
+     * an eager way! The DTO elements are inspected in parallel on a temporary
+     * pool with a thread per processor.
+     * @return the binding metadata generated out of the XML configuration file.
+     */
+    public HashMap<Class, BeanMetadata> buildMetadata() {
+        List<DTOElement> elements = mappings.getElements();
+        
+        if (elements == null || elements.size() < 2) {
+            return buildMetadata(SAME_THREAD);
+        }
+        
+        int threads = Math.min(elements.size(), Runtime.getRuntime().availableProcessors());
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        try {
+            return buildMetadata(pool);
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * Build the bean metadata based on the information recovered on the xml,
+     * inspecting each DTO element as a task on the given executor. <br />
+     * 
+     * Elements which fail to be inspected are logged and left out of the 
+     * result, so they don't prevent the rest from being built. Those classes
+     * are inspected again when they are first bound.
+     * @param executor the executor to inspect the DTO elements on.
      * @return the binding metadata generated out of the XML configuration file.
+     * @since 1.5
      */
-    public synchronized HashMap<Class, BeanMetadata> buildMetadata() {
-        HashMap<Class, BeanMetadata> ret = new HashMap<Class, BeanMetadata>();
+    public HashMap<Class, BeanMetadata> buildMetadata(Executor executor) {
+        final ConcurrentHashMap<Class, BeanMetadata> ret = new ConcurrentHashMap<Class, BeanMetadata>();
         
         if (mappings.getElements() == null) {
-            return ret;
+            return new HashMap<Class, BeanMetadata>();
         }
 
+        List<FutureTask<Object>> tasks = new ArrayList<FutureTask<Object>>();
+        
         //for each configured dto, build its metadata.
-        for (DTOElement dtoElement : mappings.getElements()) {
-            Class dtoClass = BeanClassUtils.safeGetClass(dtoElement.getType());
-            if (dtoClass == null) {
-                logger.warn("could not find bean of type: " + dtoElement.getType() + " so i will ignore it!");
-                continue;
-            }
+        for (final DTOElement dtoElement : mappings.getElements()) {
+            FutureTask<Object> task = new FutureTask<Object>(new Runnable() {
+                @Override
+                public void run() {
+                    Class dtoClass = BeanClassUtils.safeGetClass(dtoElement.getType());
+                    if (dtoClass == null) {
+                        logger.warn("could not find bean of type: " + dtoElement.getType() + " so i will ignore it!");
+                        return;
+                    }
+
+                    try {
+                        ret.put(dtoClass, inspectBean(dtoClass));
+                    } catch (RuntimeException ex) {
+                        logger.error("Could not build the metadata of " + dtoElement.getType() + ", it will be inspected on first use", ex);
+                    }
+                }
+            }, null);
+            
+            tasks.add(task);
+            executor.execute(task);
+        }
 
-            BeanMetadata dtoMetadata = super.inspectBean(dtoClass);
-            ret.put(dtoClass, dtoMetadata);
+        try {
+            for (FutureTask<Object> task : tasks) {
+                task.get();
+            }
+        } catch (InterruptedException ex) {
+            //the missing classes will be inspected on first use.
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException ex) {
+            //errors other than runtime exceptions.
+            throw new IllegalStateException("Could not build the metadata", ex.getCause());
         }
 
-        return ret;
+        return new HashMap<Class, BeanMetadata>(ret);
     }
 
     @Override
@@ -300,13 +413,15 @@ public class XMLBeanInspector extends AbstractBeanInspector implements Serializa
 
         FieldMetadata metadata = buildDefaultFieldMetadata(propertyName);
 
-        if (!constrcutrorArgMappings.containsKey(beanClass.getName())) {
+        DTOConstructorArg[] args = findConstructorArgs(beanClass.getName());
+
+        if (args == null) {
             logger.info("No settings for arg: " + parameterIndex + " of bean: " + beanClass.getName() + " using default values...");
             return metadata;
         }
 
         //build metadata from an xml file.
-        DTOConstructorArg arg = constrcutrorArgMappings.get(beanClass.getName())[parameterIndex];
+        DTOConstructorArg arg = args[parameterIndex];
 
         //if no config, then apply default.
         if (arg == null) {
@@ -339,7 +454,7 @@ public class XMLBeanInspector extends AbstractBeanInspector implements Serializa
      */
     @Override
     Constructor findAppropiateConstructor(Class beanClass) {
-        DTOConstructorArg[] args = constrcutrorArgMappings.get(beanClass.getName());
+        DTOConstructorArg[] args = findConstructorArgs(beanClass.getName());
 
         Class[] types = new Class[args.length];
 
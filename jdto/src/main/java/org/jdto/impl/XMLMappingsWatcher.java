@@ -0,0 +1,126 @@
+/*
+ *    Copyright 2012 Juan Alberto López Cavallotti
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jdto.impl;
+
+import java.io.BufferedInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Reloads the mappings of a binder when its XML configuration file changes.
+ * Each run checks the modification time and size of the file and, if they
+ * changed, reloads the mappings with 
+ * {@link DTOBinderBean#reloadMappings(java.io.InputStream) }. <br />
+ *
+ * The watcher is meant to be scheduled periodically, see 
+ * {@link #watch(DTOBinderBean, File, ScheduledExecutorService, long, TimeUnit) }.
+ * A file which can't be read is logged and not read again until it changes, 
+ * the binder keeps its current mappings meanwhile.
+ *
+ * @since 1.5
+ */
+public class XMLMappingsWatcher implements Runnable {
+
+    private static final Logger logger = LoggerFactory.getLogger(XMLMappingsWatcher.class);
+    private final DTOBinderBean binder;
+    private final File mappingsFile;
+    private long lastModified;
+    private long length;
+
+    /**
+     * Watch the given file, the current version of the file is assumed to be
+     * already loaded on the binder.
+     * @param binder the binder to reload.
+     * @param mappingsFile the XML configuration file.
+     */
+    public XMLMappingsWatcher(DTOBinderBean binder, File mappingsFile) {
+        if (binder == null || mappingsFile == null) {
+            throw new IllegalArgumentException("The binder and the mappings file should not be null");
+        }
+        
+        this.binder = binder;
+        this.mappingsFile = mappingsFile;
+        this.lastModified = mappingsFile.lastModified();
+        this.length = mappingsFile.length();
+    }
+
+    /**
+     * Check the file every period on the given scheduler.
+     * @param binder the binder to reload.
+     * @param mappingsFile the XML configuration file.
+     * @param scheduler the scheduler to run the checks and reloads on.
+     * @param period the time between checks.
+     * @param unit the unit of the period.
+     * @return the future of the scheduled checks, cancel it to stop watching.
+     */
+    public static ScheduledFuture<?> watch(DTOBinderBean binder, File mappingsFile, 
+            ScheduledExecutorService scheduler, long period, TimeUnit unit) {
+        return scheduler.scheduleWithFixedDelay(new XMLMappingsWatcher(binder, mappingsFile), period, period, unit);
+    }
+
+    /**
+     * Reload the mappings if the file changed, logging any failure.
+     */
+    @Override
+    public void run() {
+        try {
+            reloadIfChanged();
+        } catch (IOException ex) {
+            logger.error("Could not read " + mappingsFile + ", keeping the current mappings", ex);
+        } catch (RuntimeException ex) {
+            logger.error("Could not reload " + mappingsFile + ", keeping the current mappings", ex);
+        }
+    }
+
+    /**
+     * Reload the mappings if the file changed since the last check.
+     * @return true if the mappings were reloaded.
+     * @throws IOException if the file can't be read.
+     */
+    public synchronized boolean reloadIfChanged() throws IOException {
+        long modified = mappingsFile.lastModified();
+        long size = mappingsFile.length();
+
+        if (modified == lastModified && size == length) {
+            return false;
+        }
+
+        //a broken file is not read again until it changes.
+        lastModified = modified;
+        length = size;
+
+        if (modified == 0L) {
+            logger.warn("Mappings file " + mappingsFile + " is missing, keeping the current mappings");
+            return false;
+        }
+
+        InputStream is = new BufferedInputStream(new FileInputStream(mappingsFile));
+        try {
+            int count = binder.reloadMappings(is);
+            logger.info("Reloaded the mappings of " + count + " DTOs from " + mappingsFile);
+            return true;
+        } finally {
+            is.close();
+        }
+    }
+}
@@ -38,6 +38,7 @@ public class DTOElement implements Serializable {
     private List<String> beanNames;
     private List<DTOTargetField> targetFields;
     private List<DTOConstructorArg> constructorArgs;
+    private boolean acyclic;
     
     public DTOElement() {
     }
@@ -51,6 +52,15 @@ public class DTOElement implements Serializable {
         this.type = type;
     }
     
+    @XmlAttribute(name="acyclic")
+    public boolean isAcyclic() {
+        return acyclic;
+    }
+
+    public void setAcyclic(boolean acyclic) {
+        this.acyclic = acyclic;
+    }
+    
     @XmlElementWrapper(name="sourceNames")
     @XmlElement(name = "beanName")
     public List<String> getBeanNames() {
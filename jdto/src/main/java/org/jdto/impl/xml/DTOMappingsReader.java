@@ -0,0 +1,204 @@
+/*
+ *    Copyright 2012 Juan Alberto López Cavallotti
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jdto.impl.xml;
+
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+/**
+ * Reads the XML configuration file in a single streaming pass, populating the
+ * configuration objects directly without building a JAXB context. <br />
+ *
+ * Elements are matched by their local name, unknown elements are skipped.
+ *
+ * @since 1.5
+ */
+public final class DTOMappingsReader {
+
+    private static final XMLInputFactory factory = createFactory();
+
+    private DTOMappingsReader() {
+    }
+
+    /**
+     * Read the mappings from the given stream.
+     * @param xmlStream the stream to read, it's not closed.
+     * @return the mappings, whose elements are null if there are no DTOs.
+     * @throws XMLStreamException if the stream is not a valid mappings file.
+     */
+    public static DTOMappings read(InputStream xmlStream) throws XMLStreamException {
+        XMLStreamReader reader = factory.createXMLStreamReader(xmlStream);
+        try {
+            reader.nextTag();
+            
+            if (!"dto-mapping".equals(reader.getLocalName())) {
+                throw new XMLStreamException("Unexpected root element: " + reader.getLocalName(), reader.getLocation());
+            }
+
+            DTOMappings ret = new DTOMappings();
+            while (reader.nextTag() == XMLStreamConstants.START_ELEMENT) {
+                if ("dto".equals(reader.getLocalName())) {
+                    ret.setElements(add(ret.getElements(), readElement(reader)));
+                } else {
+                    skipElement(reader);
+                }
+            }
+
+            return ret;
+        } finally {
+            reader.close();
+        }
+    }
+
+    private static DTOElement readElement(XMLStreamReader reader) throws XMLStreamException {
+        DTOElement ret = new DTOElement();
+        ret.setType(reader.getAttributeValue(null, "type"));
+        ret.setAcyclic(readBoolean(reader, "acyclic"));
+
+        while (reader.nextTag() == XMLStreamConstants.START_ELEMENT) {
+            String name = reader.getLocalName();
+
+            if ("field".equals(name)) {
+                ret.setTargetFields(add(ret.getTargetFields(), readTargetField(reader)));
+            } else if ("sourceNames".equals(name)) {
+                ret.setBeanNames(readBeanNames(reader));
+            } else if ("immutableConstructor".equals(name)) {
+                ret.setConstructorArgs(readConstructorArgs(reader));
+            } else {
+                skipElement(reader);
+            }
+        }
+
+        return ret;
+    }
+
+    private static List<String> readBeanNames(XMLStreamReader reader) throws XMLStreamException {
+        List<String> ret = new ArrayList<String>();
+
+        while (reader.nextTag() == XMLStreamConstants.START_ELEMENT) {
+            if ("beanName".equals(reader.getLocalName())) {
+                ret.add(reader.getElementText().trim());
+            } else {
+                skipElement(reader);
+            }
+        }
+
+        return ret;
+    }
+
+    private static List<DTOConstructorArg> readConstructorArgs(XMLStreamReader reader) throws XMLStreamException {
+        List<DTOConstructorArg> ret = new ArrayList<DTOConstructorArg>();
+
+        while (reader.nextTag() == XMLStreamConstants.START_ELEMENT) {
+            if (!"arg".equals(reader.getLocalName())) {
+                skipElement(reader);
+                continue;
+            }
+
+            DTOConstructorArg arg = new DTOConstructorArg();
+            String order = reader.getAttributeValue(null, "order");
+            arg.setOrder(order == null ? null : Integer.valueOf(order.trim()));
+            arg.setType(reader.getAttributeValue(null, "type"));
+            arg.setCascade(readBoolean(reader, "cascade"));
+            arg.setFieldType(reader.getAttributeValue(null, "cascadeType"));
+            arg.setMerger(reader.getAttributeValue(null, "merger"));
+            arg.setMergerParam(reader.getAttributeValue(null, "mergerParam"));
+            arg.setSources(readSources(reader));
+            ret.add(arg);
+        }
+
+        return ret;
+    }
+
+    private static DTOTargetField readTargetField(XMLStreamReader reader) throws XMLStreamException {
+        DTOTargetField ret = new DTOTargetField();
+        ret.setFieldName(reader.getAttributeValue(null, "name"));
+        ret.setCascade(readBoolean(reader, "cascade"));
+        ret.setDtoTransient(readBoolean(reader, "transient"));
+        ret.setFieldType(reader.getAttributeValue(null, "cascadeType"));
+        ret.setMerger(reader.getAttributeValue(null, "merger"));
+        ret.setMergerParam(reader.getAttributeValue(null, "mergerParam"));
+        ret.setSources(readSources(reader));
+        return ret;
+    }
+
+    /**
+     * Read the source elements of the current element, up to its end.
+     */
+    private static List<DTOSourceField> readSources(XMLStreamReader reader) throws XMLStreamException {
+        List<DTOSourceField> ret = null;
+
+        while (reader.nextTag() == XMLStreamConstants.START_ELEMENT) {
+            if ("source".equals(reader.getLocalName())) {
+                DTOSourceField source = new DTOSourceField();
+                source.setName(reader.getAttributeValue(null, "name"));
+                source.setSourceBean(reader.getAttributeValue(null, "bean"));
+                source.setMerger(reader.getAttributeValue(null, "merger"));
+                source.setMergerParam(reader.getAttributeValue(null, "mergerParam"));
+                ret = add(ret, source);
+            }
+            skipElement(reader);
+        }
+
+        return ret;
+    }
+
+    /**
+     * Move the reader to the end of the current element.
+     */
+    private static void skipElement(XMLStreamReader reader) throws XMLStreamException {
+        int depth = 1;
+        while (depth > 0) {
+            int event = reader.next();
+            if (event == XMLStreamConstants.START_ELEMENT) {
+                depth++;
+            } else if (event == XMLStreamConstants.END_ELEMENT) {
+                depth--;
+            }
+        }
+    }
+
+    private static boolean readBoolean(XMLStreamReader reader, String attribute) {
+        String value = reader.getAttributeValue(null, attribute);
+
+        if (value == null) {
+            return false;
+        }
+
+        value = value.trim();
+        return "true".equals(value) || "1".equals(value);
+    }
+
+    private static <T> List<T> add(List<T> list, T item) {
+        List<T> ret = (list == null) ? new ArrayList<T>() : list;
+        ret.add(item);
+        return ret;
+    }
+
+    private static XMLInputFactory createFactory() {
+        XMLInputFactory ret = XMLInputFactory.newInstance();
+        //mapping files don't need external entities.
+        ret.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        ret.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+        ret.setProperty(XMLInputFactory.IS_COALESCING, true);
+        return ret;
+    }
+}
@@ -0,0 +1,154 @@
+/*
+ *    Copyright 2012 Juan Alberto López Cavallotti
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jdto.metrics;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import org.jdto.BindingListener;
+
+/**
+ * Binding listener which aggregates the timings into a latency histogram per
+ * DTO class and per field, for each kind of event. Once a DTO and its fields
+ * have been seen, recording a timing allocates nothing and threads binding 
+ * at the same time rarely contend. <br />
+ * 
+ * Register it with {@link org.jdto.impl.DTOBinderBean#setBindingListener(BindingListener) }
+ * and hand the metrics to a monitoring system with {@link #exportTo(MetricsExporter) }.
+ *
+ * @since 1.5
+ */
+public class BindingMetrics implements BindingListener {
+
+    private final ConcurrentMap<Class<?>, DTOMetrics> dtoMetrics = new ConcurrentHashMap<Class<?>, DTOMetrics>();
+
+    @Override
+    public void dtoBound(Class<?> dtoClass, long nanos) {
+        findMetrics(dtoClass).bind.record(nanos);
+    }
+
+    @Override
+    public void sourceRead(Class<?> dtoClass, String property, long nanos) {
+        findHistogram(findMetrics(dtoClass).reads, property).record(nanos);
+    }
+
+    @Override
+    public void mergerCalled(Class<?> dtoClass, String property, Class<?> mergerClass, long nanos) {
+        findHistogram(findMetrics(dtoClass).merges, property).record(nanos);
+    }
+
+    @Override
+    public void cascadeBound(Class<?> dtoClass, String property, long nanos) {
+        findHistogram(findMetrics(dtoClass).cascades, property).record(nanos);
+    }
+
+    /**
+     * Get the latencies of a kind of event.
+     * @param kind the kind of event.
+     * @param dtoClass the class of the DTO.
+     * @param property the target property, ignored for {@link MetricKind#BIND}.
+     * @return the histogram or null if no such event has been measured.
+     */
+    public LatencyHistogram getLatencies(MetricKind kind, Class<?> dtoClass, String property) {
+        DTOMetrics metrics = dtoMetrics.get(dtoClass);
+        
+        if (metrics == null) {
+            return null;
+        }
+        
+        switch (kind) {
+            case BIND:
+                return metrics.bind;
+            case SOURCE_READ:
+                return metrics.reads.get(property);
+            case MERGE:
+                return metrics.merges.get(property);
+            case CASCADE:
+                return metrics.cascades.get(property);
+            default:
+                return null;
+        }
+    }
+
+    /**
+     * Hand every histogram to the given exporter, the DTO bindings first and
+     * then the events of each field.
+     * @param exporter the exporter.
+     */
+    public void exportTo(MetricsExporter exporter) {
+        for (Map.Entry<Class<?>, DTOMetrics> entry : dtoMetrics.entrySet()) {
+            Class<?> dtoClass = entry.getKey();
+            DTOMetrics metrics = entry.getValue();
+            
+            exporter.export(MetricKind.BIND, dtoClass, null, metrics.bind);
+            export(exporter, MetricKind.SOURCE_READ, dtoClass, metrics.reads);
+            export(exporter, MetricKind.MERGE, dtoClass, metrics.merges);
+            export(exporter, MetricKind.CASCADE, dtoClass, metrics.cascades);
+        }
+    }
+
+    /**
+     * Forget every measured timing.
+     */
+    public void clear() {
+        dtoMetrics.clear();
+    }
+
+    private void export(MetricsExporter exporter, MetricKind kind, Class<?> dtoClass, Map<String, LatencyHistogram> histograms) {
+        for (Map.Entry<String, LatencyHistogram> entry : histograms.entrySet()) {
+            exporter.export(kind, dtoClass, entry.getKey(), entry.getValue());
+        }
+    }
+
+    private DTOMetrics findMetrics(Class<?> dtoClass) {
+        DTOMetrics ret = dtoMetrics.get(dtoClass);
+        
+        if (ret == null) {
+            DTOMetrics created = new DTOMetrics();
+            ret = dtoMetrics.putIfAbsent(dtoClass, created);
+            if (ret == null) {
+                ret = created;
+            }
+        }
+        
+        return ret;
+    }
+
+    private static LatencyHistogram findHistogram(ConcurrentMap<String, LatencyHistogram> histograms, String property) {
+        LatencyHistogram ret = histograms.get(property);
+        
+        if (ret == null) {
+            LatencyHistogram created = new LatencyHistogram();
+            ret = histograms.putIfAbsent(property, created);
+            if (ret == null) {
+                ret = created;
+            }
+        }
+        
+        return ret;
+    }
+
+    /**
+     * The histograms of a DTO class.
+     */
+    private static final class DTOMetrics {
+
+        private final LatencyHistogram bind = new LatencyHistogram();
+        private final ConcurrentMap<String, LatencyHistogram> reads = new ConcurrentHashMap<String, LatencyHistogram>();
+        private final ConcurrentMap<String, LatencyHistogram> merges = new ConcurrentHashMap<String, LatencyHistogram>();
+        private final ConcurrentMap<String, LatencyHistogram> cascades = new ConcurrentHashMap<String, LatencyHistogram>();
+    }
+}
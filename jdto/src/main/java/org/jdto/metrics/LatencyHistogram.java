@@ -0,0 +1,150 @@
+/*
+ *    Copyright 2012 Juan Alberto López Cavallotti
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jdto.metrics;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Counts latencies on buckets whose bounds are powers of two of nanoseconds,
+ * from under a nanosecond up to about 68 seconds, anything slower falls on
+ * the last bucket. Percentiles are approximated by the upper bound of the 
+ * bucket they fall on, so they are at most twice the real value. <br />
+ * 
+ * Updates of different threads are spread over a few stripes of buckets, 
+ * like on {@link StripedCounter}.
+ *
+ * @since 1.5
+ */
+public final class LatencyHistogram {
+
+    /**
+     * The amount of buckets, the upper bound of the bucket i is 2^i nanoseconds.
+     */
+    public static final int BUCKETS = 37;
+    
+    /**
+     * Histograms are more numerous than counters, so they use fewer stripes.
+     */
+    private static final int STRIPES = Math.min(StripedCounter.STRIPES, 4);
+    
+    private final AtomicLongArray buckets = new AtomicLongArray(STRIPES * BUCKETS);
+    private final StripedCounter totalNanos = new StripedCounter();
+
+    /**
+     * Record a latency.
+     * @param nanos the latency in nanoseconds.
+     */
+    public void record(long nanos) {
+        int stripe = StripedCounter.stripe() & (STRIPES - 1);
+        buckets.incrementAndGet(stripe * BUCKETS + bucket(nanos));
+        totalNanos.add(nanos);
+    }
+
+    /**
+     * The amount of recorded latencies.
+     * @return the count.
+     */
+    public long getCount() {
+        long ret = 0L;
+        for (long count : getBuckets()) {
+            ret += count;
+        }
+        return ret;
+    }
+
+    /**
+     * The sum of the recorded latencies.
+     * @return the total in nanoseconds.
+     */
+    public long getTotalNanos() {
+        return totalNanos.sum();
+    }
+
+    /**
+     * The average of the recorded latencies.
+     * @return the mean in nanoseconds, zero if there are none.
+     */
+    public double getMeanNanos() {
+        long count = getCount();
+        return (count == 0L) ? 0.0 : (double) getTotalNanos() / count;
+    }
+
+    /**
+     * The upper bound of the bucket the given percentile falls on.
+     * @param percentile the percentile, between 0 and 100.
+     * @return the latency in nanoseconds, zero if there are no latencies.
+     */
+    public long getPercentileNanos(double percentile) {
+        if (percentile < 0.0 || percentile > 100.0) {
+            throw new IllegalArgumentException("The percentile should be between 0 and 100");
+        }
+        
+        long[] counts = getBuckets();
+        long count = 0L;
+        for (long bucketCount : counts) {
+            count += bucketCount;
+        }
+        
+        if (count == 0L) {
+            return 0L;
+        }
+        
+        long rank = Math.max(1L, (long) Math.ceil(count * percentile / 100.0));
+        long seen = 0L;
+        for (int i = 0; i < counts.length; i++) {
+            seen += counts[i];
+            if (seen >= rank) {
+                return upperBound(i);
+            }
+        }
+        
+        return upperBound(BUCKETS - 1);
+    }
+
+    /**
+     * The counts of each bucket.
+     * @return a new array with the count of the bucket i on the position i.
+     */
+    public long[] getBuckets() {
+        long[] ret = new long[BUCKETS];
+        for (int stripe = 0; stripe < STRIPES; stripe++) {
+            for (int i = 0; i < BUCKETS; i++) {
+                ret[i] += buckets.get(stripe * BUCKETS + i);
+            }
+        }
+        return ret;
+    }
+
+    /**
+     * The upper bound of a bucket.
+     * @param bucket the index of the bucket.
+     * @return the upper bound in nanoseconds.
+     */
+    public static long upperBound(int bucket) {
+        return 1L << bucket;
+    }
+
+    /**
+     * The bucket of a latency, the first one whose upper bound is not lower.
+     */
+    static int bucket(long nanos) {
+        if (nanos <= 1L) {
+            return 0;
+        }
+        int ret = 64 - Long.numberOfLeadingZeros(nanos - 1);
+        return Math.min(ret, BUCKETS - 1);
+    }
+}
@@ -0,0 +1,47 @@
+/*
+ *    Copyright 2012 Juan Alberto López Cavallotti
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jdto.metrics;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Metrics exporter which writes a line per histogram to the log, with the
+ * count, the mean and a few percentiles in microseconds.
+ *
+ * @since 1.5
+ */
+public class LoggingMetricsExporter implements MetricsExporter {
+
+    private static final Logger logger = LoggerFactory.getLogger(LoggingMetricsExporter.class);
+
+    @Override
+    public void export(MetricKind kind, Class<?> dtoClass, String property, LatencyHistogram latencies) {
+        
+        if (!logger.isInfoEnabled()) {
+            return;
+        }
+        
+        String name = (property == null) ? dtoClass.getName() : dtoClass.getName() + "." + property;
+        
+        logger.info(String.format("%s %s: count=%d mean=%.3fus p50=%.3fus p99=%.3fus max=%.3fus", 
+                kind, name, latencies.getCount(), 
+                latencies.getMeanNanos() / 1000.0, 
+                latencies.getPercentileNanos(50.0) / 1000.0,
+                latencies.getPercentileNanos(99.0) / 1000.0,
+                latencies.getPercentileNanos(100.0) / 1000.0));
+    }
+}
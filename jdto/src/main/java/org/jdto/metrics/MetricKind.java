@@ -0,0 +1,41 @@
+/*
+ *    Copyright 2012 Juan Alberto López Cavallotti
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jdto.metrics;
+
+/**
+ * The kinds of events measured by {@link BindingMetrics}.
+ *
+ * @since 1.5
+ */
+public enum MetricKind {
+
+    /**
+     * The binding of whole DTOs.
+     */
+    BIND,
+    /**
+     * The reads of the source values of a field.
+     */
+    SOURCE_READ,
+    /**
+     * The calls to the mergers of a field.
+     */
+    MERGE,
+    /**
+     * The binding of a cascaded field.
+     */
+    CASCADE
+}
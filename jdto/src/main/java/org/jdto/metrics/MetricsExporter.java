@@ -0,0 +1,35 @@
+/*
+ *    Copyright 2012 Juan Alberto López Cavallotti
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jdto.metrics;
+
+/**
+ * Receives the metrics aggregated by {@link BindingMetrics}, usually to feed
+ * them into a monitoring system. See {@link BindingMetrics#exportTo(MetricsExporter) }.
+ *
+ * @since 1.5
+ */
+public interface MetricsExporter {
+
+    /**
+     * Receive the latencies of one kind of event on a DTO or on one of its
+     * fields.
+     * @param kind the kind of event.
+     * @param dtoClass the class of the DTO.
+     * @param property the target property or null for the binding of whole DTOs.
+     * @param latencies the latencies of the event, which keep being updated.
+     */
+    public void export(MetricKind kind, Class<?> dtoClass, String property, LatencyHistogram latencies);
+}
@@ -0,0 +1,92 @@
+/*
+ *    Copyright 2012 Juan Alberto López Cavallotti
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jdto.metrics;
+
+import java.io.Serializable;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A counter which spreads the updates of different threads over several
+ * cells, so threads updating it at the same time rarely contend on the same
+ * cache line. Reading the value adds all of the cells up. <br />
+ * 
+ * The sum is not an atomic snapshot when there are concurrent updates, which
+ * is fine for metrics.
+ *
+ * @since 1.5
+ */
+public final class StripedCounter implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * Cells are this amount of longs apart, so they don't share cache lines.
+     */
+    private static final int PADDING = 8;
+    
+    static final int STRIPES = stripes(Runtime.getRuntime().availableProcessors());
+    
+    private final AtomicLongArray cells = new AtomicLongArray(STRIPES * PADDING);
+
+    /**
+     * Add the given amount to the counter.
+     * @param amount the amount to add.
+     */
+    public void add(long amount) {
+        //the cells may come from a machine with a different amount of processors.
+        int stripes = cells.length() / PADDING;
+        cells.addAndGet((stripe() & (stripes - 1)) * PADDING, amount);
+    }
+
+    /**
+     * Add one to the counter.
+     */
+    public void increment() {
+        add(1L);
+    }
+
+    /**
+     * The current value of the counter.
+     * @return the sum of all of the cells.
+     */
+    public long sum() {
+        long ret = 0L;
+        for (int i = 0; i < cells.length(); i += PADDING) {
+            ret += cells.get(i);
+        }
+        return ret;
+    }
+
+    /**
+     * The stripe of the current thread, to be masked by the amount of stripes.
+     */
+    static int stripe() {
+        long id = Thread.currentThread().getId();
+        int hash = (int) (id ^ (id >>> 32)) * 0x9E3779B9;
+        return hash >>> 16;
+    }
+
+    /**
+     * The power of two at least as large as the amount of processors, up to 64.
+     */
+    private static int stripes(int processors) {
+        int ret = 1;
+        while (ret < processors && ret < 64) {
+            ret <<= 1;
+        }
+        return ret;
+    }
+}
@@ -17,6 +17,7 @@
 package org.jdto.spring;
 
 import org.apache.commons.lang3.StringUtils;
+import org.jdto.PropertyPath;
 import org.jdto.impl.BaseBeanModifier;
 import org.jdto.impl.BeanClassUtils;
 import org.jdto.impl.ValueConversionHelper;
@@ -80,19 +81,47 @@ public class BeanWrapperBeanModifier extends BaseBeanModifier{
             
             builder.append(prop);
             
-            Object partialValue = beanWrapper.getPropertyValue(builder.toString());
-            if (partialValue == null) {
-                //make up for it
-                Class propCls = beanWrapper.getPropertyType(builder.toString());
-                Object madeUpValue = BeanClassUtils.createInstance(propCls);
-                if (madeUpValue != null) {
-                    if (beanWrapper.isWritableProperty(builder.toString())) {
-                        beanWrapper.setPropertyValue(builder.toString(), madeUpValue);
-                    }
+            makeUpMissingInstance(beanWrapper, builder.toString());
+        }
+        
+        setPropertyValue(beanWrapper, propertyPath, value, instance);
+    }
+    
+    /**
+     * Set a property using the parsed property path invoking a spring framework {@link BeanWrapper}.
+     * @param path
+     * @param value
+     * @param instance 
+     * @since 1.5
+     */
+    @Override
+    protected void doWritePropertyValue(PropertyPath path, Object value, Object instance) {
+        BeanWrapper beanWrapper = PropertyAccessorFactory.forBeanPropertyAccess(instance);
+        
+        //check and make up for missing association parts.
+        //go through all the parts but one
+        for (int i = 0; i < path.size() - 1; i++) {
+            makeUpMissingInstance(beanWrapper, path.getSubPath(i));
+        }
+        
+        setPropertyValue(beanWrapper, path.getPath(), value, instance);
+    }
+    
+    private void makeUpMissingInstance(BeanWrapper beanWrapper, String subPath) {
+        Object partialValue = beanWrapper.getPropertyValue(subPath);
+        if (partialValue == null) {
+            //make up for it
+            Class propCls = beanWrapper.getPropertyType(subPath);
+            Object madeUpValue = BeanClassUtils.createInstance(propCls);
+            if (madeUpValue != null) {
+                if (beanWrapper.isWritableProperty(subPath)) {
+                    beanWrapper.setPropertyValue(subPath, madeUpValue);
                 }
             }
         }
-        
+    }
+    
+    private void setPropertyValue(BeanWrapper beanWrapper, String propertyPath, Object value, Object instance) {
         
         if (!beanWrapper.isWritableProperty(propertyPath)) {
             logger.info("Cannot write property path "+propertyPath+" of bean", instance);
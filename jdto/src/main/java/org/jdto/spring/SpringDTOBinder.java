@@ -19,6 +19,7 @@ package org.jdto.spring;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
 import org.jdto.DTOBinder;
 import org.jdto.PropertyValueMerger;
@@ -118,6 +119,24 @@ public class SpringDTOBinder implements InitializingBean, DTOBinder, Application
         return delegate.bindFromBusinessObject(dtoClass, businessObjects);
     }
 
+    /**
+     * {@inheritDoc }
+     * @since 1.5
+     */
+    @Override
+    public <T> T bindInto(T target, Object... businessObjects) {
+        return delegate.bindInto(target, businessObjects);
+    }
+
+    /**
+     * {@inheritDoc }
+     * @since 1.5
+     */
+    @Override
+    public <T> T[] bindIntoArray(T[] targets, List<?> businessObjects) {
+        return delegate.bindIntoArray(targets, businessObjects);
+    }
+
     /**
      * {@inheritDoc }
      */
@@ -126,6 +145,15 @@ public class SpringDTOBinder implements InitializingBean, DTOBinder, Application
         return delegate.bindFromBusinessObjectList(dtoClass, businessObjectsLists);
     }
 
+    /**
+     * {@inheritDoc }
+     * @since 1.5
+     */
+    @Override
+    public <T> List<T> bindFromBusinessObjectList(Class<T> dtoClass, Iterable... businessObjects) {
+        return delegate.bindFromBusinessObjectList(dtoClass, businessObjects);
+    }
+
     /**
      * {@inheritDoc }
      */
@@ -158,6 +186,24 @@ public class SpringDTOBinder implements InitializingBean, DTOBinder, Application
     public <T,R extends Collection> R bindFromBusinessObjectCollection(Class<T> dtoClass, R businessObjects) {
         return delegate.bindFromBusinessObjectCollection(dtoClass, businessObjects);
     }
+
+    /**
+     * {@inheritDoc }
+     * @since 1.5
+     */
+    @Override
+    public <T> Iterator<T> bindIterator(Class<T> dtoClass, Iterator<?> businessObjects) {
+        return delegate.bindIterator(dtoClass, businessObjects);
+    }
+
+    /**
+     * {@inheritDoc }
+     * @since 1.5
+     */
+    @Override
+    public <T> Iterable<T> bindIterable(Class<T> dtoClass, Iterable<?> businessObjects) {
+        return delegate.bindIterable(dtoClass, businessObjects);
+    }
     
     /**
      * {@inheritDoc}
@@ -0,0 +1,418 @@
+/*
+ *    Copyright 2012 Juan Alberto López Cavallotti
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jdto.stream;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.concurrent.Executor;
+import org.jdto.DTOBinder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Stream stage which receives business objects and emits the DTOs bound out of
+ * them, honoring the demand of its subscriber. <br />
+ *
+ * The processor follows the protocol of reactive streams: it subscribes to an
+ * upstream {@link Subscription}, is subscribed by a single downstream
+ * {@link Subscriber} and never requests more business objects from upstream
+ * than DTOs were requested downstream. <br />
+ *
+ * Business objects are requested from upstream in batches of at most the
+ * configured size, each batch is bound by a single call to
+ * {@link DTOBinder#bindFromBusinessObjectList(java.lang.Class, java.util.List[]) }
+ * on the given scheduler, so the binding plan is looked up and the binding
+ * context is set up once per batch. The DTOs are emitted in order on the
+ * scheduler thread. Only one batch is bound at a time, the next one is
+ * requested while the previous one is being bound.
+ *
+ * @param <T> the type of the DTOs.
+ * @since 1.5
+ */
+public class BindingProcessor<T> implements Subscriber<Object> {
+
+    private static final Logger logger = LoggerFactory.getLogger(BindingProcessor.class);
+
+    private final DTOBinder binder;
+    private final Class<T> dtoClass;
+    private final Executor scheduler;
+    private final int batchSize;
+
+    //all the state below is guarded by this lock.
+    private final Object lock = new Object();
+    private Subscription upstream;
+    private Subscriber<? super T> downstream;
+    /** DTOs requested downstream which were not requested upstream yet. */
+    private long unrequested;
+    /** business objects requested upstream which were not received yet. */
+    private long outstanding;
+    private List<Object> current = new ArrayList<Object>();
+    private final LinkedList<Object[]> batches = new LinkedList<Object[]>();
+    private boolean draining;
+    private boolean done;
+    private Throwable error;
+    private boolean terminated;
+    private boolean cancelled;
+
+    /**
+     * Create a new binding processor.
+     * @param binder the binder to bind the business objects with.
+     * @param dtoClass the type of the DTOs to emit.
+     * @param scheduler the executor which binds the batches and emits the DTOs.
+     * @param batchSize the maximum amount of business objects bound together.
+     */
+    public BindingProcessor(DTOBinder binder, Class<T> dtoClass, Executor scheduler, int batchSize) {
+
+        if (binder == null || dtoClass == null || scheduler == null) {
+            throw new IllegalArgumentException("The binder, the DTO class and the scheduler should not be null");
+        }
+
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("The batch size should be at least 1");
+        }
+
+        this.binder = binder;
+        this.dtoClass = dtoClass;
+        this.scheduler = scheduler;
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Subscribe the receiver of the DTOs, only one subscriber is supported.
+     * @param subscriber the subscriber.
+     */
+    public void subscribe(Subscriber<? super T> subscriber) {
+
+        if (subscriber == null) {
+            throw new NullPointerException("The subscriber should not be null");
+        }
+
+        boolean accepted;
+        synchronized (lock) {
+            accepted = downstream == null;
+            if (accepted) {
+                downstream = subscriber;
+            }
+        }
+
+        if (!accepted) {
+            subscriber.onSubscribe(new RejectedSubscription());
+            subscriber.onError(new IllegalStateException("The binding processor supports only one subscriber"));
+            return;
+        }
+
+        subscriber.onSubscribe(new DownstreamSubscription());
+        //upstream may have completed already.
+        scheduleDrain();
+    }
+
+    @Override
+    public void onSubscribe(Subscription subscription) {
+
+        boolean reject;
+        synchronized (lock) {
+            reject = upstream != null || cancelled;
+            if (upstream == null) {
+                upstream = subscription;
+            }
+        }
+
+        if (reject) {
+            subscription.cancel();
+            return;
+        }
+
+        requestUpstream();
+    }
+
+    @Override
+    public void onNext(Object businessObject) {
+        synchronized (lock) {
+            if (done || cancelled) {
+                return;
+            }
+
+            current.add(businessObject);
+            outstanding--;
+
+            //the batch is complete once all the requested objects arrived.
+            if (outstanding <= 0) {
+                completeBatch();
+            }
+        }
+
+        requestUpstream();
+        scheduleDrain();
+    }
+
+    @Override
+    public void onError(Throwable throwable) {
+        synchronized (lock) {
+            if (done) {
+                return;
+            }
+            //the DTOs of the objects received so far are emitted first.
+            completeBatch();
+            error = throwable;
+            done = true;
+        }
+
+        scheduleDrain();
+    }
+
+    @Override
+    public void onComplete() {
+        synchronized (lock) {
+            if (done) {
+                return;
+            }
+            completeBatch();
+            done = true;
+        }
+
+        scheduleDrain();
+    }
+
+    /**
+     * Queue the business objects received so far for binding.
+     */
+    private void completeBatch() {
+        if (!current.isEmpty()) {
+            batches.add(current.toArray());
+            current = new ArrayList<Object>();
+        }
+    }
+
+    /**
+     * Request the next batch from upstream if there is no batch being received
+     * and there is demand for it.
+     */
+    private void requestUpstream() {
+        Subscription subscription;
+        long amount;
+
+        synchronized (lock) {
+            if (upstream == null || done || cancelled || outstanding > 0 || unrequested == 0) {
+                return;
+            }
+
+            amount = Math.min(unrequested, batchSize);
+            unrequested -= amount;
+            outstanding = amount;
+            subscription = upstream;
+        }
+
+        subscription.request(amount);
+    }
+
+    /**
+     * Make the scheduler bind the queued batches, unless it's already doing so.
+     */
+    private void scheduleDrain() {
+        synchronized (lock) {
+            if (draining || downstream == null || cancelled || terminated) {
+                return;
+            }
+            if (batches.isEmpty() && !done) {
+                return;
+            }
+            draining = true;
+        }
+
+        try {
+            scheduler.execute(new Runnable() {
+                @Override
+                public void run() {
+                    drain();
+                }
+            });
+        } catch (RuntimeException ex) {
+            logger.error("The scheduler rejected the binding of a batch", ex);
+            synchronized (lock) {
+                draining = false;
+            }
+            fail(ex);
+        }
+    }
+
+    /**
+     * Bind the queued batches and emit their DTOs, then the terminal signal if
+     * upstream is done.
+     */
+    private void drain() {
+        while (true) {
+            Object[] batch;
+            Subscriber<? super T> subscriber;
+            Throwable terminalError = null;
+            boolean terminate = false;
+
+            synchronized (lock) {
+                subscriber = downstream;
+                batch = batches.poll();
+
+                if (cancelled || terminated) {
+                    draining = false;
+                    return;
+                }
+
+                if (batch == null) {
+                    draining = false;
+                    if (!done) {
+                        return;
+                    }
+                    terminated = true;
+                    terminate = true;
+                    terminalError = error;
+                }
+            }
+
+            if (terminate) {
+                if (terminalError == null) {
+                    subscriber.onComplete();
+                } else {
+                    subscriber.onError(terminalError);
+                }
+                return;
+            }
+
+            List<T> dtos;
+            try {
+                dtos = binder.bindFromBusinessObjectList(dtoClass, Arrays.asList(batch));
+            } catch (RuntimeException ex) {
+                synchronized (lock) {
+                    draining = false;
+                }
+                fail(ex);
+                return;
+            }
+
+            int skipped = 0;
+            for (T dto : dtos) {
+                if (isCancelled()) {
+                    break;
+                }
+                //null business objects have no DTO to emit.
+                if (dto == null) {
+                    skipped++;
+                } else {
+                    subscriber.onNext(dto);
+                }
+            }
+
+            //the demand not satisfied by the skipped objects is requested again.
+            if (skipped > 0) {
+                addDemand(skipped);
+            }
+        }
+    }
+
+    /**
+     * Add DTOs to the demand and request more business objects if possible.
+     */
+    private void addDemand(long n) {
+        synchronized (lock) {
+            unrequested += n;
+            //unbounded demand.
+            if (unrequested < 0) {
+                unrequested = Long.MAX_VALUE;
+            }
+        }
+
+        requestUpstream();
+    }
+
+    /**
+     * Cancel upstream and signal the error downstream.
+     */
+    private void fail(Throwable throwable) {
+        Subscription subscription;
+        Subscriber<? super T> subscriber;
+
+        synchronized (lock) {
+            if (terminated || cancelled) {
+                return;
+            }
+            terminated = true;
+            done = true;
+            batches.clear();
+            subscription = upstream;
+            subscriber = downstream;
+        }
+
+        if (subscription != null) {
+            subscription.cancel();
+        }
+        subscriber.onError(throwable);
+    }
+
+    private boolean isCancelled() {
+        synchronized (lock) {
+            return cancelled;
+        }
+    }
+
+    /**
+     * The subscription handed to the subscriber of the DTOs.
+     */
+    private class DownstreamSubscription implements Subscription {
+
+        @Override
+        public void request(long n) {
+
+            if (n <= 0) {
+                fail(new IllegalArgumentException("The amount of requested DTOs should be positive, got " + n));
+                return;
+            }
+
+            addDemand(n);
+        }
+
+        @Override
+        public void cancel() {
+            Subscription subscription;
+
+            synchronized (lock) {
+                if (cancelled) {
+                    return;
+                }
+                cancelled = true;
+                batches.clear();
+                current.clear();
+                subscription = upstream;
+            }
+
+            if (subscription != null) {
+                subscription.cancel();
+            }
+        }
+    }
+
+    /**
+     * The subscription handed to the subscribers which were not accepted.
+     */
+    private static class RejectedSubscription implements Subscription {
+
+        @Override
+        public void request(long n) {
+        }
+
+        @Override
+        public void cancel() {
+        }
+    }
+}
@@ -0,0 +1,48 @@
+/*
+ *    Copyright 2012 Juan Alberto López Cavallotti
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jdto.stream;
+
+/**
+ * Receiver of a stream of elements, mirrors the subscriber of reactive streams.
+ *
+ * @param <E> the type of the elements.
+ * @since 1.5
+ */
+public interface Subscriber<E> {
+
+    /**
+     * Called once, before any other signal.
+     * @param subscription the subscription to request elements with.
+     */
+    void onSubscribe(Subscription subscription);
+
+    /**
+     * Receive the next element.
+     * @param element the element.
+     */
+    void onNext(E element);
+
+    /**
+     * The stream failed, no other signal follows.
+     * @param throwable the failure.
+     */
+    void onError(Throwable throwable);
+
+    /**
+     * The stream is complete, no other signal follows.
+     */
+    void onComplete();
+}
@@ -0,0 +1,36 @@
+/*
+ *    Copyright 2012 Juan Alberto López Cavallotti
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jdto.stream;
+
+/**
+ * Link between a publisher and a subscriber, mirrors the subscription of
+ * reactive streams.
+ *
+ * @since 1.5
+ */
+public interface Subscription {
+
+    /**
+     * Ask for at most the given amount of elements.
+     * @param n the amount, should be positive.
+     */
+    void request(long n);
+
+    /**
+     * Stop receiving elements.
+     */
+    void cancel();
+}
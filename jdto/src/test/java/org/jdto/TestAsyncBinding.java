@@ -0,0 +1,106 @@
+/*
+ *    Copyright 2012 Juan Alberto López Cavallotti
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jdto;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.jdto.dtos.MultiSourceDTO;
+import org.jdto.dtos.PersonDTO;
+import org.jdto.entities.Person;
+import org.jdto.entities.PersonAddress;
+import org.jdto.entities.SimpleEntity;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Test the binding on executors.
+ */
+public class TestAsyncBinding {
+
+    private AsyncDTOBinder binder;
+    private ExecutorService executor;
+
+    @Before
+    public void init() {
+        binder = (AsyncDTOBinder) DTOBinderFactory.buildBinder();
+        executor = Executors.newSingleThreadExecutor();
+    }
+
+    @After
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void testBindAsync() throws Exception {
+        
+        Person person = new Person();
+        person.setName("John Doe");
+        
+        PersonAddress address = new PersonAddress();
+        address.setAddress("Addr 1");
+        address.setPerson(person);
+        
+        ArrayList<PersonAddress> addresses = new ArrayList<PersonAddress>();
+        addresses.add(address);
+        person.setAddresses(addresses);
+        
+        Future<PersonDTO> future = binder.bindAsync(executor, PersonDTO.class, person);
+        PersonDTO dto = future.get();
+        
+        assertEquals("John Doe", dto.getName());
+        assertSame(dto, dto.getAddresses().get(0).getPerson());
+    }
+
+    @Test
+    public void testBindListAsync() throws Exception {
+        
+        List<SimpleEntity> first = Arrays.asList(new SimpleEntity("a1", 0, 0, true), new SimpleEntity("b1", 0, 0, true));
+        List<SimpleEntity> second = Arrays.asList(new SimpleEntity("a2", 0, 0, true), new SimpleEntity("b2", 0, 0, true));
+        List<SimpleEntity> third = Arrays.asList(new SimpleEntity("a3", 0, 0, true), new SimpleEntity("b3", 0, 0, true));
+        
+        List<MultiSourceDTO> dtos = binder.bindListAsync(executor, MultiSourceDTO.class, first, second, third).get();
+        
+        assertEquals(2, dtos.size());
+        assertEquals("b3", dtos.get(1).getSource3());
+    }
+
+    @Test
+    public void testFailure() throws Exception {
+        
+        List<SimpleEntity> first = Arrays.asList(new SimpleEntity("a1", 0, 0, true), new SimpleEntity("b1", 0, 0, true));
+        List<SimpleEntity> shorter = Arrays.asList(new SimpleEntity("a2", 0, 0, true));
+        
+        Future<List<MultiSourceDTO>> future = binder.bindListAsync(executor, MultiSourceDTO.class, first, shorter, shorter);
+        
+        try {
+            future.get();
+            fail("The binding should have failed");
+        } catch (ExecutionException ex) {
+            assertTrue(ex.getCause() instanceof NoSuchElementException);
+        }
+    }
+}
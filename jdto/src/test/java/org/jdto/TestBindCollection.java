@@ -18,10 +18,12 @@ package org.jdto;
 
 import java.util.Set;
 import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import org.jdto.dtos.FormatDTO;
+import org.jdto.dtos.MultiSourceDTO;
 import org.jdto.entities.SimpleEntity;
 import java.util.LinkedList;
 import org.junit.BeforeClass;
@@ -88,5 +90,38 @@ public class TestBindCollection {
         
         assertEquals("both lists should have the same size", simpleEntities.size(), dtos.size());
         assertEquals("The result should be a hash set.", HashSet.class, dtos.getClass());
-    }    
+    }
+    
+    @Test
+    public void testBindLinkedLists() {
+        LinkedList<SimpleEntity> first = new LinkedList<SimpleEntity>();
+        LinkedList<SimpleEntity> second = new LinkedList<SimpleEntity>();
+        LinkedList<SimpleEntity> third = new LinkedList<SimpleEntity>();
+        
+        for (int i = 0; i < 1000; i++) {
+            first.add(new SimpleEntity("first " + i, i, i, true));
+            second.add(new SimpleEntity("second " + i, i, i, true));
+            third.add(new SimpleEntity("third " + i, i, i, true));
+        }
+        
+        List<MultiSourceDTO> dtos = binder.bindFromBusinessObjectList(MultiSourceDTO.class, first, second, third);
+        
+        assertEquals("both lists should have the same size", first.size(), dtos.size());
+        assertEquals("first 999", dtos.get(999).getSource1());
+        assertEquals("second 999", dtos.get(999).getSource2());
+        assertEquals("third 0", dtos.get(0).getSource3());
+    }
+    
+    @Test
+    public void testBindIterables() {
+        Set<SimpleEntity> entities = new LinkedHashSet<SimpleEntity>();
+        entities.add(new SimpleEntity("simple 1", 12, 45.56, true));
+        entities.add(new SimpleEntity("simple 2", 34, 56.67, false));
+        
+        Iterable<SimpleEntity> iterable = entities;
+        List<FormatDTO> dtos = binder.bindFromBusinessObjectList(FormatDTO.class, iterable);
+        
+        assertEquals("both lists should have the same size", entities.size(), dtos.size());
+        assertNull(binder.bindFromBusinessObjectList(FormatDTO.class, (Iterable) null));
+    }
 }
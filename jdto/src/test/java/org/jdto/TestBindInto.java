@@ -0,0 +1,118 @@
+/*
+ *    Copyright 2012 Juan Alberto López Cavallotti
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jdto;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import org.jdto.dtos.PersonDTO;
+import org.jdto.dtos.SimpleImmutableDTO;
+import org.jdto.entities.GeneralPurposeEntity;
+import org.jdto.entities.Person;
+import org.jdto.entities.PersonAddress;
+import org.jdto.entities.SimpleAssociation;
+import org.jdto.entities.SimpleEntity;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Test the binding into existing DTO instances.
+ */
+public class TestBindInto {
+
+    private static DTOBinder binder;
+
+    @BeforeClass
+    public static void globalInit() {
+        binder = DTOBinderFactory.buildBinder();
+    }
+
+    @Test
+    public void testBindInto() {
+        
+        GeneralPurposeEntity target = new GeneralPurposeEntity();
+        
+        GeneralPurposeEntity ret = binder.bindInto(target, new GeneralPurposeEntity("first", null, null, 0.0, null, 1));
+        
+        assertSame(target, ret);
+        assertEquals("first", target.getTheString());
+        
+        binder.bindInto(target, new GeneralPurposeEntity("second", null, null, 0.0, null, 2));
+        
+        assertEquals("second", target.getTheString());
+        assertEquals(2, target.getTheInt());
+        
+        assertNull(binder.bindInto(target, (Object) null));
+    }
+    
+    @Test
+    public void testBindIntoCycles() {
+        
+        Person person = new Person();
+        person.setName("John Doe");
+        
+        PersonAddress address = new PersonAddress();
+        address.setAddress("Addr 1");
+        address.setPerson(person);
+        
+        ArrayList<PersonAddress> addresses = new ArrayList<PersonAddress>();
+        addresses.add(address);
+        person.setAddresses(addresses);
+        
+        PersonDTO target = new PersonDTO();
+        binder.bindInto(target, person);
+        
+        assertEquals("John Doe", target.getName());
+        assertSame(target, target.getAddresses().get(0).getPerson());
+    }
+    
+    @Test(expected = IllegalArgumentException.class)
+    public void testBindIntoImmutable() {
+        SimpleAssociation entity = new SimpleAssociation(new SimpleEntity("simple", 123, 345.35, true), "related");
+        binder.bindInto(new SimpleImmutableDTO("a", "b"), entity);
+    }
+    
+    @Test
+    public void testBindIntoArray() {
+        
+        GeneralPurposeEntity existing = new GeneralPurposeEntity();
+        GeneralPurposeEntity untouched = new GeneralPurposeEntity();
+        GeneralPurposeEntity[] targets = new GeneralPurposeEntity[]{existing, null, untouched};
+        
+        List<GeneralPurposeEntity> entities = Arrays.asList(
+                new GeneralPurposeEntity("first", null, null, 0.0, null, 1),
+                new GeneralPurposeEntity("second", null, null, 0.0, null, 2));
+        
+        GeneralPurposeEntity[] ret = binder.bindIntoArray(targets, entities);
+        
+        assertSame(targets, ret);
+        assertSame(existing, targets[0]);
+        assertEquals("first", targets[0].getTheString());
+        assertNotNull(targets[1]);
+        assertEquals("second", targets[1].getTheString());
+        assertSame(untouched, targets[2]);
+        assertNull(untouched.getTheString());
+    }
+    
+    @Test(expected = IllegalArgumentException.class)
+    public void testBindIntoSmallArray() {
+        List<GeneralPurposeEntity> entities = Arrays.asList(new GeneralPurposeEntity(), new GeneralPurposeEntity());
+        binder.bindIntoArray(new GeneralPurposeEntity[1], entities);
+    }
+}
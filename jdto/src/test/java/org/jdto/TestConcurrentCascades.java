@@ -0,0 +1,117 @@
+/*
+ *    Copyright 2012 Juan Alberto López Cavallotti
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jdto;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.jdto.dtos.FamilyDTO;
+import org.jdto.dtos.PersonAddressDTO;
+import org.jdto.dtos.PersonDTO;
+import org.jdto.entities.Person;
+import org.jdto.entities.PersonAddress;
+import org.jdto.impl.DTOBinderBean;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Test the concurrent binding of cascades.
+ */
+public class TestConcurrentCascades {
+
+    private DTOBinderBean binder;
+    private ExecutorService executor;
+    private AtomicInteger submitted;
+
+    @Before
+    public void init() {
+        //a single thread, nested cascades must not starve it.
+        executor = Executors.newSingleThreadExecutor();
+        submitted = new AtomicInteger();
+        
+        binder = (DTOBinderBean) DTOBinderFactory.buildBinder();
+        binder.setCascadeExecutor(new Executor() {
+            @Override
+            public void execute(Runnable command) {
+                submitted.incrementAndGet();
+                executor.execute(command);
+            }
+        });
+    }
+
+    @After
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void testConcurrentCascades() {
+        
+        HashMap<String, Object> family = new HashMap<String, Object>();
+        family.put("father", buildPerson("John Doe", 3));
+        family.put("mother", buildPerson("Jane Doe", 2));
+        
+        FamilyDTO dto = binder.bindFromBusinessObject(FamilyDTO.class, family);
+        
+        assertTrue(submitted.get() > 0);
+        
+        checkPerson(dto.getFather(), "John Doe", 3);
+        checkPerson(dto.getMother(), "Jane Doe", 2);
+    }
+
+    @Test
+    public void testConcurrentLists() {
+        
+        PersonDTO dto = binder.bindFromBusinessObject(PersonDTO.class, buildPerson("John Doe", 10));
+        
+        assertTrue(submitted.get() > 0);
+        checkPerson(dto, "John Doe", 10);
+    }
+
+    private Person buildPerson(String name, int addressCount) {
+        Person person = new Person();
+        person.setName(name);
+        
+        ArrayList<PersonAddress> addresses = new ArrayList<PersonAddress>();
+        for (int i = 0; i < addressCount; i++) {
+            PersonAddress address = new PersonAddress();
+            address.setAddress(name + " " + i);
+            address.setPerson(person);
+            addresses.add(address);
+        }
+        person.setAddresses(addresses);
+        
+        return person;
+    }
+
+    private void checkPerson(PersonDTO dto, String name, int addressCount) {
+        assertEquals(name, dto.getName());
+        assertEquals(addressCount, dto.getAddresses().size());
+        
+        for (int i = 0; i < addressCount; i++) {
+            PersonAddressDTO address = dto.getAddresses().get(i);
+            assertEquals(name + " " + i, address.getAddress());
+            assertSame(dto, address.getPerson());
+        }
+    }
+}
@@ -18,6 +18,8 @@ package org.jdto;
 import java.io.InputStream;
 import java.util.logging.Level;
 import java.util.logging.Logger;
+import org.jdto.dtos.FormatDTO;
+import org.jdto.dtos.XMLTesterDTO;
 import org.jdto.impl.DTOBinderBean;
 import org.junit.AfterClass;
 import org.junit.BeforeClass;
@@ -86,4 +88,18 @@ public class TestConfigurationErrors {
         assertTrue("Metadata should be empty.", bean.getMetadata().isEmpty());
     }
     
+    /**
+     * A DTO which can't be inspected doesn't prevent the rest of the mappings
+     * from being loaded.
+     */
+    @Test
+    public void testPartiallyBrokenMappings() {
+        
+        DTOBinderBean bean = (DTOBinderBean) DTOBinderFactory.buildBinder(getClass().getResourceAsStream("/erroneous/partiallybroken.xml"));
+        
+        assertEquals(2, bean.getMetadata().size());
+        assertTrue(bean.getMetadata().containsKey(XMLTesterDTO.class));
+        assertTrue(bean.getMetadata().containsKey(FormatDTO.class));
+    }
+    
 }
@@ -17,10 +17,18 @@
 package org.jdto;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import org.jdto.dtos.CategoryDTO;
+import org.jdto.dtos.FormatDTO;
+import org.jdto.dtos.IdentifiedDTO;
 import org.jdto.dtos.PersonAddressDTO;
 import org.jdto.dtos.PersonDTO;
 import org.jdto.entities.Person;
 import org.jdto.entities.PersonAddress;
+import org.jdto.entities.SimpleEntity;
+import org.jdto.impl.DTOBinderBean;
 import static org.junit.Assert.*;
 import org.junit.BeforeClass;
 import org.junit.Test;
@@ -69,4 +77,87 @@ public class TestCycleAvoidance {
         }
         
     }
+    
+    @Test
+    public void testSourcesAreIdentifiedByInstance() {
+        
+        Person first = new Person();
+        first.setName("John Doe");
+        Person second = new Person();
+        second.setName("John Doe");
+        
+        List<PersonDTO> dtos = binder.bindFromBusinessObjectList(PersonDTO.class, Arrays.asList(first, second, first));
+        
+        assertNotSame(dtos.get(0), dtos.get(1));
+        assertSame(dtos.get(0), dtos.get(2));
+    }
+    
+    @Test
+    public void testAcyclicDTOsAreNotTracked() {
+        
+        SimpleEntity entity = new SimpleEntity("same", 1, 1, true);
+        
+        //FormatDTO has no cascades so it can't be part of a cycle.
+        List<FormatDTO> dtos = binder.bindFromBusinessObjectList(FormatDTO.class, Arrays.asList(entity, entity));
+        
+        assertNotSame(dtos.get(0), dtos.get(1));
+        assertEquals(dtos.get(0).getPrice(), dtos.get(1).getPrice());
+    }
+    
+    @Test
+    public void testDeclaredAcyclicDTOsAreNotTracked() {
+        
+        HashMap<String, Object> leaf = new HashMap<String, Object>();
+        leaf.put("name", "leaf");
+        
+        HashMap<String, Object> root = new HashMap<String, Object>();
+        root.put("name", "root");
+        root.put("children", Arrays.asList(leaf, leaf));
+        
+        CategoryDTO dto = binder.bindFromBusinessObject(CategoryDTO.class, root);
+        
+        assertEquals("root", dto.getName());
+        assertEquals(2, dto.getChildren().size());
+        assertEquals("leaf", dto.getChildren().get(0).getName());
+        assertNotSame(dto.getChildren().get(0), dto.getChildren().get(1));
+    }
+    
+    @Test
+    public void testCycleDetectionDisabled() {
+        
+        DTOBinderBean acyclicBinder = (DTOBinderBean) DTOBinderFactory.buildBinder();
+        acyclicBinder.setCycleDetectionEnabled(false);
+        
+        Person person = new Person();
+        person.setName("John Doe");
+        
+        List<PersonDTO> dtos = acyclicBinder.bindFromBusinessObjectList(PersonDTO.class, Arrays.asList(person, person));
+        
+        assertNotSame(dtos.get(0), dtos.get(1));
+        
+        //DTOs with identifiers are still tracked.
+        SimpleEntity entity = new SimpleEntity("same", 1, 1, true);
+        List<IdentifiedDTO> identified = acyclicBinder.bindFromBusinessObjectList(IdentifiedDTO.class, Arrays.asList(entity, entity));
+        
+        assertSame(identified.get(0), identified.get(1));
+    }
+    
+    @Test
+    public void testSourcesAreIdentifiedByProperty() {
+        
+        SimpleEntity first = new SimpleEntity("same", 1, 1, true);
+        SimpleEntity second = new SimpleEntity("same", 2, 2, false);
+        SimpleEntity third = new SimpleEntity("other", 3, 3, false);
+        SimpleEntity unsaved = new SimpleEntity(null, 4, 4, false);
+        
+        List<IdentifiedDTO> dtos = binder.bindFromBusinessObjectList(IdentifiedDTO.class, Arrays.asList(first, second, third, unsaved, unsaved));
+        
+        assertSame(dtos.get(0), dtos.get(1));
+        assertEquals(1, dtos.get(1).getAnInt());
+        assertNotSame(dtos.get(0), dtos.get(2));
+        
+        //no identifier, identified by instance
+        assertNotNull(dtos.get(3));
+        assertSame(dtos.get(3), dtos.get(4));
+    }
 }
@@ -0,0 +1,124 @@
+/*
+ *    Copyright 2012 Juan Alberto López Cavallotti
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jdto;
+
+import org.jdto.dtos.FormatDTO;
+import org.jdto.entities.GeneralPurposeEntity;
+import org.jdto.entities.SimpleEntity;
+import org.jdto.impl.DTOBinderBean;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Test the pooling of released DTO instances.
+ */
+public class TestDTOPool {
+
+    private DTOBinderBean binder;
+
+    @Before
+    public void init() {
+        binder = (DTOBinderBean) DTOBinderFactory.buildBinder();
+        binder.setPoolCapacity(GeneralPurposeEntity.class, 2);
+    }
+
+    @Test
+    public void testReuse() {
+        
+        GeneralPurposeEntity first = binder.bindFromBusinessObject(GeneralPurposeEntity.class, new GeneralPurposeEntity("first", null, null, 0.0, null, 1));
+        
+        assertEquals(0, binder.getPoolHits());
+        assertEquals(1, binder.getPoolMisses());
+        
+        assertTrue(binder.release(first));
+        
+        //released instances are reset.
+        assertNull(first.getTheString());
+        assertEquals(0, first.getTheInt());
+        
+        GeneralPurposeEntity second = binder.bindFromBusinessObject(GeneralPurposeEntity.class, new GeneralPurposeEntity("second", null, null, 0.0, null, 2));
+        
+        assertSame(first, second);
+        assertEquals("second", second.getTheString());
+        assertEquals(2, second.getTheInt());
+        assertEquals(1, binder.getPoolHits());
+    }
+
+    @Test
+    public void testBounds() {
+        
+        GeneralPurposeEntity source = new GeneralPurposeEntity("source", null, null, 0.0, null, 1);
+        GeneralPurposeEntity first = binder.bindFromBusinessObject(GeneralPurposeEntity.class, source);
+        GeneralPurposeEntity second = binder.bindFromBusinessObject(GeneralPurposeEntity.class, source);
+        GeneralPurposeEntity third = binder.bindFromBusinessObject(GeneralPurposeEntity.class, source);
+        
+        assertTrue(binder.release(first));
+        
+        //already pooled.
+        assertFalse(binder.release(first));
+        
+        assertTrue(binder.release(second));
+        
+        //the pool is full.
+        assertFalse(binder.release(third));
+        
+        //not pooled.
+        FormatDTO format = binder.bindFromBusinessObject(FormatDTO.class, new SimpleEntity("simple", 1, 1, true));
+        assertFalse(binder.release(format));
+        
+        binder.setPoolCapacity(GeneralPurposeEntity.class, 0);
+        assertEquals(0, binder.getPoolCapacity(GeneralPurposeEntity.class));
+        assertNotSame(first, binder.bindFromBusinessObject(GeneralPurposeEntity.class, source));
+    }
+
+    @Test
+    public void testRejectedReleaseKeepsValues() {
+        
+        GeneralPurposeEntity source = new GeneralPurposeEntity("source", null, null, 0.0, null, 1);
+        GeneralPurposeEntity first = binder.bindFromBusinessObject(GeneralPurposeEntity.class, source);
+        GeneralPurposeEntity second = binder.bindFromBusinessObject(GeneralPurposeEntity.class, source);
+        GeneralPurposeEntity third = binder.bindFromBusinessObject(GeneralPurposeEntity.class, source);
+        
+        assertTrue(binder.release(first));
+        assertTrue(binder.release(second));
+        
+        //the pool is full, the DTO is still the caller's.
+        assertFalse(binder.release(third));
+        assertEquals("source", third.getTheString());
+        assertEquals(1, third.getTheInt());
+    }
+
+    @Test
+    public void testDoubleReleaseKeepsValues() {
+        
+        GeneralPurposeEntity source = new GeneralPurposeEntity("source", null, null, 0.0, null, 1);
+        GeneralPurposeEntity first = binder.bindFromBusinessObject(GeneralPurposeEntity.class, source);
+        
+        assertTrue(binder.release(first));
+        
+        //whoever holds the pooled instance keeps its values on a second release.
+        first.setTheString("in use");
+        assertFalse(binder.release(first));
+        assertEquals("in use", first.getTheString());
+        
+        //it is handed out only once.
+        assertSame(first, binder.bindFromBusinessObject(GeneralPurposeEntity.class, source));
+        assertNotSame(first, binder.bindFromBusinessObject(GeneralPurposeEntity.class, source));
+    }
+}
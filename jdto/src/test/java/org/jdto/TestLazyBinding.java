@@ -0,0 +1,153 @@
+/*
+ *    Copyright 2012 Juan Alberto López Cavallotti
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jdto;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.RandomAccess;
+import org.jdto.dtos.MultiSourceDTO;
+import org.jdto.dtos.PersonDTO;
+import org.jdto.entities.GeneralPurposeEntity;
+import org.jdto.entities.Person;
+import org.jdto.entities.SimpleEntity;
+import org.jdto.impl.DTOBinderBean;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Test the lazy binding of business objects through iterators.
+ */
+public class TestLazyBinding {
+
+    private DTOBinderBean binder;
+
+    @Before
+    public void init() {
+        binder = (DTOBinderBean) DTOBinderFactory.buildBinder();
+    }
+
+    @Test
+    public void testIteratorIsLazy() {
+        
+        List<GeneralPurposeEntity> entities = new ArrayList<GeneralPurposeEntity>();
+        for (int i = 0; i < 3; i++) {
+            entities.add(new GeneralPurposeEntity("entity " + i, null, null, 0.0, null, i));
+        }
+        
+        Iterator<GeneralPurposeEntity> dtos = binder.bindIterator(GeneralPurposeEntity.class, entities.iterator());
+        
+        //changes before iterating are seen by the binding.
+        entities.get(0).setTheString("changed");
+        
+        assertTrue(dtos.hasNext());
+        assertEquals("changed", dtos.next().getTheString());
+        assertEquals("entity 1", dtos.next().getTheString());
+        
+        //remove is delegated to the source.
+        dtos.remove();
+        assertEquals(2, entities.size());
+        
+        assertEquals(2, dtos.next().getTheInt());
+        assertFalse(dtos.hasNext());
+        
+        assertNull(binder.bindIterator(GeneralPurposeEntity.class, null));
+    }
+
+    @Test
+    public void testIterable() {
+        
+        List<GeneralPurposeEntity> entities = Arrays.asList(
+                new GeneralPurposeEntity("first", null, null, 0.0, null, 1),
+                new GeneralPurposeEntity("second", null, null, 0.0, null, 2));
+        
+        Iterable<GeneralPurposeEntity> dtos = binder.bindIterable(GeneralPurposeEntity.class, entities);
+        
+        //every iteration binds again.
+        for (int i = 0; i < 2; i++) {
+            int index = 0;
+            for (GeneralPurposeEntity dto : dtos) {
+                assertEquals(entities.get(index++).getTheString(), dto.getTheString());
+            }
+            assertEquals(2, index);
+        }
+    }
+
+    @Test
+    public void testBindingWindow() {
+        
+        Person person = new Person();
+        person.setName("John Doe");
+        List<Person> people = Arrays.asList(person, person, person);
+        
+        binder.setLazyBindingWindow(2);
+        Iterator<PersonDTO> dtos = binder.bindIterator(PersonDTO.class, people.iterator());
+        
+        PersonDTO first = dtos.next();
+        
+        //same window.
+        assertSame(first, dtos.next());
+        
+        //a new window.
+        assertNotSame(first, dtos.next());
+    }
+
+    @Test
+    public void testLazyList() {
+        
+        binder.setLazyListsEnabled(true);
+        
+        List<GeneralPurposeEntity> entities = new ArrayList<GeneralPurposeEntity>();
+        for (int i = 0; i < 3; i++) {
+            entities.add(new GeneralPurposeEntity("entity " + i, null, null, 0.0, null, i));
+        }
+        
+        List<GeneralPurposeEntity> dtos = binder.bindFromBusinessObjectList(GeneralPurposeEntity.class, entities);
+        
+        assertTrue(dtos instanceof RandomAccess);
+        assertEquals(3, dtos.size());
+        
+        //nothing has been bound yet.
+        entities.get(2).setTheString("changed");
+        
+        GeneralPurposeEntity first = dtos.get(0);
+        assertEquals("entity 0", first.getTheString());
+        assertSame(first, dtos.get(0));
+        assertEquals("changed", dtos.get(2).getTheString());
+    }
+    
+    @Test
+    public void testLazyMultiSourceList() {
+        
+        binder.setLazyListsEnabled(true);
+        
+        List<SimpleEntity> first = Arrays.asList(new SimpleEntity("a1", 0, 0, true), new SimpleEntity("b1", 0, 0, true));
+        List<SimpleEntity> second = Arrays.asList(new SimpleEntity("a2", 0, 0, true), new SimpleEntity("b2", 0, 0, true));
+        List<SimpleEntity> third = Arrays.asList(new SimpleEntity("a3", 0, 0, true), new SimpleEntity("b3", 0, 0, true));
+        
+        List<MultiSourceDTO> dtos = binder.bindFromBusinessObjectList(MultiSourceDTO.class, first, second, third);
+        
+        assertEquals(2, dtos.size());
+        assertEquals("b1", dtos.get(1).getSource1());
+        assertEquals("b2", dtos.get(1).getSource2());
+        assertEquals("b3", dtos.get(1).getSource3());
+        assertEquals("a2", dtos.get(0).getSource2());
+    }
+}
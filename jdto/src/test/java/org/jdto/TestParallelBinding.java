@@ -0,0 +1,141 @@
+/*
+ *    Copyright 2012 Juan Alberto López Cavallotti
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jdto;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import org.jdto.dtos.PersonAddressDTO;
+import org.jdto.dtos.PersonDTO;
+import org.jdto.entities.GeneralPurposeEntity;
+import org.jdto.entities.Person;
+import org.jdto.entities.PersonAddress;
+import org.jdto.impl.DTOBinderBean;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Test the parallel binding of large lists and collections.
+ */
+public class TestParallelBinding {
+
+    private DTOBinderBean binder;
+    private ExecutorService executor;
+
+    @Before
+    public void init() {
+        executor = Executors.newFixedThreadPool(4);
+        binder = (DTOBinderBean) DTOBinderFactory.buildBinder();
+        binder.setParallelExecutor(executor);
+        binder.setParallelThreshold(10);
+    }
+
+    @After
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void testOrderIsKept() {
+        
+        List<GeneralPurposeEntity> entities = new ArrayList<GeneralPurposeEntity>();
+        
+        for (int i = 0; i < 5000; i++) {
+            entities.add(new GeneralPurposeEntity("entity " + i, null, null, 0.0, null, i));
+        }
+        
+        List<GeneralPurposeEntity> dtos = binder.bindFromBusinessObjectList(GeneralPurposeEntity.class, entities);
+        
+        assertEquals(entities.size(), dtos.size());
+        
+        for (int i = 0; i < entities.size(); i++) {
+            assertNotSame(entities.get(i), dtos.get(i));
+            assertEquals(entities.get(i).getTheString(), dtos.get(i).getTheString());
+            assertEquals(i, dtos.get(i).getTheInt());
+        }
+    }
+
+    @Test
+    public void testCollection() {
+        
+        LinkedHashSet<GeneralPurposeEntity> entities = new LinkedHashSet<GeneralPurposeEntity>();
+        
+        for (int i = 0; i < 100; i++) {
+            entities.add(new GeneralPurposeEntity("entity " + i, null, null, 0.0, null, i));
+        }
+        
+        LinkedHashSet<GeneralPurposeEntity> dtos = binder.bindFromBusinessObjectCollection(GeneralPurposeEntity.class, entities);
+        
+        assertEquals(entities.size(), dtos.size());
+        
+        int i = 0;
+        for (GeneralPurposeEntity dto : dtos) {
+            assertEquals(i++, dto.getTheInt());
+        }
+    }
+
+    @Test
+    public void testCyclesOnWorkers() {
+        
+        List<Person> people = new ArrayList<Person>();
+        
+        for (int i = 0; i < 200; i++) {
+            Person person = new Person();
+            person.setName("person " + i);
+            
+            PersonAddress address = new PersonAddress();
+            address.setAddress("address " + i);
+            address.setPerson(person);
+            
+            ArrayList<PersonAddress> addresses = new ArrayList<PersonAddress>();
+            addresses.add(address);
+            person.setAddresses(addresses);
+            
+            people.add(person);
+        }
+        
+        List<PersonDTO> dtos = binder.bindFromBusinessObjectList(PersonDTO.class, people);
+        
+        for (int i = 0; i < people.size(); i++) {
+            PersonDTO dto = dtos.get(i);
+            assertEquals("person " + i, dto.getName());
+            
+            PersonAddressDTO address = dto.getAddresses().get(0);
+            assertEquals("address " + i, address.getAddress());
+            assertSame(dto, address.getPerson());
+        }
+    }
+
+    @Test
+    public void testSmallListsAreSequential() {
+        
+        binder.setParallelThreshold(Integer.MAX_VALUE);
+        
+        List<GeneralPurposeEntity> entities = new ArrayList<GeneralPurposeEntity>();
+        entities.add(new GeneralPurposeEntity("entity", null, null, 0.0, null, 1));
+        
+        List<GeneralPurposeEntity> dtos = binder.bindFromBusinessObjectList(GeneralPurposeEntity.class, entities);
+        
+        assertEquals(1, dtos.size());
+        assertEquals("entity", dtos.get(0).getTheString());
+    }
+}
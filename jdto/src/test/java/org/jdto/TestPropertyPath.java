@@ -0,0 +1,57 @@
+/*
+ *    Copyright 2012 Juan Alberto López Cavallotti
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jdto;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Test the parsing of property paths.
+ */
+public class TestPropertyPath {
+
+    @Test
+    public void testParsing() {
+        PropertyPath path = PropertyPath.compile("address.city.name");
+
+        assertEquals("address.city.name", path.getPath());
+        assertEquals(3, path.size());
+        assertEquals("address", path.getSegment(0));
+        assertEquals("name", path.getSegment(2));
+        assertEquals("address", path.getSubPath(0));
+        assertEquals("address.city", path.getSubPath(1));
+        assertEquals("address.city.name", path.getSubPath(2));
+
+        assertEquals(PropertyPath.compile("address.city.name"), path);
+        assertNull(PropertyPath.compile(null));
+    }
+
+    @Test
+    public void testResolution() {
+        PropertyPath path = PropertyPath.compile("name");
+        Object owner = new Object();
+        Object other = new Object();
+
+        assertNull(path.getResolution(owner));
+
+        path.setResolution(owner, "resolved");
+
+        assertEquals("resolved", path.getResolution(owner));
+        assertNull(path.getResolution(other));
+    }
+}
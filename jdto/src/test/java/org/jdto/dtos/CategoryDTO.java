@@ -0,0 +1,51 @@
+/*
+ *    Copyright 2012 Juan Alberto López Cavallotti
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jdto.dtos;
+
+import java.io.Serializable;
+import java.util.List;
+import org.jdto.annotation.DTOAcyclic;
+import org.jdto.annotation.DTOCascade;
+
+/**
+ * Tree shaped DTO, cyclic by type but not by instance.
+ */
+@DTOAcyclic
+public class CategoryDTO implements Serializable {
+    private static final long serialVersionUID = 1L;
+    
+    private String name;
+    
+    @DTOCascade
+    private List<CategoryDTO> children;
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public List<CategoryDTO> getChildren() {
+        return children;
+    }
+
+    public void setChildren(List<CategoryDTO> children) {
+        this.children = children;
+    }
+}
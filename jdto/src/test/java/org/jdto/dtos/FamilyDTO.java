@@ -0,0 +1,49 @@
+/*
+ *    Copyright 2012 Juan Alberto López Cavallotti
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jdto.dtos;
+
+import java.io.Serializable;
+import org.jdto.annotation.DTOCascade;
+
+/**
+ * DTO with more than one cascaded field.
+ */
+public class FamilyDTO implements Serializable {
+    private static final long serialVersionUID = 1L;
+    
+    @DTOCascade
+    private PersonDTO father;
+    
+    @DTOCascade
+    private PersonDTO mother;
+
+    public PersonDTO getFather() {
+        return father;
+    }
+
+    public void setFather(PersonDTO father) {
+        this.father = father;
+    }
+
+    public PersonDTO getMother() {
+        return mother;
+    }
+
+    public void setMother(PersonDTO mother) {
+        this.mother = mother;
+    }
+}
@@ -0,0 +1,86 @@
+/*
+ *    Copyright 2012 Juan Alberto López Cavallotti
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jdto.dtos;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import org.jdto.entities.SimpleEntity;
+import org.jdto.impl.PrecompiledBinder;
+
+/**
+ * Binder of the {@link PrecompiledDTO}, written the same way the verifier 
+ * generates them. Counts the DTOs it populates.
+ */
+public class PrecompiledDTOBinder extends PrecompiledBinder {
+    
+    public static final AtomicInteger populated = new AtomicInteger();
+
+    @Override
+    public Class getDtoClass() {
+        return PrecompiledDTO.class;
+    }
+
+    @Override
+    protected String[] getTargetProperties() {
+        return new String[] {"name", "amount", "label"};
+    }
+
+    @Override
+    protected String[] getSourcePaths() {
+        return new String[] {"aString", "anInt", "aString"};
+    }
+
+    @Override
+    public boolean accepts(Object[] bos) {
+        return bos.length == 1 && bos[0] instanceof SimpleEntity;
+    }
+
+    @Override
+    public Object newInstance() {
+        return new PrecompiledDTO();
+    }
+
+    @Override
+    public void populate(Object target, Object[] bos) {
+        PrecompiledDTO dto = (PrecompiledDTO) target;
+        SimpleEntity s0 = (SimpleEntity) bos[0];
+        
+        for (int k = 0; k < fields.length; k++) {
+            int f = fields[k];
+            Object v = null;
+            switch (k) {
+                case 0:
+                    v = sourceMergers[f][0].mergeObjects(s0.getaString(), sourceMergerParams[f][0]);
+                    dto.setName((String) convert(String.class, v));
+                    break;
+                case 1:
+                    v = sourceMergers[f][0].mergeObjects(s0.getAnInt(), sourceMergerParams[f][0]);
+                    dto.setAmount((Integer) convert(int.class, v));
+                    break;
+                default:
+                    v = sourceMergers[f][0].mergeObjects(s0.getaString(), sourceMergerParams[f][0]);
+                    dto.setLabel((String) convert(String.class, v));
+            }
+        }
+        
+        populated.incrementAndGet();
+    }
+
+    @Override
+    public Object construct(Object[] bos) {
+        throw new UnsupportedOperationException();
+    }
+}
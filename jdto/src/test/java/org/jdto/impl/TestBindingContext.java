@@ -0,0 +1,104 @@
+/*
+ *    Copyright 2012 Juan Alberto López Cavallotti
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jdto.impl;
+
+import org.jdto.dtos.FormatDTO;
+import org.jdto.dtos.SimpleAssociationDTO;
+import org.jdto.entities.SimpleEntity;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Test the identity based binding context.
+ */
+public class TestBindingContext {
+
+    private BindingPlan plan;
+    private BindingPlan otherPlan;
+
+    @Before
+    public void buildPlans() {
+        BaseMergerInstanceManager mergerManager = new BaseMergerInstanceManager();
+        mergerManager.setModifier(new CoreBeanModifier());
+        AnnotationBeanInspector inspector = new AnnotationBeanInspector();
+
+        plan = BindingPlan.compile(FormatDTO.class, inspector.inspectBean(FormatDTO.class), mergerManager);
+        otherPlan = BindingPlan.compile(SimpleAssociationDTO.class, inspector.inspectBean(SimpleAssociationDTO.class), mergerManager);
+    }
+
+    @Test
+    public void testIdentity() {
+        BindingContext context = new BindingContext();
+
+        SimpleEntity source = new SimpleEntity("same", 1, 1, true);
+        SimpleEntity equal = new SimpleEntity("same", 1, 1, true);
+
+        context.put(plan, new Object[]{source}, "dto");
+
+        assertEquals("dto", context.get(plan, new Object[]{source}));
+        assertNull(context.get(plan, new Object[]{equal}));
+        assertNull(context.get(otherPlan, new Object[]{source}));
+    }
+
+    @Test
+    public void testMultipleSources() {
+        BindingContext context = new BindingContext();
+
+        Object first = new Object();
+        Object second = new Object();
+        Object[] sources = new Object[]{first, second};
+
+        context.put(plan, sources, "dto");
+
+        //the caller may reuse the array
+        sources[1] = new Object();
+
+        assertEquals("dto", context.get(plan, new Object[]{first, second}));
+        assertNull(context.get(plan, sources));
+        assertNull(context.get(plan, new Object[]{first}));
+    }
+
+    @Test
+    public void testIdentifiers() {
+        BindingContext context = new BindingContext();
+
+        context.putByIdentifier(plan, 1L, "dto");
+
+        assertEquals("dto", context.getByIdentifier(plan, Long.valueOf(1)));
+        assertNull(context.getByIdentifier(plan, 2L));
+        assertNull(context.getByIdentifier(otherPlan, 1L));
+    }
+
+    @Test
+    public void testResize() {
+        BindingContext context = new BindingContext();
+        Object[] sources = new Object[1000];
+
+        for (int i = 0; i < sources.length; i++) {
+            sources[i] = new Object();
+            context.put(plan, new Object[]{sources[i]}, i);
+        }
+
+        assertEquals(sources.length, context.size());
+
+        for (int i = 0; i < sources.length; i++) {
+            assertEquals(i, context.get(plan, new Object[]{sources[i]}));
+        }
+    }
+}
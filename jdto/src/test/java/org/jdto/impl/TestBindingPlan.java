@@ -0,0 +1,76 @@
+/*
+ *    Copyright 2012 Juan Alberto López Cavallotti
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jdto.impl;
+
+import org.jdto.dtos.MultiSourceDTO;
+import org.jdto.dtos.SimpleImmutableDTO;
+import org.jdto.mergers.FirstObjectPropertyValueMerger;
+import org.jdto.mergers.IdentityPropertyValueMerger;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Test the compilation of binding plans out of bean metadata.
+ */
+public class TestBindingPlan {
+
+    private static AnnotationBeanInspector inspector;
+    private static BaseMergerInstanceManager mergerManager;
+
+    @BeforeClass
+    public static void globalInit() {
+        inspector = new AnnotationBeanInspector();
+        mergerManager = new BaseMergerInstanceManager();
+        mergerManager.setModifier(new CoreBeanModifier());
+    }
+
+    @Test
+    public void testSourceBeansResolvedToIndexes() {
+        BeanMetadata metadata = inspector.inspectBean(MultiSourceDTO.class);
+        BindingPlan plan = BindingPlan.compile(MultiSourceDTO.class, metadata, mergerManager);
+
+        assertFalse(plan.isImmutable());
+        assertEquals(3, plan.getSteps().length);
+
+        for (BindingPlan.FieldStep step : plan.getSteps()) {
+            BindingPlan.SourceStep source = step.sources[0];
+
+            //source1 reads from bean1 and so on.
+            int expected = Integer.parseInt(step.targetProperty.substring("source".length())) - 1;
+            assertEquals(expected, source.argumentIndex);
+            assertTrue(source.merger instanceof IdentityPropertyValueMerger);
+            assertTrue(step.merger instanceof FirstObjectPropertyValueMerger);
+            assertEquals(String.class, step.targetType);
+        }
+    }
+
+    @Test
+    public void testImmutablePlan() {
+        BeanMetadata metadata = inspector.inspectBean(SimpleImmutableDTO.class);
+        BindingPlan plan = BindingPlan.compile(SimpleImmutableDTO.class, metadata, mergerManager);
+
+        assertTrue(plan.isImmutable());
+        assertNotNull(plan.getConstructor());
+        assertEquals(metadata.getConstructorArgs().size(), plan.getSteps().length);
+
+        for (BindingPlan.FieldStep step : plan.getSteps()) {
+            assertNull(step.targetProperty);
+        }
+    }
+}
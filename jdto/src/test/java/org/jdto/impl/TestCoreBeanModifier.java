@@ -16,7 +16,12 @@
 
 package org.jdto.impl;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
 import java.util.*;
+import org.jdto.PropertyPath;
 import org.jdto.dtos.CompatibilityDTO;
 import org.jdto.dtos.UsefulEnum;
 import org.jdto.entities.ComplexEntity;
@@ -153,4 +158,118 @@ public class TestCoreBeanModifier {
         assertEquals("myName", simple);
         assertEquals("lastName", compound);
     }
+    
+    @Test
+    public void testMissingAccessorsAreCached() {
+        
+        CoreBeanModifier modifier = new CoreBeanModifier();
+        
+        assertNull(modifier.findProperGetter("notAProperty", SimpleEntity.class));
+        assertNull(modifier.findProperGetter("notAProperty", SimpleEntity.class));
+        assertNull(modifier.findProperSetter("notAProperty", SimpleEntity.class));
+        
+        assertNull(modifier.readPropertyValue("association.notAProperty", testIt));
+        assertNull(modifier.readPropertyValue("association.notAProperty", testIt));
+        
+        assertSame(modifier.findProperGetter("aString", SimpleEntity.class),
+                modifier.findProperGetter("aString", SimpleEntity.class));
+    }
+    
+    @Test
+    public void testPolymorphicCallSite() {
+        
+        CoreBeanModifier modifier = new CoreBeanModifier();
+        
+        SimpleEntity plain = new SimpleEntity("plain", 1, 1, true);
+        SimpleEntity subclass = new SimpleEntity("subclass", 2, 2, false) {
+        };
+        
+        for (int i = 0; i < 3; i++) {
+            assertEquals("plain", modifier.readPropertyValue("aString", plain));
+            assertEquals("subclass", modifier.readPropertyValue("aString", subclass));
+            assertEquals("testName", modifier.readPropertyValue("name", testIt));
+        }
+    }
+    
+    @Test
+    public void testParsedPropertyPath() {
+        
+        CoreBeanModifier modifier = new CoreBeanModifier();
+        PropertyPath path = PropertyPath.compile("association.related.aString");
+        
+        assertEquals("mystring", modifier.readPropertyValue(path, testIt));
+        assertNotNull(path.getResolution(modifier));
+        
+        //the resolution is only used for the same classes.
+        SimpleAssociation subclass = new SimpleAssociation(new SimpleEntity("other", 1, 1, true) {
+        }, "other");
+        
+        assertEquals("other", modifier.readPropertyValue(path, new ComplexEntity("other", subclass, 1)));
+        assertEquals("mystring", modifier.readPropertyValue(path, testIt));
+        
+        testIt.getAssociation().setRelated(null);
+        modifier.writePropertyValue(path, "made up", testIt);
+        
+        assertEquals("made up", testIt.getAssociation().getRelated().getaString());
+        
+        Map<String, Object> map = new HashMap<String, Object>();
+        modifier.writePropertyValue(path, "in map", map);
+        
+        assertEquals("in map", map.get("association.related.aString"));
+        assertEquals("in map", modifier.readPropertyValue(path, map));
+    }
+    
+    @Test
+    public void testPolymorphicPropertyPath() {
+        
+        CoreBeanModifier modifier = new CoreBeanModifier();
+        PropertyPath path = PropertyPath.compile("aString");
+        
+        //more classes than the path keeps resolutions for.
+        List<SimpleEntity> entities = new ArrayList<SimpleEntity>();
+        entities.add(new SimpleEntity("plain", 1, 1, true));
+        entities.add(new SimpleEntity("first", 1, 1, true) {
+        });
+        entities.add(new SimpleEntity("second", 1, 1, true) {
+        });
+        entities.add(new SimpleEntity("third", 1, 1, true) {
+        });
+        entities.add(new SimpleEntity("fourth", 1, 1, true) {
+        });
+        entities.add(new SimpleEntity("fifth", 1, 1, true) {
+        });
+        
+        for (int i = 0; i < 3; i++) {
+            for (SimpleEntity entity : entities) {
+                assertEquals(entity.getaString(), modifier.readPropertyValue(path, entity));
+                modifier.writePropertyValue(path, "written " + i, entity);
+                assertEquals("written " + i, entity.getaString());
+            }
+        }
+    }
+    
+    @Test
+    public void testSerialization() throws Exception {
+        
+        CoreBeanModifier modifier = new SerializableModifier();
+        modifier.setMakeUpMissingInstances(false);
+        modifier.readPropertyValue("name", testIt);
+        
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        ObjectOutputStream out = new ObjectOutputStream(bytes);
+        out.writeObject(modifier);
+        out.close();
+        
+        ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()));
+        CoreBeanModifier copy = (CoreBeanModifier) in.readObject();
+        
+        //subclasses and their settings survive.
+        assertSame(SerializableModifier.class, copy.getClass());
+        assertFalse(copy.isMakeUpMissingInstances());
+        assertEquals("testName", copy.readPropertyValue("name", testIt));
+    }
+    
+    public static class SerializableModifier extends CoreBeanModifier {
+        private static final long serialVersionUID = 1L;
+    }
 }
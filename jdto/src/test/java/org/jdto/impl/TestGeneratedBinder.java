@@ -0,0 +1,146 @@
+/*
+ *    Copyright 2012 Juan Alberto López Cavallotti
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jdto.impl;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import org.jdto.DTOBinderFactory;
+import org.jdto.dtos.ComplexListDTO;
+import org.jdto.dtos.FormatDTO;
+import org.jdto.dtos.MultiSourceDTO3;
+import org.jdto.dtos.SimpleAssociationDTO;
+import org.jdto.dtos.SimpleImmutableDTO;
+import org.jdto.entities.ComplexList;
+import org.jdto.entities.SimpleAssociation;
+import org.jdto.entities.SimpleEntity;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Test the binders generated at runtime produce the same results as the
+ * reflective binding.
+ */
+public class TestGeneratedBinder {
+
+    private static DTOBinderBean binder;
+
+    @BeforeClass
+    public static void globalInit() {
+        binder = (DTOBinderBean) DTOBinderFactory.buildBinder();
+        binder.setGeneratedBindersEnabled(true);
+    }
+
+    @Test
+    public void testBinderIsGenerated() {
+        SimpleAssociation source = new SimpleAssociation(new SimpleEntity("related", 1, 2.0, true), "my string");
+
+        BindingPlan plan = BindingPlan.compile(SimpleAssociationDTO.class,
+                new AnnotationBeanInspector().inspectBean(SimpleAssociationDTO.class), binder.getMergerManager());
+
+        GeneratedBinder generated = BinderClassCompiler.buildBinder(plan, null, new Object[]{source});
+
+        assertNotNull("the binder should have been generated", generated);
+        assertTrue(generated.accepts(new Object[]{source}));
+        assertFalse(generated.accepts(new Object[]{"not an association"}));
+
+        SimpleAssociationDTO dto = (SimpleAssociationDTO) generated.newInstance();
+        generated.populate(dto, new Object[]{source});
+
+        assertEquals("my string", dto.getFirstString());
+        assertEquals("related", dto.getSecondString());
+    }
+
+    @Test
+    public void testBinderIsGeneratedInBackground() throws InterruptedException {
+        DTOBinderBean other = (DTOBinderBean) DTOBinderFactory.buildBinder();
+        other.setGeneratedBindersEnabled(true);
+        SimpleAssociation source = new SimpleAssociation(new SimpleEntity("related", 1, 2.0, true), "my string");
+
+        //the first bind uses reflection while the binder is generated.
+        assertEquals("related", other.bindFromBusinessObject(SimpleAssociationDTO.class, source).getSecondString());
+
+        BindingPlan plan = other.currentMetadata().getPlan(SimpleAssociationDTO.class);
+        assertTrue(plan.isGenerationAttempted());
+
+        for (int i = 0; i < 300 && plan.getGeneratedBinder() == null; i++) {
+            Thread.sleep(100);
+        }
+
+        assertNotNull("the binder should have been generated", plan.getGeneratedBinder());
+        assertEquals("related", other.bindFromBusinessObject(SimpleAssociationDTO.class, source).getSecondString());
+        assertEquals("my string", other.bindFromBusinessObject(SimpleAssociationDTO.class, source).getFirstString());
+    }
+
+    @Test
+    public void testSimpleBinding() {
+        SimpleAssociation source = new SimpleAssociation(new SimpleEntity("related", 1, 2.0, true), "my string");
+
+        SimpleAssociationDTO dto = binder.bindFromBusinessObject(SimpleAssociationDTO.class, source);
+        assertEquals("my string", dto.getFirstString());
+        assertEquals("related", dto.getSecondString());
+
+        //null on the property path
+        source.setRelated(null);
+        dto = binder.bindFromBusinessObject(SimpleAssociationDTO.class, source);
+        assertEquals("my string", dto.getFirstString());
+        assertNull(dto.getSecondString());
+    }
+
+    @Test
+    public void testMergers() {
+        SimpleEntity source = new SimpleEntity("simple", 12, 45.56, true);
+        FormatDTO expected = DTOBinderFactory.buildBinder().bindFromBusinessObject(FormatDTO.class, source);
+        FormatDTO dto = binder.bindFromBusinessObject(FormatDTO.class, source);
+
+        assertEquals(expected.getPrice(), dto.getPrice());
+        assertEquals(expected.getCompound(), dto.getCompound());
+    }
+
+    @Test
+    public void testMultiSource() {
+        SimpleEntity entity1 = new SimpleEntity("Hello", 0, 0, false);
+        SimpleEntity entity2 = new SimpleEntity("World", 0, 0, false);
+
+        MultiSourceDTO3 dto = binder.bindFromBusinessObject(MultiSourceDTO3.class, entity1, entity2);
+
+        assertEquals("Hello and World!", dto.getTestString());
+    }
+
+    @Test
+    public void testImmutable() {
+        SimpleAssociation source = new SimpleAssociation(new SimpleEntity("related", 1, 2.0, true), "my string");
+
+        SimpleImmutableDTO dto = binder.bindFromBusinessObject(SimpleImmutableDTO.class, source);
+
+        assertEquals("my string", dto.getFirstString());
+        assertEquals("related", dto.getSecondString());
+    }
+
+    @Test
+    public void testCascade() {
+        ComplexList source = new ComplexList(new ArrayList<SimpleEntity>(Arrays.asList(
+                new SimpleEntity("first", 1, 1.1, true),
+                new SimpleEntity("second", 2, 2.2, false))));
+
+        ComplexListDTO dto = binder.bindFromBusinessObject(ComplexListDTO.class, source);
+
+        assertEquals(2, dto.getFormatDtos().size());
+        assertEquals("$ 1.10", dto.getFormatDtos().get(0).getPrice());
+    }
+}
@@ -0,0 +1,120 @@
+/*
+ *    Copyright 2012 Juan Alberto López Cavallotti
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jdto.impl;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.InputStream;
+import java.io.OutputStream;
+import org.jdto.DTOBinderFactory;
+import org.jdto.dtos.XMLTesterDTO;
+import org.jdto.entities.SimpleEntity;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Test the reload of XML mappings.
+ */
+public class TestMappingsReload {
+
+    private static final String BOUND = mappings("<field name=\"dtoName\"><source name=\"aString\" /></field>");
+    private static final String TRANSIENT = mappings("<field name=\"dtoName\" transient=\"true\" />");
+
+    @Test
+    public void testReload() throws Exception {
+        DTOBinderBean binder = (DTOBinderBean) DTOBinderFactory.buildBinder(stream(BOUND));
+        SimpleEntity entity = new SimpleEntity("simple", 123, 345.35222, true);
+        
+        assertEquals("simple", binder.bindFromBusinessObject(XMLTesterDTO.class, entity).getDtoName());
+        
+        assertEquals(1, binder.reloadMappings(stream(TRANSIENT)));
+        
+        //the plan has been compiled before publishing the new mappings.
+        assertNotNull(binder.currentMetadata().getPlan(XMLTesterDTO.class));
+        
+        assertNull(binder.bindFromBusinessObject(XMLTesterDTO.class, entity).getDtoName());
+    }
+
+    @Test
+    public void testBindingInProgressKeepsItsMappings() throws Exception {
+        DTOBinderBean binder = (DTOBinderBean) DTOBinderFactory.buildBinder(stream(BOUND));
+        SimpleEntity entity = new SimpleEntity("simple", 123, 345.35222, true);
+        
+        boolean release = binder.initBindingContextIfNecessary();
+        try {
+            MetadataRegistry before = binder.currentMetadata();
+            binder.reloadMappings(stream(TRANSIENT));
+            
+            assertSame(before, binder.currentMetadata());
+            assertEquals("simple", binder.bindFromBusinessObject(XMLTesterDTO.class, entity).getDtoName());
+        } finally {
+            binder.releaseBindingContext(release);
+        }
+        
+        assertNull(binder.bindFromBusinessObject(XMLTesterDTO.class, entity).getDtoName());
+    }
+
+    @Test
+    public void testWatcher() throws Exception {
+        File file = File.createTempFile("jdto-mappings", ".xml");
+        try {
+            write(file, BOUND);
+            
+            DTOBinderBean binder = (DTOBinderBean) DTOBinderFactory.buildBinder(stream(BOUND));
+            SimpleEntity entity = new SimpleEntity("simple", 123, 345.35222, true);
+            XMLMappingsWatcher watcher = new XMLMappingsWatcher(binder, file);
+            
+            assertFalse(watcher.reloadIfChanged());
+            
+            write(file, TRANSIENT);
+            file.setLastModified(file.lastModified() + 2000);
+            
+            assertTrue(watcher.reloadIfChanged());
+            assertFalse(watcher.reloadIfChanged());
+            assertNull(binder.bindFromBusinessObject(XMLTesterDTO.class, entity).getDtoName());
+            
+            //a broken file keeps the current mappings.
+            write(file, "<dto-mapping>");
+            file.setLastModified(file.lastModified() + 4000);
+            watcher.run();
+            
+            assertFalse(watcher.reloadIfChanged());
+            assertNull(binder.bindFromBusinessObject(XMLTesterDTO.class, entity).getDtoName());
+        } finally {
+            file.delete();
+        }
+    }
+
+    private static String mappings(String field) {
+        return "<dto-mapping xmlns=\"http://jdto.org/jdto/1.0\"><dto type=\"org.jdto.dtos.XMLTesterDTO\">" 
+                + field + "</dto></dto-mapping>";
+    }
+
+    private static InputStream stream(String xml) throws Exception {
+        return new ByteArrayInputStream(xml.getBytes("UTF-8"));
+    }
+
+    private static void write(File file, String xml) throws Exception {
+        OutputStream out = new FileOutputStream(file);
+        try {
+            out.write(xml.getBytes("UTF-8"));
+        } finally {
+            out.close();
+        }
+    }
+}
@@ -0,0 +1,125 @@
+/*
+ *    Copyright 2012 Juan Alberto López Cavallotti
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jdto.impl;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.jdto.DTOBinderFactory;
+import org.jdto.dtos.SimpleAssociationDTO;
+import org.jdto.entities.SimpleAssociation;
+import org.jdto.entities.SimpleEntity;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Test the metadata registry inspects each class only once.
+ */
+public class TestMetadataRegistry {
+
+    @Test
+    public void testConcurrentInspection() throws InterruptedException {
+
+        final AtomicInteger inspections = new AtomicInteger();
+
+        final AnnotationBeanInspector inspector = new AnnotationBeanInspector() {
+            @Override
+            <T> BeanMetadata inspectBean(Class<T> beanClass) {
+                inspections.incrementAndGet();
+                try {
+                    Thread.sleep(50);
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                }
+                return super.inspectBean(beanClass);
+            }
+        };
+
+        final MetadataRegistry registry = new MetadataRegistry();
+        final CountDownLatch start = new CountDownLatch(1);
+        final List<BeanMetadata> results = new ArrayList<BeanMetadata>();
+
+        List<Thread> threads = new ArrayList<Thread>();
+
+        for (int i = 0; i < 8; i++) {
+            Thread thread = new Thread() {
+                @Override
+                public void run() {
+                    try {
+                        start.await();
+                    } catch (InterruptedException ex) {
+                        return;
+                    }
+                    BeanMetadata metadata = registry.getOrInspect(SimpleAssociationDTO.class, inspector);
+                    synchronized (results) {
+                        results.add(metadata);
+                    }
+                }
+            };
+            thread.start();
+            threads.add(thread);
+        }
+
+        start.countDown();
+
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        assertEquals(1, inspections.get());
+        assertEquals(8, results.size());
+
+        for (BeanMetadata metadata : results) {
+            assertSame(registry.get(SimpleAssociationDTO.class), metadata);
+        }
+    }
+
+    @Test
+    public void testCopyIsDetached() {
+        MetadataRegistry registry = new MetadataRegistry();
+        registry.getOrInspect(SimpleAssociationDTO.class, new AnnotationBeanInspector());
+
+        registry.copy().clear();
+
+        assertNotNull(registry.get(SimpleAssociationDTO.class));
+
+        registry.replaceAll(null);
+
+        assertNull(registry.get(SimpleAssociationDTO.class));
+    }
+
+    @Test
+    public void testRegisteredMetadataIsReadOnly() {
+        DTOBinderBean binder = (DTOBinderBean) DTOBinderFactory.buildBinder();
+        binder.bindFromBusinessObject(SimpleAssociationDTO.class, new SimpleAssociation(new SimpleEntity("related", 1, 1, true), "string"));
+
+        Map<Class, BeanMetadata> metadata = binder.getRegisteredMetadata();
+        assertTrue(metadata.containsKey(SimpleAssociationDTO.class));
+
+        try {
+            metadata.clear();
+            fail("the registered metadata should not be modifiable");
+        } catch (UnsupportedOperationException ex) {
+            //expected.
+        }
+
+        assertTrue(binder.getRegisteredMetadata().containsKey(SimpleAssociationDTO.class));
+    }
+}
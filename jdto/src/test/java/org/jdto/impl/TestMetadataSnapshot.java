@@ -0,0 +1,97 @@
+/*
+ *    Copyright 2012 Juan Alberto López Cavallotti
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jdto.impl;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.util.Map;
+import org.jdto.DTOBinderFactory;
+import org.jdto.dtos.FormatDTO;
+import org.jdto.dtos.LifecycleDTO;
+import org.jdto.dtos.SimpleImmutableDTO;
+import org.jdto.entities.SimpleAssociation;
+import org.jdto.entities.SimpleEntity;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Test the export and import of the metadata snapshots.
+ */
+public class TestMetadataSnapshot {
+
+    @Test
+    public void testRoundTrip() throws Exception {
+        
+        SimpleEntity entity = new SimpleEntity("simple", 123, 345.35222, true);
+        SimpleAssociation association = new SimpleAssociation(entity, "related");
+        
+        DTOBinderBean binder = (DTOBinderBean) DTOBinderFactory.buildBinder();
+        FormatDTO format = binder.bindFromBusinessObject(FormatDTO.class, entity);
+        binder.bindFromBusinessObject(SimpleImmutableDTO.class, association);
+        binder.bindFromBusinessObject(LifecycleDTO.class, entity);
+        
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        assertEquals(3, binder.exportMetadata(out));
+        
+        DTOBinderBean other = (DTOBinderBean) DTOBinderFactory.buildBinder();
+        assertEquals(3, other.importMetadata(new ByteArrayInputStream(out.toByteArray())));
+        
+        Map<Class, BeanMetadata> imported = other.getRegisteredMetadata();
+        BeanMetadata immutable = imported.get(SimpleImmutableDTO.class);
+        
+        assertTrue(immutable.isImmutableBean());
+        assertEquals(binder.getRegisteredMetadata().get(SimpleImmutableDTO.class).getImmutableConstructor(), immutable.getImmutableConstructor());
+        assertEquals(2, imported.get(LifecycleDTO.class).getLifecycleHandlers().size());
+        
+        //the imported metadata binds the same way.
+        assertEquals(format.getPrice(), other.bindFromBusinessObject(FormatDTO.class, entity).getPrice());
+        assertEquals(format.getCompound(), other.bindFromBusinessObject(FormatDTO.class, entity).getCompound());
+        assertEquals("related", other.bindFromBusinessObject(SimpleImmutableDTO.class, association).getFirstString());
+        assertTrue(other.bindFromBusinessObject(LifecycleDTO.class, entity).afterHasBeenCalled());
+        
+        //nothing else was inspected.
+        assertEquals(3, other.getRegisteredMetadata().size());
+    }
+
+    @Test
+    public void testStaleEntriesAreSkipped() throws Exception {
+        
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        DataOutputStream data = new DataOutputStream(out);
+        data.writeInt(0x4A44544F);
+        data.writeInt(1);
+        data.writeInt(2);
+        
+        //a class which changed.
+        data.writeUTF(SimpleEntity.class.getName());
+        data.writeLong(MetadataSnapshot.fingerprint(SimpleEntity.class) + 1);
+        data.writeInt(0);
+        
+        //a class which no longer exists.
+        data.writeUTF("org.jdto.dtos.RemovedDTO");
+        data.writeLong(0);
+        data.writeInt(0);
+        data.flush();
+        
+        DTOBinderBean binder = (DTOBinderBean) DTOBinderFactory.buildBinder();
+        assertEquals(0, binder.importMetadata(new ByteArrayInputStream(out.toByteArray())));
+        
+        SimpleEntity dto = binder.bindFromBusinessObject(SimpleEntity.class, new SimpleEntity("inspected", 1, 1.0, true));
+        assertEquals("inspected", dto.getaString());
+    }
+}
@@ -0,0 +1,124 @@
+/*
+ *    Copyright 2012 Juan Alberto López Cavallotti
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jdto.impl;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import org.jdto.DTOBinderFactory;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Test the coordination of the workers of parallel bulk binding.
+ */
+public class TestParallelBulkBinding {
+
+    private DTOBinderBean binder;
+    private ExecutorService executor;
+
+    @Before
+    public void init() {
+        executor = Executors.newFixedThreadPool(4);
+        binder = (DTOBinderBean) DTOBinderFactory.buildBinder();
+    }
+
+    @After
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void testWaitsForRunningWorkers() {
+        
+        Object[] results = ParallelBulkBinding.bind(binder, executor, 64, 4, new ParallelBulkBinding.ElementBinder() {
+            @Override
+            public Object bind(int index) {
+                //the workers keep binding after the calling thread runs out of chunks.
+                sleep(Thread.currentThread().getName().startsWith("pool") ? 20 : 1);
+                return Integer.valueOf(index);
+            }
+        });
+        
+        assertEquals(64, results.length);
+        
+        for (int i = 0; i < results.length; i++) {
+            assertEquals(Integer.valueOf(i), results[i]);
+        }
+    }
+
+    @Test
+    public void testWorkerFailure() {
+        
+        try {
+            ParallelBulkBinding.bind(binder, executor, 64, 4, new ParallelBulkBinding.ElementBinder() {
+                @Override
+                public Object bind(int index) {
+                    if (Thread.currentThread().getName().startsWith("pool")) {
+                        sleep(5);
+                        throw new IllegalStateException("worker failure");
+                    }
+                    sleep(1);
+                    return Integer.valueOf(index);
+                }
+            });
+            fail("the failure of the worker should be thrown");
+        } catch (IllegalStateException ex) {
+            assertEquals("worker failure", ex.getMessage());
+        }
+    }
+
+    @Test
+    public void testIdleWorkersAreClaimed() throws InterruptedException {
+        
+        //a single thread busy elsewhere, the worker never starts before the caller is done.
+        ExecutorService busy = Executors.newSingleThreadExecutor();
+        busy.execute(new Runnable() {
+            @Override
+            public void run() {
+                sleep(200);
+            }
+        });
+        
+        try {
+            Object[] results = ParallelBulkBinding.bind(binder, busy, 8, 2, new ParallelBulkBinding.ElementBinder() {
+                @Override
+                public Object bind(int index) {
+                    return Integer.valueOf(index);
+                }
+            });
+            
+            for (int i = 0; i < results.length; i++) {
+                assertEquals(Integer.valueOf(i), results[i]);
+            }
+        } finally {
+            busy.shutdown();
+            assertTrue(busy.awaitTermination(5, TimeUnit.SECONDS));
+        }
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
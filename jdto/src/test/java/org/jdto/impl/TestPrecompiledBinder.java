@@ -0,0 +1,100 @@
+/*
+ *    Copyright 2012 Juan Alberto López Cavallotti
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jdto.impl;
+
+import org.jdto.DTOBinderFactory;
+import org.jdto.dtos.PrecompiledDTO;
+import org.jdto.dtos.PrecompiledDTOBinder;
+import org.jdto.entities.SimpleEntity;
+import org.jdto.metrics.BindingMetrics;
+import org.jdto.metrics.MetricKind;
+import org.jdto.spring.BeanWrapperBeanModifier;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Test the binders precompiled by the verifier are discovered and preferred.
+ */
+public class TestPrecompiledBinder {
+
+    @Test
+    public void testPrecompiledBinderIsUsed() {
+        DTOBinderBean binder = (DTOBinderBean) DTOBinderFactory.buildBinder();
+        int before = PrecompiledDTOBinder.populated.get();
+        
+        PrecompiledDTO dto = binder.bindFromBusinessObject(PrecompiledDTO.class, new SimpleEntity("precompiled", 12, 1.5, true));
+        
+        assertEquals("precompiled", dto.getName());
+        assertEquals(12, dto.getAmount());
+        assertEquals("label precompiled", dto.getLabel());
+        assertEquals(before + 1, PrecompiledDTOBinder.populated.get());
+    }
+
+    @Test
+    public void testReflectionWithOtherModifiers() {
+        DTOBinderBean binder = (DTOBinderBean) DTOBinderFactory.buildBinder();
+        binder.setBeanModifier(new BeanWrapperBeanModifier());
+        int before = PrecompiledDTOBinder.populated.get();
+        
+        PrecompiledDTO dto = binder.bindFromBusinessObject(PrecompiledDTO.class, new SimpleEntity("reflective", 12, 1.5, true));
+        
+        assertEquals("reflective", dto.getName());
+        assertEquals("label reflective", dto.getLabel());
+        assertEquals(before, PrecompiledDTOBinder.populated.get());
+    }
+
+    @Test
+    public void testListenerMeasuresFields() {
+        DTOBinderBean binder = (DTOBinderBean) DTOBinderFactory.buildBinder();
+        BindingMetrics metrics = new BindingMetrics();
+        binder.setBindingListener(metrics);
+        int before = PrecompiledDTOBinder.populated.get();
+        
+        PrecompiledDTO dto = binder.bindFromBusinessObject(PrecompiledDTO.class, new SimpleEntity("measured", 12, 1.5, true));
+        
+        assertEquals("measured", dto.getName());
+        assertEquals("label measured", dto.getLabel());
+        assertEquals(before, PrecompiledDTOBinder.populated.get());
+        assertEquals(1, metrics.getLatencies(MetricKind.BIND, PrecompiledDTO.class, null).getCount());
+        assertEquals(1, metrics.getLatencies(MetricKind.SOURCE_READ, PrecompiledDTO.class, "name").getCount());
+        
+        //the precompiled binder is used again once the listener is gone.
+        binder.setBindingListener(null);
+        binder.bindFromBusinessObject(PrecompiledDTO.class, new SimpleEntity("precompiled", 12, 1.5, true));
+        assertEquals(before + 1, PrecompiledDTOBinder.populated.get());
+    }
+
+    @Test
+    public void testStaleBinderIsIgnored() {
+        DTOBinderBean binder = (DTOBinderBean) DTOBinderFactory.buildBinder();
+        BindingPlan plan = BindingPlan.compile(PrecompiledDTO.class,
+                new AnnotationBeanInspector().inspectBean(PrecompiledDTO.class), binder.getMergerManager());
+        
+        PrecompiledBinder current = new PrecompiledDTOBinder();
+        assertTrue(current.matches(plan));
+        
+        //a binder generated for another version of the DTO.
+        PrecompiledBinder stale = new PrecompiledDTOBinder() {
+            @Override
+            protected String[] getSourcePaths() {
+                return new String[] {"aString", "aDouble", "aString"};
+            }
+        };
+        
+        assertFalse(stale.matches(plan));
+    }
+}
@@ -0,0 +1,109 @@
+/*
+ *    Copyright 2012 Juan Alberto López Cavallotti
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jdto.impl;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import org.jdto.DTOBinderFactory;
+import org.jdto.dtos.ComplexDTO;
+import org.jdto.dtos.FormatDTO;
+import org.jdto.dtos.PersonAddressDTO;
+import org.jdto.dtos.PersonDTO;
+import org.jdto.dtos.SimpleAssociationDTO;
+import org.jdto.dtos.UsefulEnum;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Test the warm up of DTO classes.
+ */
+public class TestWarmUp {
+
+    @Test
+    public void testCascadedClasses() {
+        DTOBinderBean binder = (DTOBinderBean) DTOBinderFactory.buildBinder();
+        
+        Collection<Class<?>> classes = Arrays.<Class<?>>asList(PersonDTO.class, ComplexDTO.class, PersonDTO.class);
+        Map<Class, Long> report = binder.warmUp(classes);
+        
+        assertEquals(4, report.size());
+        assertTrue(report.containsKey(PersonAddressDTO.class));
+        assertTrue(report.containsKey(SimpleAssociationDTO.class));
+        
+        for (Long nanos : report.values()) {
+            assertTrue(nanos >= 0);
+        }
+        
+        assertTrue(binder.getRegisteredMetadata().keySet().containsAll(report.keySet()));
+    }
+
+    @Test
+    public void testFailureIsolation() {
+        DTOBinderBean binder = (DTOBinderBean) DTOBinderFactory.buildBinder();
+        SimpleBinderDelegate delegate = new SimpleBinderDelegate(binder) {
+            @Override
+            List<Class> warmUp(MetadataRegistry metadataRegistry, Class dtoClass) {
+                if (dtoClass == PersonAddressDTO.class) {
+                    throw new IllegalStateException("broken");
+                }
+                return super.warmUp(metadataRegistry, dtoClass);
+            }
+        };
+        delegate.setInspector(new AnnotationBeanInspector());
+        delegate.setMergerManager(binder.getMergerManager());
+        
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Map<Class, Long> report = WarmUp.run(delegate, new MetadataRegistry(), executor, 
+                    Arrays.<Class<?>>asList(PersonDTO.class, FormatDTO.class));
+            
+            assertEquals(2, report.size());
+            assertTrue(report.containsKey(PersonDTO.class));
+            assertTrue(report.containsKey(FormatDTO.class));
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void testEmpty() {
+        DTOBinderBean binder = (DTOBinderBean) DTOBinderFactory.buildBinder();
+        assertTrue(binder.warmUp(Collections.<Class<?>>emptyList()).isEmpty());
+    }
+
+    @Test
+    public void testPackageScan() throws Exception {
+        List<Class<?>> classes = ClassPathScanner.findClasses("org.jdto.dtos", getClass().getClassLoader());
+        
+        assertTrue(classes.contains(PersonDTO.class));
+        assertTrue(classes.contains(ComplexDTO.class));
+        assertFalse(classes.contains(UsefulEnum.class));
+        
+        for (Class<?> type : classes) {
+            assertEquals(-1, type.getName().indexOf('$'));
+        }
+        
+        //jar entries are scanned too.
+        List<Class<?>> junit = ClassPathScanner.findClasses("org.junit.runner", Test.class.getClassLoader());
+        assertTrue(junit.contains(org.junit.runner.JUnitCore.class));
+    }
+}
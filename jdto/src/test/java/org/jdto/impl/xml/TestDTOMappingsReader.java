@@ -0,0 +1,157 @@
+/*
+ *    Copyright 2011 Juan Alberto López Cavallotti
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jdto.impl.xml;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.util.List;
+import javax.xml.bind.JAXBContext;
+import javax.xml.stream.XMLStreamException;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Test the streaming reader of the XML configuration.
+ */
+public class TestDTOMappingsReader {
+
+    @Test
+    public void testSameAsJAXB() throws Exception {
+        assertSameMappings(readWithJAXB("/demoxml.xml"), read("/demoxml.xml"));
+        assertSameMappings(readWithJAXB("/xmlmappingtest.xml"), read("/xmlmappingtest.xml"));
+    }
+
+    @Test
+    public void testAttributes() throws Exception {
+        DTOElement element = read("/demoxml.xml").getElements().get(0);
+        
+        assertEquals("org.jdto.dtos.XMLTesterDTO", element.getType());
+        assertEquals("bean1", element.getBeanNames().get(0));
+        
+        DTOConstructorArg arg = element.getConstructorArgs().get(0);
+        assertEquals(Integer.valueOf(0), arg.getOrder());
+        assertEquals("java.lang.String", arg.getType());
+        assertTrue(arg.isCascade());
+        assertEquals("tyoe", arg.getFieldType());
+        assertEquals("aaaa", arg.getSources().get(0).getMergerParam());
+        
+        DTOTargetField field = element.getTargetFields().get(0);
+        assertEquals("dtoName", field.getFieldName());
+        assertTrue(field.isDtoTransient());
+        assertEquals("bean1", field.getSources().get(0).getSourceBean());
+    }
+
+    @Test
+    public void testEmpty() throws Exception {
+        assertNull(read("/empty.xml").getElements());
+    }
+
+    @Test
+    public void testUnknownElementsAreSkipped() throws Exception {
+        String xml = "<dto-mapping xmlns=\"http://jdto.org/jdto/1.0\">"
+                + "<other><dto type=\"nested\" /></other>"
+                + "<dto type=\"a.B\" acyclic=\"1\"><!-- comment --><extra><field name=\"x\" /></extra>"
+                + "<field name=\"y\" /></dto></dto-mapping>";
+        
+        List<DTOElement> elements = DTOMappingsReader.read(new ByteArrayInputStream(xml.getBytes("UTF-8"))).getElements();
+        
+        assertEquals(1, elements.size());
+        assertTrue(elements.get(0).isAcyclic());
+        assertEquals(1, elements.get(0).getTargetFields().size());
+        assertEquals("y", elements.get(0).getTargetFields().get(0).getFieldName());
+        assertNull(elements.get(0).getTargetFields().get(0).getSources());
+        assertNull(elements.get(0).getConstructorArgs());
+    }
+
+    @Test(expected = XMLStreamException.class)
+    public void testWrongRoot() throws Exception {
+        DTOMappingsReader.read(new ByteArrayInputStream("<mappings />".getBytes("UTF-8")));
+    }
+
+    private DTOMappings read(String resource) throws Exception {
+        InputStream is = getClass().getResourceAsStream(resource);
+        try {
+            return DTOMappingsReader.read(is);
+        } finally {
+            is.close();
+        }
+    }
+
+    private DTOMappings readWithJAXB(String resource) throws Exception {
+        InputStream is = getClass().getResourceAsStream(resource);
+        try {
+            return (DTOMappings) JAXBContext.newInstance(DTOMappings.class).createUnmarshaller().unmarshal(is);
+        } finally {
+            is.close();
+        }
+    }
+
+    private void assertSameMappings(DTOMappings expected, DTOMappings actual) {
+        assertEquals(expected.getElements().size(), actual.getElements().size());
+        
+        for (int i = 0; i < expected.getElements().size(); i++) {
+            DTOElement expectedElement = expected.getElements().get(i);
+            DTOElement actualElement = actual.getElements().get(i);
+            
+            assertEquals(expectedElement.getType(), actualElement.getType());
+            assertEquals(expectedElement.isAcyclic(), actualElement.isAcyclic());
+            assertEquals(expectedElement.getBeanNames(), actualElement.getBeanNames());
+            assertEquals(size(expectedElement.getTargetFields()), size(actualElement.getTargetFields()));
+            assertEquals(size(expectedElement.getConstructorArgs()), size(actualElement.getConstructorArgs()));
+            
+            for (int j = 0; j < size(expectedElement.getTargetFields()); j++) {
+                DTOTargetField expectedField = expectedElement.getTargetFields().get(j);
+                DTOTargetField actualField = actualElement.getTargetFields().get(j);
+                
+                assertEquals(expectedField.getFieldName(), actualField.getFieldName());
+                assertEquals(expectedField.isDtoTransient(), actualField.isDtoTransient());
+                assertSameConfig(expectedField, actualField);
+            }
+            
+            for (int j = 0; j < size(expectedElement.getConstructorArgs()); j++) {
+                DTOConstructorArg expectedArg = expectedElement.getConstructorArgs().get(j);
+                DTOConstructorArg actualArg = actualElement.getConstructorArgs().get(j);
+                
+                assertEquals(expectedArg.getOrder(), actualArg.getOrder());
+                assertEquals(expectedArg.getType(), actualArg.getType());
+                assertSameConfig(expectedArg, actualArg);
+            }
+        }
+    }
+
+    private void assertSameConfig(DTOTargetConfig expected, DTOTargetConfig actual) {
+        assertEquals(expected.isCascade(), actual.isCascade());
+        assertEquals(expected.getFieldType(), actual.getFieldType());
+        assertEquals(expected.getMerger(), actual.getMerger());
+        assertEquals(expected.getMergerParam(), actual.getMergerParam());
+        assertEquals(size(expected.getSources()), size(actual.getSources()));
+        
+        for (int i = 0; i < size(expected.getSources()); i++) {
+            DTOSourceField expectedSource = expected.getSources().get(i);
+            DTOSourceField actualSource = actual.getSources().get(i);
+            
+            assertEquals(expectedSource.getName(), actualSource.getName());
+            assertEquals(expectedSource.getSourceBean(), actualSource.getSourceBean());
+            assertEquals(expectedSource.getMerger(), actualSource.getMerger());
+            assertEquals(expectedSource.getMergerParam(), actualSource.getMergerParam());
+        }
+    }
+
+    private static int size(List<?> list) {
+        return list == null ? -1 : list.size();
+    }
+}
@@ -24,6 +24,8 @@ import org.junit.BeforeClass;
 import org.junit.Test;
 
 import java.util.HashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 import static org.junit.Assert.*;
 /**
@@ -95,4 +97,17 @@ public class TestXMLParsing {
         assertTrue("resulting metadata should contain info about the configured bean", metadata.containsKey(XMLTesterDTO.class));
     }
     
+    @Test
+    public void testBuildMetadataOnExecutor() {
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            HashMap<Class, BeanMetadata> metadata = inspector.buildMetadata(executor);
+            
+            assertEquals(inspector.buildMetadata().keySet(), metadata.keySet());
+            assertTrue(metadata.containsKey(XMLTesterDTO.class));
+        } finally {
+            executor.shutdown();
+        }
+    }
+    
 }
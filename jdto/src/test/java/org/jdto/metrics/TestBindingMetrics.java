@@ -0,0 +1,155 @@
+/*
+ *    Copyright 2012 Juan Alberto López Cavallotti
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jdto.metrics;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.jdto.DTOBinderFactory;
+import org.jdto.dtos.ComplexDTO;
+import org.jdto.dtos.SimpleAssociationDTO;
+import org.jdto.entities.ComplexEntity;
+import org.jdto.entities.SimpleAssociation;
+import org.jdto.entities.SimpleEntity;
+import org.jdto.impl.DTOBinderBean;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Test the aggregation and export of binding timings.
+ */
+public class TestBindingMetrics {
+
+    @Test
+    public void testBindingTimings() {
+        DTOBinderBean binder = (DTOBinderBean) DTOBinderFactory.buildBinder();
+        BindingMetrics metrics = new BindingMetrics();
+        binder.setBindingListener(metrics);
+        
+        assertSame(metrics, binder.getBindingListener());
+        
+        ComplexEntity source = new ComplexEntity("i'm complex", 
+                new SimpleAssociation(new SimpleEntity("I'm string", 10, 10.12, true), "i'm associated"), 20);
+        
+        for (int i = 0; i < 3; i++) {
+            ComplexDTO dto = binder.bindFromBusinessObject(ComplexDTO.class, source);
+            assertEquals("i'm associated", dto.getCascadedField().getFirstString());
+        }
+        
+        assertEquals(3, metrics.getLatencies(MetricKind.BIND, ComplexDTO.class, null).getCount());
+        assertEquals(3, metrics.getLatencies(MetricKind.BIND, SimpleAssociationDTO.class, null).getCount());
+        assertEquals(3, metrics.getLatencies(MetricKind.SOURCE_READ, ComplexDTO.class, "stringField").getCount());
+        assertEquals(3, metrics.getLatencies(MetricKind.CASCADE, ComplexDTO.class, "cascadedField").getCount());
+        assertEquals(3, metrics.getLatencies(MetricKind.SOURCE_READ, SimpleAssociationDTO.class, "secondString").getCount());
+        
+        //a single merger per source plus the merger of the field.
+        assertEquals(6, metrics.getLatencies(MetricKind.MERGE, ComplexDTO.class, "stringField").getCount());
+        //cascaded values go through the source merger only.
+        assertEquals(3, metrics.getLatencies(MetricKind.MERGE, ComplexDTO.class, "cascadedField").getCount());
+        
+        //the bind of a DTO includes its cascades.
+        LatencyHistogram bind = metrics.getLatencies(MetricKind.BIND, ComplexDTO.class, null);
+        LatencyHistogram cascade = metrics.getLatencies(MetricKind.CASCADE, ComplexDTO.class, "cascadedField");
+        assertTrue(bind.getTotalNanos() >= cascade.getTotalNanos());
+        
+        binder.setBindingListener(null);
+        binder.bindFromBusinessObject(ComplexDTO.class, source);
+        assertEquals(3, metrics.getLatencies(MetricKind.BIND, ComplexDTO.class, null).getCount());
+        
+        metrics.clear();
+        assertNull(metrics.getLatencies(MetricKind.BIND, ComplexDTO.class, null));
+    }
+
+    @Test
+    public void testExport() {
+        BindingMetrics metrics = new BindingMetrics();
+        metrics.dtoBound(ComplexDTO.class, 1000L);
+        metrics.sourceRead(ComplexDTO.class, "stringField", 10L);
+        metrics.mergerCalled(ComplexDTO.class, "stringField", Object.class, 10L);
+        metrics.cascadeBound(ComplexDTO.class, "cascadedField", 500L);
+        
+        final List<String> exported = new ArrayList<String>();
+        metrics.exportTo(new MetricsExporter() {
+            @Override
+            public void export(MetricKind kind, Class<?> dtoClass, String property, LatencyHistogram latencies) {
+                assertSame(ComplexDTO.class, dtoClass);
+                assertEquals(1, latencies.getCount());
+                exported.add(kind + ":" + property);
+            }
+        });
+        
+        assertEquals(4, exported.size());
+        assertEquals("BIND:null", exported.get(0));
+        assertTrue(exported.contains("SOURCE_READ:stringField"));
+        assertTrue(exported.contains("MERGE:stringField"));
+        assertTrue(exported.contains("CASCADE:cascadedField"));
+        
+        //should not fail.
+        metrics.exportTo(new LoggingMetricsExporter());
+    }
+
+    @Test
+    public void testHistogram() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        
+        assertEquals(0, histogram.getPercentileNanos(99.0));
+        
+        for (int i = 1; i <= 100; i++) {
+            histogram.record(i * 10L);
+        }
+        
+        assertEquals(100, histogram.getCount());
+        assertEquals(50500L, histogram.getTotalNanos());
+        assertEquals(505.0, histogram.getMeanNanos(), 0.001);
+        
+        //percentiles are the upper bound of their bucket.
+        assertEquals(512L, histogram.getPercentileNanos(50.0));
+        assertEquals(1024L, histogram.getPercentileNanos(99.0));
+        assertEquals(16L, histogram.getPercentileNanos(0.0));
+        
+        assertEquals(0, LatencyHistogram.bucket(0L));
+        assertEquals(0, LatencyHistogram.bucket(1L));
+        assertEquals(1, LatencyHistogram.bucket(2L));
+        assertEquals(2, LatencyHistogram.bucket(3L));
+        assertEquals(10, LatencyHistogram.bucket(1024L));
+        assertEquals(LatencyHistogram.BUCKETS - 1, LatencyHistogram.bucket(Long.MAX_VALUE));
+    }
+
+    @Test
+    public void testStripedCounter() throws InterruptedException {
+        final StripedCounter counter = new StripedCounter();
+        Thread[] threads = new Thread[4];
+        
+        for (int i = 0; i < threads.length; i++) {
+            threads[i] = new Thread() {
+                @Override
+                public void run() {
+                    for (int j = 0; j < 10000; j++) {
+                        counter.increment();
+                    }
+                }
+            };
+            threads[i].start();
+        }
+        
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        
+        assertEquals(40000L, counter.sum());
+    }
+}
@@ -16,6 +16,10 @@
 
 package org.jdto.spring;
 
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
 import org.jdto.dtos.FormatDTO;
 import org.jdto.dtos.SimpleAssociationDTO;
 import org.jdto.entities.AnnotatedEntity;
@@ -115,4 +119,53 @@ public class TestSpringBinding {
         assertEquals(expectedCompound, dto.getCompound());
     }
     
+    @Test
+    public void testIterableBinding() {
+        List<SimpleEntity> entities = Arrays.asList(
+                new SimpleEntity("first", 1, 1.1, true), 
+                new SimpleEntity("second", 2, 2.2, false));
+        
+        Iterator<SimpleEntity> iterator = binder.bindIterator(SimpleEntity.class, entities.iterator());
+        
+        assertEquals(entities.get(0), iterator.next());
+        assertEquals(entities.get(1), iterator.next());
+        assertFalse(iterator.hasNext());
+        
+        int count = 0;
+        for (SimpleEntity dto : binder.bindIterable(SimpleEntity.class, entities)) {
+            assertEquals(entities.get(count++), dto);
+        }
+        assertEquals(2, count);
+    }
+    
+    @Test
+    public void testIterableListBinding() {
+        SimpleEntity entity = new SimpleEntity("only", 1, 1.1, true);
+        Iterable<SimpleEntity> entities = new HashSet<SimpleEntity>(Arrays.asList(entity));
+        
+        List<SimpleEntity> dtos = binder.bindFromBusinessObjectList(SimpleEntity.class, entities);
+        
+        assertEquals(1, dtos.size());
+        assertEquals(entity, dtos.get(0));
+    }
+    
+    @Test
+    public void testBindInto() {
+        SimpleEntity entity = new SimpleEntity("test", 123, 345.35, true);
+        SimpleEntity target = new SimpleEntity();
+        
+        assertSame(target, binder.bindInto(target, entity));
+        assertEquals(entity, target);
+        
+        SimpleEntity[] targets = new SimpleEntity[] {target, null};
+        List<SimpleEntity> entities = Arrays.asList(
+                new SimpleEntity("first", 1, 1.1, true), 
+                new SimpleEntity("second", 2, 2.2, false));
+        
+        assertSame(targets, binder.bindIntoArray(targets, entities));
+        assertSame(target, targets[0]);
+        assertEquals(entities.get(0), targets[0]);
+        assertEquals(entities.get(1), targets[1]);
+    }
+    
 }
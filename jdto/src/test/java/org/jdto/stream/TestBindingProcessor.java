@@ -0,0 +1,244 @@
+/*
+ *    Copyright 2012 Juan Alberto López Cavallotti
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jdto.stream;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Executor;
+import org.jdto.DTOBinder;
+import org.jdto.DTOBinderFactory;
+import org.jdto.entities.SimpleEntity;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Test the demand driven binding processor.
+ */
+public class TestBindingProcessor {
+
+    private static final Executor CALLER_RUNS = new Executor() {
+        @Override
+        public void execute(Runnable command) {
+            command.run();
+        }
+    };
+    
+    private DTOBinder binder;
+
+    @Before
+    public void init() {
+        binder = DTOBinderFactory.buildBinder();
+    }
+
+    @Test
+    public void testBackPressure() {
+        
+        ListPublisher publisher = new ListPublisher(entities(10));
+        RecordingSubscriber subscriber = new RecordingSubscriber();
+        
+        BindingProcessor<SimpleEntity> processor = new BindingProcessor<SimpleEntity>(binder, SimpleEntity.class, CALLER_RUNS, 4);
+        publisher.subscribe(processor);
+        processor.subscribe(subscriber);
+        
+        //nothing is requested upstream until there is demand.
+        assertTrue(publisher.requests.isEmpty());
+        
+        subscriber.subscription.request(3);
+        
+        assertEquals(Arrays.asList(3L), publisher.requests);
+        assertEquals(3, subscriber.received.size());
+        assertEquals("entity 0", subscriber.received.get(0).getaString());
+        assertFalse(subscriber.completed);
+        
+        //upstream is asked in batches.
+        subscriber.subscription.request(7);
+        
+        assertEquals(Arrays.asList(3L, 4L, 3L), publisher.requests);
+        assertEquals(10, subscriber.received.size());
+        assertEquals("entity 9", subscriber.received.get(9).getaString());
+        assertTrue(subscriber.completed);
+        assertNull(subscriber.error);
+    }
+    
+    @Test
+    public void testNullsAreRequestedAgain() {
+        
+        List<Object> entities = entities(4);
+        entities.add(1, null);
+        
+        ListPublisher publisher = new ListPublisher(entities);
+        RecordingSubscriber subscriber = new RecordingSubscriber();
+        
+        BindingProcessor<SimpleEntity> processor = new BindingProcessor<SimpleEntity>(binder, SimpleEntity.class, CALLER_RUNS, 10);
+        publisher.subscribe(processor);
+        processor.subscribe(subscriber);
+        
+        subscriber.subscription.request(3);
+        
+        assertEquals(Arrays.asList(3L, 1L), publisher.requests);
+        assertEquals(3, subscriber.received.size());
+        assertEquals("entity 2", subscriber.received.get(2).getaString());
+    }
+    
+    @Test
+    public void testUpstreamError() {
+        
+        ListPublisher publisher = new ListPublisher(entities(2));
+        publisher.failure = new IllegalStateException("upstream failure");
+        RecordingSubscriber subscriber = new RecordingSubscriber();
+        
+        BindingProcessor<SimpleEntity> processor = new BindingProcessor<SimpleEntity>(binder, SimpleEntity.class, CALLER_RUNS, 10);
+        publisher.subscribe(processor);
+        processor.subscribe(subscriber);
+        
+        subscriber.subscription.request(Long.MAX_VALUE);
+        
+        //the DTOs of the objects received before the error are emitted.
+        assertEquals(2, subscriber.received.size());
+        assertSame(publisher.failure, subscriber.error);
+        assertFalse(subscriber.completed);
+    }
+    
+    @Test
+    public void testCancel() {
+        
+        ListPublisher publisher = new ListPublisher(entities(10));
+        RecordingSubscriber subscriber = new RecordingSubscriber();
+        
+        BindingProcessor<SimpleEntity> processor = new BindingProcessor<SimpleEntity>(binder, SimpleEntity.class, CALLER_RUNS, 2);
+        publisher.subscribe(processor);
+        processor.subscribe(subscriber);
+        
+        subscriber.subscription.request(2);
+        subscriber.subscription.cancel();
+        subscriber.subscription.request(2);
+        
+        assertTrue(publisher.cancelled);
+        assertEquals(2, subscriber.received.size());
+    }
+    
+    @Test
+    public void testSingleSubscriber() {
+        
+        BindingProcessor<SimpleEntity> processor = new BindingProcessor<SimpleEntity>(binder, SimpleEntity.class, CALLER_RUNS, 2);
+        
+        RecordingSubscriber first = new RecordingSubscriber();
+        RecordingSubscriber second = new RecordingSubscriber();
+        processor.subscribe(first);
+        processor.subscribe(second);
+        
+        assertNull(first.error);
+        assertTrue(second.error instanceof IllegalStateException);
+    }
+    
+    private static List<Object> entities(int count) {
+        List<Object> ret = new ArrayList<Object>();
+        for (int i = 0; i < count; i++) {
+            ret.add(new SimpleEntity("entity " + i, i, i, true));
+        }
+        return ret;
+    }
+    
+    /**
+     * Publishes the elements of a list on the requesting thread.
+     */
+    private static class ListPublisher implements Subscription {
+        
+        private final List<Object> elements;
+        private final List<Long> requests = new ArrayList<Long>();
+        private Subscriber<Object> subscriber;
+        private RuntimeException failure;
+        private boolean cancelled;
+        private int next;
+        private long demand;
+        private boolean emitting;
+
+        ListPublisher(List<Object> elements) {
+            this.elements = elements;
+        }
+        
+        void subscribe(Subscriber<Object> subscriber) {
+            this.subscriber = subscriber;
+            subscriber.onSubscribe(this);
+        }
+
+        @Override
+        public void request(long n) {
+            requests.add(n);
+            demand += n;
+            
+            //requests made while emitting are served by the outer loop.
+            if (emitting) {
+                return;
+            }
+            
+            emitting = true;
+            while (demand > 0 && next < elements.size() && !cancelled) {
+                demand--;
+                subscriber.onNext(elements.get(next++));
+            }
+            emitting = false;
+            
+            if (next == elements.size() && !cancelled) {
+                if (failure == null) {
+                    subscriber.onComplete();
+                } else {
+                    subscriber.onError(failure);
+                }
+            }
+        }
+
+        @Override
+        public void cancel() {
+            cancelled = true;
+        }
+    }
+    
+    /**
+     * Records the signals it receives.
+     */
+    private static class RecordingSubscriber implements Subscriber<SimpleEntity> {
+        
+        private final List<SimpleEntity> received = new ArrayList<SimpleEntity>();
+        private Subscription subscription;
+        private Throwable error;
+        private boolean completed;
+
+        @Override
+        public void onSubscribe(Subscription subscription) {
+            this.subscription = subscription;
+        }
+
+        @Override
+        public void onNext(SimpleEntity element) {
+            received.add(element);
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            error = throwable;
+        }
+
+        @Override
+        public void onComplete() {
+            completed = true;
+        }
+    }
+}